@@ -3,15 +3,10 @@ import controller.LabelController;
 import controller.TaskController;
 import javafx.fxml.FXML;
 import javafx.event.ActionEvent;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.FlowPane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
-import javafx.stage.Stage;
 import model.User;
 
 /**
@@ -22,7 +17,7 @@ import model.User;
  * @author Raymond Huelitl
  * @author Francisco Espinoza
  */
-public class AddLabelController {
+public class AddLabelController implements ResettablePage {
     User user;
     AuthController authController;
     TaskController taskController;
@@ -82,6 +77,18 @@ public class AddLabelController {
         setupColorButtons();
     }
 
+    /**
+     * Clears the label name and the selected color every time the page is shown
+     */
+    @Override
+    public void resetPage() {
+        labelNameField.clear();
+        selectedColor = null;
+        for (var node : colorPickerPane.getChildren()) {
+            if (node instanceof Circle c) c.setStroke(null);
+        }
+    }
+
     /** Create interactive color circles */
     private void setupColorButtons() {
         Color[] colors = {
@@ -148,18 +155,11 @@ public class AddLabelController {
 
         // switch to home page
         try{
-            FXMLLoader fxmlLoader = new FXMLLoader(PandTaskApplication.class.getResource("home-page.fxml"));
-            Parent homePage = fxmlLoader.load();
-            Scene scene = new Scene(homePage, 1000, 700);
-            Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-            stage.setTitle("PandTask Home Page");
-            stage.setScene(scene);
-            HomePageController homePageController = fxmlLoader.getController();
+            HomePageController homePageController = SceneManager.show("home-page.fxml", "PandTask Home Page");
             homePageController.setAuthController(authController);
             homePageController.setLabelController(labelController);
             homePageController.setTaskController(taskController);
             homePageController.setUser(user);
-            stage.show();
             System.out.println("Switched from Add Label Scene to Home Page Scene successfully");
         } catch (Exception e) {
             System.err.println("Failed to load the Log In page scene from Settings scene.");
@@ -174,18 +174,11 @@ public class AddLabelController {
     @FXML
     private void onCloseButtonClicked(ActionEvent actionEvent){
         try{
-            FXMLLoader fxmlLoader = new FXMLLoader(PandTaskApplication.class.getResource("home-page.fxml"));
-            Parent homePage = fxmlLoader.load();
-            Scene scene = new Scene(homePage, 1000, 700);
-            Stage stage = (Stage) ((Node)actionEvent.getSource()).getScene().getWindow();
-            stage.setTitle("PandTask Home Page");
-            stage.setScene(scene);
-            HomePageController homePageController = fxmlLoader.getController();
+            HomePageController homePageController = SceneManager.show("home-page.fxml", "PandTask Home Page");
             homePageController.setAuthController(authController);
             homePageController.setLabelController(labelController);
             homePageController.setTaskController(taskController);
             homePageController.setUser(user);
-            stage.show();
             System.out.println("Switched from Add Label Scene to Home Page Scene successfully");
         } catch (Exception e) {
             System.err.println("Failed to load the Log In page scene from Add Label scene.");
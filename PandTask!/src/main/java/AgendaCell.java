@@ -0,0 +1,67 @@
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.VBox;
+import model.Occurrence;
+import model.Task;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The AgendaCell class is a row of the agenda view: a date followed by the tasks on that date.
+ * The tasks are pulled from the occurrences function when the row becomes visible, and the row is reused by
+ * the ListView for other dates while scrolling.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class AgendaCell extends ListCell<LocalDate> {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("EEEE, MMMM d yyyy");
+
+    private final Function<LocalDate, List<Occurrence>> occurrences;
+    private final Function<Occurrence, Label> taskLabelFactory;
+    private final VBox content = new VBox(4);
+    private final Label dateLabel = new Label();
+
+    /**
+     * AgendaCell constructor
+     * @param occurrences, gives the tasks on a date (Function)
+     * @param taskLabelFactory, creates the label of a task on a date (Function)
+     */
+    public AgendaCell(Function<LocalDate, List<Occurrence>> occurrences, Function<Occurrence, Label> taskLabelFactory) {
+        this.occurrences = occurrences;
+        this.taskLabelFactory = taskLabelFactory;
+        dateLabel.getStyleClass().add("agenda-date");
+    }
+
+    @Override
+    protected void updateItem(LocalDate date, boolean empty) {
+        super.updateItem(date, empty);
+        setText(null);
+        if (empty || date == null) {
+            setGraphic(null);
+            return;
+        }
+
+        dateLabel.setText(date.format(DATE_FORMATTER));
+        content.getChildren().setAll(dateLabel);
+
+        List<Occurrence> dayOccurrences = occurrences.apply(date);
+        if (dayOccurrences.isEmpty()) {
+            Label emptyLabel = new Label("No tasks");
+            emptyLabel.getStyleClass().add("agenda-empty");
+            content.getChildren().add(emptyLabel);
+        }
+        for (Occurrence occurrence : dayOccurrences) {
+            Task task = occurrence.task();
+            Label taskLabel = taskLabelFactory.apply(occurrence);
+            taskLabel.setText(task.getStartHour() + " - " + task.getEndHour() + "  " + taskLabel.getText());
+            content.getChildren().add(taskLabel);
+        }
+        setGraphic(content);
+    }
+}
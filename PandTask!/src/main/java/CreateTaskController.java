@@ -3,17 +3,20 @@ import controller.LabelController;
 import controller.TaskController;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.stage.Stage;
 import model.Label;
+import model.Occurrence;
+import model.Task;
+import model.TimeSlot;
 import model.User;
+import util.TimeParser;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * The CreateTaskController class represents the controller for the create-task scene of the PandTaskApplication
@@ -22,7 +25,7 @@ import java.time.format.DateTimeFormatter;
  * @author Raymond Huelitl
  * @author Francisco Espinoza
  */
-public class CreateTaskController {
+public class CreateTaskController implements ResettablePage {
 
     // FXML Components
     @FXML
@@ -50,6 +53,17 @@ public class CreateTaskController {
 
     private AuthController authController;
 
+    /// Minutes between two options of the time combos
+    private static final int TIME_STEP_MINUTES = 15;
+
+    /// Conflicts listed in the warning, the rest are counted
+    private static final int MAX_CONFLICTS_SHOWN = 5;
+
+    /// Find a slot looks this many days from the selected date and offers at most this many free times
+    private static final int SLOT_SEARCH_DAYS = 7;
+    private static final int MAX_SLOTS_SHOWN = 5;
+    private static final int DEFAULT_SLOT_MINUTES = 60;
+
     private User user;
     private TaskController taskController;
     private LabelController labelController;
@@ -94,23 +108,36 @@ public class CreateTaskController {
 
     /**
      * Initializes the CreateTaskController, populates the priority combo, the start times combo, the end times combo,
-     * the repeats combo, and sets the date to the current date.
+     * the repeats combo, and sets the default values.
      */
     @FXML
     public void initialize() {
         priorityCombo.getItems().addAll("Low", "Medium", "High");
-        priorityCombo.setValue("Medium");
 
-        String[] times = {"1AM", "2AM", "3AM", "4AM", "5AM", "6AM", "7AM", "8AM", "9AM", "10AM", "11AM", "12PM",
-                "1PM", "2PM", "3PM", "4PM", "5PM", "6PM", "7PM", "8PM", "9PM", "10PM", "11PM", "12AM"};
-        fromTimeCombo.getItems().addAll(times);
-        toTimeCombo.getItems().addAll(times);
-        fromTimeCombo.setValue("10AM");
-        toTimeCombo.setValue("11AM");
+        // Times every 15 minutes from 1AM to 12AM, like the rows of the calendar
+        for (int minute = 60; minute <= TimeParser.MINUTES_PER_DAY; minute += TIME_STEP_MINUTES) {
+            String time = TimeParser.format(minute);
+            fromTimeCombo.getItems().add(time);
+            toTimeCombo.getItems().add(time);
+        }
 
         repeatsCombo.getItems().addAll("None", "Daily", "Weekly", "Monthly", "Yearly");
-        repeatsCombo.setValue("None");
 
+        resetPage();
+    }
+
+    /**
+     * Clears the form and sets the date to the current date every time the page is shown
+     */
+    @Override
+    public void resetPage() {
+        taskNameField.clear();
+        descriptionField.clear();
+        priorityCombo.setValue("Medium");
+        fromTimeCombo.setValue("10AM");
+        toTimeCombo.setValue("11AM");
+        repeatsCombo.setValue("None");
+        labelNameCombo.setValue(null);
         eventDate.setValue(LocalDate.now());
     }
 
@@ -138,10 +165,38 @@ public class CreateTaskController {
                 return;
             }
 
+            int startMinute = TimeParser.parseMinuteOfDay(startHour);
+            int endMinute = TimeParser.parseMinuteOfDay(endHour);
+            if (startMinute == TimeParser.INVALID || endMinute == TimeParser.INVALID) {
+                showAlert("Error", "Please select a valid start and end time!");
+                return;
+            }
+            if (startMinute == endMinute) {
+                showAlert("Error", "The task must end after it starts!");
+                return;
+            }
+
             String dateStr = date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
 
+            List<Occurrence> conflicts = taskController.findConflicts(user, startHour, endHour, repeat, dateStr);
+            if (!conflicts.isEmpty() && !confirmConflicts(conflicts)) {
+                return;
+            }
+
+            List<Label> labels = new ArrayList<>();
+            String labelName = labelNameCombo.getValue();
+            if (labelName != null && labelController != null) {
+                for (Label label : labelController.getLabels()) {
+                    if (label.getName().equals(labelName)) {
+                        labels.add(label);
+                        break;
+                    }
+                }
+            }
+
             try {
-                taskController.createTask(user, title, startHour, endHour, repeat, description, dateStr, priority);
+                taskController.createTask(user, title, startHour, endHour, repeat, description, dateStr, priority,
+                        labels);
                 System.out.println("Task created successfully for user: " + user.getUsername());
 
                 navigateToHomePage(actionEvent);
@@ -151,6 +206,45 @@ public class CreateTaskController {
             }
     }
 
+    /**
+     * Finds the earliest free times in the week from the selected date that fit the selected duration, and fills
+     * the date and the times with the one the user picks
+     * @param actionEvent, the action event (ActionEvent)
+     */
+    @FXML
+    public void onFindSlotClicked(ActionEvent actionEvent) {
+        int startMinute = TimeParser.parseMinuteOfDay(fromTimeCombo.getValue());
+        int endMinute = TimeParser.parseMinuteOfDay(toTimeCombo.getValue());
+        int duration = startMinute != TimeParser.INVALID && endMinute > startMinute
+                ? endMinute - startMinute
+                : DEFAULT_SLOT_MINUTES;
+
+        LocalDate from = eventDate.getValue();
+        if (from == null || from.isBefore(LocalDate.now())) from = LocalDate.now();
+
+        List<TimeSlot> slots = taskController.findFreeSlots(user, from, from.plusDays(SLOT_SEARCH_DAYS - 1), duration, MAX_SLOTS_SHOWN);
+        if (slots.isEmpty()) {
+            showAlert("No Free Time", "There is no free time of " + duration + " minutes in the next " + SLOT_SEARCH_DAYS + " days.");
+            return;
+        }
+
+        Map<String, TimeSlot> choices = new LinkedHashMap<>();
+        DateTimeFormatter dayFormat = DateTimeFormatter.ofPattern("EEE MMM d");
+        for (TimeSlot slot : slots) {
+            choices.put(slot.date().format(dayFormat) + ", " + slot.getStartHour() + " - " + slot.getEndHour(), slot);
+        }
+
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(choices.keySet().iterator().next(), choices.keySet());
+        dialog.setTitle("Find a Slot");
+        dialog.setHeaderText("Free times of " + duration + " minutes");
+        dialog.setContentText("Slot:");
+        dialog.showAndWait().map(choices::get).ifPresent(slot -> {
+            eventDate.setValue(slot.date());
+            fromTimeCombo.setValue(slot.getStartHour());
+            toTimeCombo.setValue(slot.getEndHour());
+        });
+    }
+
     /**
      * Calls the navigateToHomePage and switches scenes
      * @param actionEvent, the action event (ActionEvent)
@@ -167,18 +261,11 @@ public class CreateTaskController {
     @FXML
     public void onSettingsButtonClicked(ActionEvent actionEvent){
         try {
-            FXMLLoader fxmlLoader = new FXMLLoader(PandTaskApplication.class.getResource("settings-page.fxml"));
-            Parent settingsPage = fxmlLoader.load();
-            Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
-            Scene scene = new Scene(settingsPage, 1000, 700);
-            stage.setTitle("PandTask - Settings");
-            stage.setScene(scene);
-            SettingsController settingsController = fxmlLoader.getController();
+            SettingsController settingsController = SceneManager.show("settings-page.fxml", "PandTask - Settings");
             settingsController.setTaskController(taskController);
             settingsController.setLabelController(labelController);
             settingsController.setUser(user);
             settingsController.setAuthController(authController);
-            stage.show();
         } catch (Exception e) {
             System.err.println("Unable to load Settings scene from Home Page scene... " + e.getMessage());
             e.printStackTrace();
@@ -191,26 +278,44 @@ public class CreateTaskController {
      */
     private void navigateToHomePage(ActionEvent actionEvent) {
         try {
-            FXMLLoader fxmlLoader = new FXMLLoader(PandTaskApplication.class.getResource("home-page.fxml"));
-            Parent homePage = fxmlLoader.load();
-            Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
-            Scene scene = new Scene(homePage, 1000, 700);
-            stage.setTitle("PandTask Home Page");
-            stage.setScene(scene);
-
-            HomePageController homePageController = fxmlLoader.getController();
+            HomePageController homePageController = SceneManager.show("home-page.fxml", "PandTask Home Page");
             homePageController.setUser(user);
             homePageController.setTaskController(taskController);
             homePageController.setLabelController(labelController);
             homePageController.setAuthController(authController);
-
-            stage.show();
         } catch (Exception e) {
             System.err.println("Unable to load Home Page scene: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    /**
+     * Helper method to warn about the tasks the new task overlaps and ask whether to create it anyway
+     * @param conflicts, the overlapping tasks with the first date they overlap (List)
+     * @return true if the user wants to create the task (boolean)
+     */
+    private boolean confirmConflicts(List<Occurrence> conflicts) {
+        StringBuilder content = new StringBuilder();
+        int shown = Math.min(conflicts.size(), MAX_CONFLICTS_SHOWN);
+        for (int i = 0; i < shown; i++) {
+            Occurrence conflict = conflicts.get(i);
+            Task task = conflict.task();
+            content.append("• ").append(task.getTitle())
+                    .append(" (").append(task.getStartHour()).append(" - ").append(task.getEndHour()).append(")")
+                    .append(" on ").append(conflict.date()).append("\n");
+        }
+        if (conflicts.size() > shown) {
+            content.append("... and ").append(conflicts.size() - shown).append(" more\n");
+        }
+
+        ButtonType createButton = new ButtonType("Create Anyway", ButtonBar.ButtonData.OK_DONE);
+        ButtonType cancelButton = new ButtonType("Cancel", ButtonBar.ButtonData.CANCEL_CLOSE);
+        Alert alert = new Alert(Alert.AlertType.WARNING, content.toString(), createButton, cancelButton);
+        alert.setTitle("Schedule Conflict");
+        alert.setHeaderText("This task overlaps " + conflicts.size() + " of your tasks");
+        return alert.showAndWait().filter(response -> response == createButton).isPresent();
+    }
+
     /**
      * Helper function to show an alert if there is an error during the task creation
      * @param title, the name of the task (String)
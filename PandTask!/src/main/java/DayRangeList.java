@@ -0,0 +1,54 @@
+import javafx.collections.ObservableListBase;
+
+import java.time.LocalDate;
+
+/**
+ * The DayRangeList class is a read-only list of dates computed from its index.
+ * It lets the month and agenda ListViews scroll across many years without storing one object per day:
+ * the ListView only asks for the dates of the rows that are visible.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class DayRangeList extends ObservableListBase<LocalDate> {
+
+    private final LocalDate first;
+    private final int size;
+    private final int stepDays;
+
+    /**
+     * DayRangeList constructor
+     * @param first, the date at index 0 (LocalDate)
+     * @param size, the number of dates (int)
+     * @param stepDays, the days between two consecutive dates, 1 for days and 7 for weeks (int)
+     */
+    public DayRangeList(LocalDate first, int size, int stepDays) {
+        this.first = first;
+        this.size = size;
+        this.stepDays = stepDays;
+    }
+
+    @Override
+    public LocalDate get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return first.plusDays((long) index * stepDays);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the index of the row that contains a date
+     * @param date, the date (LocalDate)
+     * @return the index, clamped to the list bounds (int)
+     */
+    public int indexOf(LocalDate date) {
+        long index = Math.floorDiv(date.toEpochDay() - first.toEpochDay(), stepDays);
+        return (int) Math.max(0, Math.min(size - 1, index));
+    }
+}
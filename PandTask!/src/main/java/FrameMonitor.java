@@ -0,0 +1,182 @@
+import javafx.animation.AnimationTimer;
+import javafx.scene.control.Label;
+import javafx.stage.Popup;
+import javafx.stage.Stage;
+import metrics.Counter;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+
+/**
+ * The FrameMonitor class is a developer overlay that shows how smoothly the FX thread draws the pages.
+ * It is only installed when the application is started with -Dpandtask.fxmonitor=true.
+ * <p>
+ * An AnimationTimer measures the time between two pulses: the frames per second, the p50, p99 and max frame time of
+ * the last second and the number of long frames are shown in a corner of the window, with the last operation timed
+ * by Metrics on the FX thread (e.g. calendar.render or tasks.save). A watchdog thread dumps the stack of the FX
+ * thread to the console while a frame is blocked for longer than the stall threshold, so file I/O or a slow render
+ * on the FX thread shows where it comes from. The thresholds are set with -Dpandtask.fxmonitor.longFrameMs
+ * (50 by default) and -Dpandtask.fxmonitor.stallMs (250 by default).
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class FrameMonitor extends AnimationTimer {
+
+    private static final long LONG_FRAME_NANOS = Long.getLong("pandtask.fxmonitor.longFrameMs", 50) * 1_000_000;
+    private static final long STALL_NANOS = Long.getLong("pandtask.fxmonitor.stallMs", 250) * 1_000_000;
+    private static final long REFRESH_NANOS = 1_000_000_000L;
+    private static final double MARGIN = 12;
+
+    private final Stage stage;
+    private final Thread fxThread;
+    private final Popup popup = new Popup();
+    private final Label text = new Label("Waiting for frames...");
+
+    /// Every frame since the start, shown in the metrics report
+    private final LatencyHistogram frames = Metrics.histogram("fx.frame");
+    private final Counter longFrames = Metrics.counter("fx.frame.long");
+    private final Counter stalls = Metrics.counter("fx.stall");
+
+    /// Frames of the last second, shown in the overlay
+    private LatencyHistogram window = new LatencyHistogram();
+    private long windowStart;
+    private long lastFrame;
+    private Metrics.Operation lastFxOperation;
+
+    /// When the FX thread last ran a pulse, read by the watchdog
+    private volatile long lastPulseNanos;
+
+    /**
+     * FrameMonitor constructor, must be called on the FX thread
+     * @param stage, the application's window (Stage)
+     */
+    private FrameMonitor(Stage stage) {
+        this.stage = stage;
+        this.fxThread = Thread.currentThread();
+
+        text.setMouseTransparent(true);
+        text.setStyle("-fx-background-color: rgba(0, 0, 0, 0.75); -fx-text-fill: #7CFC00; "
+                + "-fx-font-family: monospace; -fx-font-size: 11px; -fx-padding: 6; -fx-background-radius: 5;");
+        popup.getContent().add(text);
+    }
+
+    /**
+     * Shows the overlay on the window and starts measuring, only if -Dpandtask.fxmonitor=true.
+     * Must be called on the FX thread after the window is shown.
+     * @param stage, the application's window (Stage)
+     */
+    public static void install(Stage stage) {
+        if (!Boolean.getBoolean("pandtask.fxmonitor")) return;
+
+        FrameMonitor monitor = new FrameMonitor(stage);
+        monitor.popup.show(stage);
+        stage.xProperty().addListener((obs, oldValue, newValue) -> monitor.position());
+        stage.yProperty().addListener((obs, oldValue, newValue) -> monitor.position());
+        stage.widthProperty().addListener((obs, oldValue, newValue) -> monitor.position());
+        stage.heightProperty().addListener((obs, oldValue, newValue) -> monitor.position());
+        monitor.position();
+        monitor.start();
+
+        Thread watchdog = new Thread(monitor::watch, "PandTask-FX-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+        System.out.println("Frame monitor enabled: long frames over " + LONG_FRAME_NANOS / 1_000_000
+                + " ms, stack dumps after " + STALL_NANOS / 1_000_000 + " ms");
+    }
+
+    /**
+     * Called by JavaFX on every pulse: records the time since the previous pulse
+     * @param now, the time of this pulse in nanoseconds (long)
+     */
+    @Override
+    public void handle(long now) {
+        lastPulseNanos = System.nanoTime();
+        if (lastFrame == 0) {
+            windowStart = now;
+        } else {
+            long frameNanos = now - lastFrame;
+            frames.record(frameNanos);
+            window.record(frameNanos);
+            if (frameNanos > LONG_FRAME_NANOS) longFrames.increment();
+        }
+        lastFrame = now;
+
+        Metrics.Operation operation = Metrics.getLastOperation();
+        if (operation != null && operation.thread().equals(fxThread.getName())) {
+            lastFxOperation = operation;
+        }
+
+        if (now - windowStart >= REFRESH_NANOS) {
+            refresh(now - windowStart);
+            window = new LatencyHistogram();
+            windowStart = now;
+        }
+    }
+
+    /**
+     * Helper method to show the frames of the last window in the overlay
+     * @param windowNanos, how long the window lasted (long)
+     */
+    private void refresh(long windowNanos) {
+        Metrics.Operation operation = lastFxOperation;
+        text.setText(String.format("%5.1f fps%nframe p50 %6.1f ms%nframe p99 %6.1f ms%nframe max %6.1f ms%n"
+                        + "long frames %d, stalls %d%nlast FX op %s",
+                window.getCount() * 1_000_000_000.0 / windowNanos,
+                window.getPercentile(50) / 1_000_000.0,
+                window.getPercentile(99) / 1_000_000.0,
+                window.getMax() / 1_000_000.0,
+                longFrames.get(),
+                stalls.get(),
+                operation == null ? "-" : String.format("%s %.1f ms", operation.name(), operation.nanos() / 1_000_000.0)));
+        position();
+    }
+
+    /**
+     * Helper method to keep the overlay in the bottom right corner of the window
+     */
+    private void position() {
+        popup.setX(stage.getX() + stage.getWidth() - popup.getWidth() - MARGIN);
+        popup.setY(stage.getY() + stage.getHeight() - popup.getHeight() - MARGIN);
+    }
+
+    /**
+     * Runs on the watchdog thread: checks the pulses a few times per stall threshold and dumps the stack of the
+     * FX thread once for every pulse that is late by more than the threshold
+     */
+    private void watch() {
+        long reportedPulse = 0;
+        while (true) {
+            try {
+                Thread.sleep(Math.max(1, STALL_NANOS / 4_000_000));
+            } catch (InterruptedException e) {
+                return;
+            }
+            long pulse = lastPulseNanos;
+            long blockedNanos = System.nanoTime() - pulse;
+            if (pulse != 0 && pulse != reportedPulse && blockedNanos > STALL_NANOS) {
+                reportedPulse = pulse;
+                stalls.increment();
+                dumpFxThread(blockedNanos);
+            }
+        }
+    }
+
+    /**
+     * Helper method to print the stack of the FX thread while it is blocked
+     * @param blockedNanos, how long the FX thread has not run a pulse (long)
+     */
+    private void dumpFxThread(long blockedNanos) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("FX thread blocked for %d ms (state %s)%n", blockedNanos / 1_000_000, fxThread.getState()));
+        Metrics.Operation operation = Metrics.getLastOperation();
+        if (operation != null) {
+            sb.append(String.format("last operation: %s %.1f ms on %s%n",
+                    operation.name(), operation.nanos() / 1_000_000.0, operation.thread()));
+        }
+        for (StackTraceElement element : fxThread.getStackTrace()) {
+            sb.append("\tat ").append(element).append('\n');
+        }
+        System.err.print(sb);
+    }
+}
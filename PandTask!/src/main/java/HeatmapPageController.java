@@ -0,0 +1,200 @@
+import controller.AuthController;
+import controller.LabelController;
+import controller.TaskController;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Region;
+import model.User;
+import model.YearHeatmap;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+/**
+ * The HeatmapPageController class represents the controller for the Year Heatmap scene of the PandTaskApplication.
+ * Every day of the year is a cell, one column per week starting on Sunday, darker when the day has more hours of
+ * tasks. The hours come from the HeatmapService of the TaskController.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class HeatmapPageController implements ResettablePage {
+    // FXML Components
+    @FXML
+    private Label yearLabel;
+    @FXML
+    private Label summaryLabel;
+    @FXML
+    private GridPane heatmapGrid;
+
+    /// Number of colors of the days with tasks, see the heatmap-level classes in pandtask.css
+    private static final int LEVELS = 4;
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("EEE, MMM d");
+
+    private User user;
+    private int year = LocalDate.now().getYear();
+    private AuthController authController = new AuthController();
+    private TaskController taskController = new TaskController();
+    private LabelController labelController = new LabelController();
+
+    /**
+     * Sets the authController on the application
+     * @param authController, the authController (AuthController)
+     */
+    public void setAuthController(AuthController authController) {
+        this.authController = authController;
+    }
+
+    /**
+     * Sets the taskController on the application
+     * @param taskController, the taskController (TaskController)
+     */
+    public void setTaskController(TaskController taskController) {
+        this.taskController = taskController;
+    }
+
+    /**
+     * Sets the labelController on the application
+     * @param labelController, the labelController (LabelController)
+     */
+    public void setLabelController(LabelController labelController) {
+        this.labelController = labelController;
+    }
+
+    /**
+     * Sets the user on the application and shows their heatmap of the current year
+     * @param user, the current user (User)
+     */
+    public void setUser(User user) {
+        this.user = user;
+        this.year = LocalDate.now().getYear();
+        showHeatmap();
+    }
+
+    /**
+     * Clears the heatmap every time the page is shown, until the user is set
+     */
+    @Override
+    public void resetPage() {
+        heatmapGrid.getChildren().clear();
+        summaryLabel.setText("No tasks this year");
+    }
+
+    /**
+     * Shows the heatmap of the year before when the '<' button is clicked
+     * @param actionEvent, the action event (ActionEvent)
+     */
+    @FXML
+    protected void onPreviousYearClicked(ActionEvent actionEvent) {
+        year--;
+        showHeatmap();
+    }
+
+    /**
+     * Shows the heatmap of the year after when the '>' button is clicked
+     * @param actionEvent, the action event (ActionEvent)
+     */
+    @FXML
+    protected void onNextYearClicked(ActionEvent actionEvent) {
+        year++;
+        showHeatmap();
+    }
+
+    /**
+     * Switches to the home page when pressing the 'x' button
+     * @param actionEvent, the action event (ActionEvent)
+     */
+    @FXML
+    protected void onCloseButtonClicked(ActionEvent actionEvent) {
+        try {
+            HomePageController homePageController = SceneManager.show("home-page.fxml", "PandTask Home Page");
+            homePageController.setAuthController(authController);
+            homePageController.setLabelController(labelController);
+            homePageController.setTaskController(taskController);
+            homePageController.setUser(user);
+        } catch (Exception e) {
+            System.err.println("Failed to load the Home Page scene from Year Heatmap scene.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Helper method to fill the grid with a cell for every day of the year, with the month names above the first
+     * week of each month and the days of the week on the left
+     */
+    private void showHeatmap() {
+        yearLabel.setText(String.valueOf(year));
+        heatmapGrid.getChildren().clear();
+        if (user == null) return;
+
+        YearHeatmap heatmap = taskController.getHeatmapService().getHeatmap(user, year);
+
+        for (int row = 1; row <= 7; row += 2) {
+            // Sunday is row 1, label every other day so the rows stay small
+            Label dayName = new Label(DayOfWeek.SUNDAY.plus(row - 1).getDisplayName(TextStyle.SHORT, Locale.getDefault()));
+            dayName.getStyleClass().add("heatmap-legend");
+            heatmapGrid.add(dayName, 0, row);
+        }
+
+        LocalDate first = LocalDate.of(year, 1, 1);
+        int firstWeekday = first.getDayOfWeek().getValue() % 7;
+        LocalDate busiest = null;
+        for (LocalDate date = first; date.getYear() == year; date = date.plusDays(1)) {
+            int cellIndex = firstWeekday + date.getDayOfYear() - 1;
+            int column = cellIndex / 7 + 1;
+            int row = cellIndex % 7 + 1;
+
+            if (date.getDayOfMonth() == 1) {
+                Label monthName = new Label(date.getMonth().getDisplayName(TextStyle.SHORT, Locale.getDefault()));
+                monthName.getStyleClass().add("heatmap-legend");
+                heatmapGrid.add(monthName, row == 1 ? column : column + 1, 0, 3, 1);
+            }
+
+            int minutes = heatmap.getBusyMinutes(date);
+            Region cell = new Region();
+            cell.getStyleClass().add("heatmap-cell");
+            if (minutes > 0) {
+                cell.getStyleClass().add("heatmap-level-" + levelOf(minutes, heatmap.maxMinutes()));
+            }
+            Tooltip.install(cell, new Tooltip(date.format(DAY_FORMATTER) + ": " + formatHours(minutes)));
+            heatmapGrid.add(cell, column, row);
+
+            if (minutes > 0 && (busiest == null || minutes > heatmap.getBusyMinutes(busiest))) busiest = date;
+        }
+
+        if (busiest == null) {
+            summaryLabel.setText("No tasks this year");
+        } else {
+            summaryLabel.setText(formatHours(heatmap.getTotalMinutes()) + " of tasks in " + year + ", the busiest day is "
+                    + busiest.format(DAY_FORMATTER) + " with " + formatHours(heatmap.maxMinutes()));
+        }
+    }
+
+    /**
+     * Helper method to get the color of a day, relative to the busiest day of the year
+     * @param minutes, the minutes of tasks of the day (int)
+     * @param maxMinutes, the minutes of tasks of the busiest day (int)
+     * @return the level from 1 to LEVELS (int)
+     */
+    private static int levelOf(int minutes, int maxMinutes) {
+        return Math.max(1, Math.min(LEVELS, (int) Math.ceil((double) minutes * LEVELS / maxMinutes)));
+    }
+
+    /**
+     * Helper method to write minutes as hours, e.g. 90 minutes is "1.5 hours"
+     * @param minutes, the minutes (long)
+     * @return the hours (String)
+     */
+    private static String formatHours(long minutes) {
+        double hours = minutes / 60.0;
+        String text = hours == Math.floor(hours) ? String.valueOf((long) hours) : String.format("%.1f", hours);
+        return text + (minutes == 60 ? " hour" : " hours");
+    }
+}
@@ -1,34 +1,47 @@
 import controller.AuthController;
+import controller.ChangeEvent;
+import controller.ChangeSubscriber;
 import controller.LabelController;
 import controller.TaskController;
 import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.HPos;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.geometry.VPos;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
-import javafx.stage.Stage;
+import metrics.CalendarRenderEvent;
+import metrics.Metrics;
+import model.Occurrence;
 import model.Task;
 import model.User;
 import controller.QuickTaskController;
 import model.QuickTask;
+import util.LaneLayout;
+import util.OccurrenceMerger;
+import util.Recurrence;
+import util.TimeParser;
 
 import java.io.IOException;
 import java.time.LocalDate;
-import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * The HomePageController class represents the controller for the home page scene of the PandTaskApplication
@@ -47,9 +60,59 @@ public class HomePageController {
 
     private LocalDate currentStartOfWeek;
 
+    /// Subscriptions to the controllers' changes, the page updates only the days, labels and quick tasks that changed
+    private ChangeSubscriber<Task> taskChanges;
+    private ChangeSubscriber<model.Label> labelChanges;
+    private ChangeSubscriber<QuickTask> quickTaskChanges;
+
+    /// Shows the reminders of the current user, registered on the reminder service of the task controller
+    private final Consumer<Occurrence> reminderListener = occurrence -> Platform.runLater(() -> showReminder(occurrence));
+
+    /// Width of a day column of the week grid
+    private static final double DAY_COLUMN_WIDTH = 120;
+
+    /// Height of an hour row of the week grid (see home-page.fxml), and the shortest a task label can be
+    private static final double HOUR_ROW_HEIGHT = 80;
+    private static final double MIN_TASK_HEIGHT = 18;
+
+    /// The week grid starts at 1AM and shows 24 hours
+    private static final int GRID_START_MINUTE = 60;
+    private static final int GRID_MINUTES = TimeParser.MINUTES_PER_DAY;
+
+    /// Minutes between two options of the time combos, like on the create task page
+    private static final int TIME_STEP_MINUTES = 15;
+
+    /// Style class shared by every task on the calendar, see pandtask.css
+    private static final String TASK_CELL_CLASS = "task-cell";
+
+    /// Colors of the labels already parsed, keyed by their hex string
+    private static final Map<String, Color> labelColors = new HashMap<>();
+
+    /// Whether labels and quick tasks of the current user were already loaded from disk
+    private boolean loadedForUser;
+
+    /// Views of the calendar, the week grid is the default one
+    private enum ViewMode { WEEK, MONTH, AGENDA }
+    private ViewMode viewMode = ViewMode.WEEK;
+
+    /// Calendars shown together in the week view, empty when the overlay is off
+    private List<OverlaySource> overlaySources = List.of();
+    private static final String MY_TASKS = "My tasks";
+
+    /// Month shown by the month view, the week view uses currentStartOfWeek instead
+    private YearMonth currentMonth;
+
+    /// Years before and after today that the month and agenda views can scroll to
+    private static final int VIEW_RANGE_YEARS = 25;
+    private DayRangeList monthWeeks;
+    private DayRangeList agendaDays;
+
     // FXML Components
     @FXML private GridPane headerGrid;
     @FXML private GridPane calendarGrid;
+    @FXML private ScrollPane calendarScrollPane;
+    @FXML private ListView<LocalDate> monthListView;
+    @FXML private ListView<LocalDate> agendaListView;
 
     @FXML private Label monthLabel;
     @FXML private Button addTaskButton;
@@ -70,11 +133,17 @@ public class HomePageController {
 
 
     /**
-     * Sets the user on the application. Loads the user's labels and quick tasks
+     * Sets the user on the application. Loads the user's labels and quick tasks the first time the user is shown;
+     * when the cached home page is shown again for the same user it is already up to date, since the changes made
+     * on the other pages arrive as change events.
      * @param user, the current user (User)
      */
     public void setUser(User user) {
+        boolean sameUser = user != null && user == this.user && loadedForUser;
         this.user = user;
+        watchReminders();
+        if (sameUser) return;
+        overlaySources = List.of();
         Platform.runLater(() -> {
             if (user != null) {
                 System.out.println("User set, loading tasks for: " + user.getUsername());
@@ -88,6 +157,7 @@ public class HomePageController {
                 }
                 loadSavedQuickTasks();
                 loadLabels();
+                loadedForUser = true;
             }
         });
     }
@@ -105,7 +175,12 @@ public class HomePageController {
      * @param labelController, the labelController (LabelController)
      */
     public void setLabelController(LabelController labelController) {
+        if (labelController == this.labelController && labelChanges != null) return;
         this.labelController = labelController;
+
+        if (labelChanges != null) labelChanges.cancel();
+        labelChanges = new ChangeSubscriber<>(event -> Platform.runLater(() -> onLabelChanged(event)));
+        labelController.getChanges().subscribe(labelChanges);
     }
 
     /**
@@ -113,7 +188,18 @@ public class HomePageController {
      * @param taskController, the taskController (TaskController)
      */
     public void setTaskController(TaskController taskController) {
+        if (taskController == this.taskController && taskChanges != null) return;
+
+        if (taskChanges != null) {
+            taskChanges.cancel();
+            this.taskController.getReminderService().removeListener(reminderListener);
+        }
         this.taskController = taskController;
+        taskChanges = new ChangeSubscriber<>(event -> Platform.runLater(() -> onTaskChanged(event)));
+        taskController.getChanges().subscribe(taskChanges);
+        taskController.getReminderService().addListener(reminderListener);
+        watchReminders();
+
         Platform.runLater(() -> {
             if (user != null && calendarGrid != null) {
                 loadUserTasks();
@@ -121,6 +207,32 @@ public class HomePageController {
         });
     }
 
+    /**
+     * Helper method to start the reminders of the current user, once the real task controller is set
+     */
+    private void watchReminders() {
+        if (user != null && taskChanges != null) {
+            taskController.getReminderService().watch(user);
+        }
+    }
+
+    /**
+     * Helper method to show a reminder of the current user's task without blocking the page
+     * @param occurrence, the task and the date of the reminder (Occurrence)
+     */
+    private void showReminder(Occurrence occurrence) {
+        Task task = occurrence.task();
+        if (user == null || task.getUserId() != user.getId()) return;
+
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Reminder");
+        alert.setHeaderText(task.getTitle());
+        String day = occurrence.date().equals(LocalDate.now()) ? "today" : "on " + occurrence.date();
+        alert.setContentText("Starts at " + task.getStartHour() + " " + day + "\n" +
+                "Priority: " + task.getPriority());
+        alert.show();
+    }
+
     /**
      * Initializes the HomePageController. It gets today's date and shows the current week
      * @throws IOException, throws exceptions related to file I/O
@@ -136,18 +248,22 @@ public class HomePageController {
         for (int i = 0; i < calendarGrid.getColumnConstraints().size(); i++) {
             ColumnConstraints col = calendarGrid.getColumnConstraints().get(i);
             col.setHgrow(Priority.NEVER);
-            col.setPrefWidth(120);
+            col.setPrefWidth(DAY_COLUMN_WIDTH);
         }
 
         // Sync header grid columns
         for (int i = 0; i < headerGrid.getColumnConstraints().size(); i++) {
             ColumnConstraints col = headerGrid.getColumnConstraints().get(i);
             col.setHgrow(Priority.NEVER);
-            col.setPrefWidth(120);
+            col.setPrefWidth(DAY_COLUMN_WIDTH);
         }
 
+        setupListViews(today);
         updateCalendarView();
 
+        quickTaskChanges = new ChangeSubscriber<>(event -> Platform.runLater(() -> onQuickTaskChanged(event)));
+        quickTaskController.getChanges().subscribe(quickTaskChanges);
+
         if (user != null) {
             Platform.runLater(() ->{
                 loadUserTasks();
@@ -156,6 +272,168 @@ public class HomePageController {
         }
     }
 
+    /**
+     * Helper method to set up the month and agenda views. Their items are computed from the row index, and their
+     * cells pull the tasks of a date only when the row is visible.
+     * @param today, today's date (LocalDate)
+     */
+    private void setupListViews(LocalDate today) {
+        LocalDate firstDay = today.minusYears(VIEW_RANGE_YEARS);
+        int dayCount = (int) (today.plusYears(VIEW_RANGE_YEARS).toEpochDay() - firstDay.toEpochDay());
+
+        LocalDate firstWeek = firstDay.minusDays(firstDay.getDayOfWeek().getValue() % 7);
+        monthWeeks = new DayRangeList(firstWeek, dayCount / 7 + 1, 7);
+        monthListView.setItems(monthWeeks);
+        monthListView.setFixedCellSize(MonthWeekCell.ROW_HEIGHT);
+        monthListView.setCellFactory(list -> new MonthWeekCell(this::getOccurrencesOn, this::createTaskLabel));
+
+        agendaDays = new DayRangeList(firstDay, dayCount, 1);
+        agendaListView.setItems(agendaDays);
+        agendaListView.setCellFactory(list -> new AgendaCell(this::getOccurrencesOn, this::createTaskLabel));
+    }
+
+    /**
+     * Gets the tasks of the current user on a date, used by the month and agenda views
+     * @param date, the date (LocalDate)
+     * @return the occurrences on that date (List)
+     */
+    private List<Occurrence> getOccurrencesOn(LocalDate date) {
+        if (user == null || taskController == null) return List.of();
+        return taskController.getOccurrencesOn(user, date);
+    }
+
+    /**
+     * Shows the week grid
+     */
+    @FXML
+    public void onWeekViewClicked() {
+        showView(ViewMode.WEEK);
+    }
+
+    /**
+     * Shows the month view starting on the month of the current week
+     */
+    @FXML
+    public void onMonthViewClicked() {
+        currentMonth = YearMonth.from(currentStartOfWeek.plusDays(3));
+        showView(ViewMode.MONTH);
+    }
+
+    /**
+     * Shows the agenda view starting on the current week
+     */
+    @FXML
+    public void onAgendaViewClicked() {
+        showView(ViewMode.AGENDA);
+    }
+
+    /**
+     * Shows the overlay options: the week view can show the current user's tasks together with the tasks of some of
+     * their labels and of other users, each calendar in the color of one of the user's labels
+     */
+    @FXML
+    public void onOverlayClicked() {
+        if (user == null) return;
+        List<model.Label> labels = labelController.getLabels(user);
+
+        CheckBox myTasksBox = new CheckBox(MY_TASKS);
+        myTasksBox.setSelected(overlaySources.isEmpty()
+                || overlaySources.stream().anyMatch(source -> source.name().equals(MY_TASKS)));
+        List<CheckBox> labelBoxes = new ArrayList<>();
+        for (model.Label label : labels) {
+            CheckBox labelBox = new CheckBox("Label: " + label.getName());
+            labelBox.setSelected(overlaySources.stream().anyMatch(source -> source.name().equals(labelBox.getText())));
+            labelBoxes.add(labelBox);
+        }
+        TextField usersField = new TextField(String.join(", ", overlaySources.stream()
+                .filter(source -> source.user() != user).map(OverlaySource::name).toList()));
+        usersField.setPromptText("Usernames, separated by commas");
+
+        VBox form = new VBox(10);
+        form.getChildren().add(myTasksBox);
+        form.getChildren().addAll(labelBoxes);
+        form.getChildren().addAll(new Label("Other users:"), usersField);
+
+        ButtonType showButton = new ButtonType("Show", ButtonBar.ButtonData.OK_DONE);
+        ButtonType offButton = new ButtonType("Turn Off");
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Overlay Calendars");
+        dialog.setHeaderText("Show several calendars together in the week view");
+        dialog.getDialogPane().setContent(form);
+        dialog.getDialogPane().getButtonTypes().setAll(showButton, offButton, ButtonType.CANCEL);
+
+        dialog.showAndWait().ifPresent(response -> {
+            if (response == offButton) {
+                overlaySources = List.of();
+                loadUserTasks();
+            } else if (response == showButton) {
+                List<OverlaySource> sources = new ArrayList<>();
+                // The calendars without a label of their own take the colors of the labels in order
+                int colorIndex = 0;
+                if (myTasksBox.isSelected()) {
+                    sources.add(new OverlaySource(MY_TASKS, user, task -> true, overlayStyle(labels, colorIndex++)));
+                }
+                for (int i = 0; i < labels.size(); i++) {
+                    if (!labelBoxes.get(i).isSelected()) continue;
+                    String labelName = labels.get(i).getName();
+                    sources.add(new OverlaySource(labelBoxes.get(i).getText(), user,
+                            task -> task.getLabels() != null && task.getLabels().stream().anyMatch(label -> labelName.equals(label.getName())),
+                            toStyle(labels.get(i).getColor())));
+                }
+                for (String username : usersField.getText().split(",")) {
+                    if (username.isBlank()) continue;
+                    User other = authController.getUsers().stream()
+                            .filter(candidate -> candidate.getUsername().equalsIgnoreCase(username.trim()))
+                            .findFirst().orElse(null);
+                    if (other == null) {
+                        new Alert(Alert.AlertType.ERROR, "There is no user named " + username.trim() + "!").showAndWait();
+                        return;
+                    }
+                    if (other != user) {
+                        sources.add(new OverlaySource(other.getUsername(), other, task -> true, overlayStyle(labels, colorIndex++)));
+                    }
+                }
+                overlaySources = List.copyOf(sources);
+                showView(ViewMode.WEEK);
+            }
+        });
+    }
+
+    /**
+     * Helper method to get the style of a calendar of the overlay from the colors of the user's labels
+     * @param labels, the user's labels (List)
+     * @param index, the index of the calendar (int)
+     * @return the style, or null to keep the priority colors when the user has no labels (String)
+     */
+    private static String overlayStyle(List<model.Label> labels, int index) {
+        return labels.isEmpty() ? null : toStyle(labels.get(index % labels.size()).getColor());
+    }
+
+    /**
+     * Helper method to get the inline style that paints a task in a label's color
+     * @param colorHex, the label's color (String)
+     * @return the style (String)
+     */
+    private static String toStyle(String colorHex) {
+        Color color = getLabelColor(colorHex);
+        return String.format("-fx-background-color: #%02x%02x%02x;",
+                Math.round(color.getRed() * 255), Math.round(color.getGreen() * 255), Math.round(color.getBlue() * 255));
+    }
+
+    /**
+     * Helper method to switch between the week grid, the month view and the agenda view
+     * @param mode, the view to show (ViewMode)
+     */
+    private void showView(ViewMode mode) {
+        viewMode = mode;
+        boolean week = mode == ViewMode.WEEK;
+        headerGrid.setVisible(week);
+        calendarScrollPane.setVisible(week);
+        monthListView.setVisible(mode == ViewMode.MONTH);
+        agendaListView.setVisible(mode == ViewMode.AGENDA);
+        updateCalendarView();
+    }
+
     /**
      * Loads the quick tasks.
      */
@@ -176,8 +454,9 @@ public class HomePageController {
      */
     private void createCheckBoxForTask(QuickTask task){
         CheckBox checkBox = new CheckBox(task.getTitle());
-        checkBox.setStyle("-fx-text-fill: #333333; -fx-font-size: 14px;");
+        checkBox.getStyleClass().add("quick-task");
         checkBox.setWrapText(true);
+        checkBox.setUserData(task);
 
         checkBox.setOnAction(event -> {
             if(checkBox.isSelected()){
@@ -188,6 +467,22 @@ public class HomePageController {
         tasksContainer.getChildren().add(checkBox);
     }
 
+    /**
+     * Applies a change of the user's quick tasks: adds the checkbox of a new quick task and removes the one of
+     * a completed quick task
+     * @param event, the change (ChangeEvent)
+     */
+    private void onQuickTaskChanged(ChangeEvent<QuickTask> event) {
+        if (user == null || event.userId() != user.getId() || tasksContainer == null) return;
+
+        QuickTask quickTask = event.entity();
+        tasksContainer.getChildren().removeIf(node ->
+                node.getUserData() instanceof QuickTask shown && shown.getId() == quickTask.getId());
+        if (event.kind() != ChangeEvent.Kind.DELETED && !quickTask.isStatus()) {
+            createCheckBoxForTask(quickTask);
+        }
+    }
+
     /**
      * Adds the quick task when the user presses the '+' button
      */
@@ -195,27 +490,35 @@ public class HomePageController {
     protected void onAddQuickTaskClicked(){
         String taskText = quickTaskInput.getText();
         if (taskText != null && !taskText.trim().isEmpty()) {
-            QuickTask newTask = quickTaskController.addQuickTask(user, taskText);
-            createCheckBoxForTask(newTask);
+            // The checkbox is added when the quick task's change event arrives
+            quickTaskController.addQuickTask(user, taskText);
             quickTaskInput.clear();
         }
     }
 
     /**
-     * Displays the week before the current week when pressing the '<' button
+     * Displays the week (or the month in the month view) before the current one when pressing the '<' button
      */
     @FXML
     public void onPrevWeekClicked() {
-        currentStartOfWeek = currentStartOfWeek.minusWeeks(1);
+        if (viewMode == ViewMode.MONTH) {
+            currentMonth = currentMonth.minusMonths(1);
+        } else {
+            currentStartOfWeek = currentStartOfWeek.minusWeeks(1);
+        }
         updateCalendarView();
     }
 
     /**
-     * Displays the week after the current week when pressing the '>' button
+     * Displays the week (or the month in the month view) after the current one when pressing the '>' button
      */
     @FXML
     public void onNextWeekClicked() {
-        currentStartOfWeek = currentStartOfWeek.plusWeeks(1);
+        if (viewMode == ViewMode.MONTH) {
+            currentMonth = currentMonth.plusMonths(1);
+        } else {
+            currentStartOfWeek = currentStartOfWeek.plusWeeks(1);
+        }
         updateCalendarView();
     }
 
@@ -223,6 +526,13 @@ public class HomePageController {
      * Helper function to update the calendar days, month and tasks.
      */
     private void updateCalendarView() {
+        if (viewMode == ViewMode.MONTH) {
+            LocalDate firstOfMonth = currentMonth.atDay(1);
+            currentStartOfWeek = firstOfMonth.minusDays(firstOfMonth.getDayOfWeek().getValue() % 7);
+            monthListView.scrollTo(monthWeeks.indexOf(currentStartOfWeek));
+        } else if (viewMode == ViewMode.AGENDA) {
+            agendaListView.scrollTo(agendaDays.indexOf(currentStartOfWeek));
+        }
         updateDayHeaders();
         updateMonthLabel();
         loadUserTasks();
@@ -232,7 +542,7 @@ public class HomePageController {
      * Sets the month to the current month. It checks the middle of the week to decide the month
      */
     private void updateMonthLabel() {
-        LocalDate representativeDate = currentStartOfWeek.plusDays(3);
+        LocalDate representativeDate = viewMode == ViewMode.MONTH ? currentMonth.atDay(1) : currentStartOfWeek.plusDays(3);
         String text = representativeDate.format(DateTimeFormatter.ofPattern("MMMM yyyy"));
         monthLabel.setText(text);
     }
@@ -256,111 +566,316 @@ public class HomePageController {
      * Loads the tasks of the user and displays it on the calendar view.
      */
     public void loadUserTasks() {
-        if (user == null || taskController == null || calendarGrid == null) return;
+        long start = System.nanoTime();
+        CalendarRenderEvent renderEvent = new CalendarRenderEvent();
+        renderEvent.begin();
+        try {
+            if (user == null || taskController == null || calendarGrid == null) return;
 
-        // Clean old labels
-        ArrayList<Node> toRemove = new ArrayList<>();
-        for (Node node : calendarGrid.getChildren()) {
-            // Skip labels that mark the hours
-            if (node instanceof Label && ((Label) node).getText().matches("\\d+(AM|PM)")) continue;
-
-            // Remove task labels (colored background)
-            if (node instanceof Label) {
-                Label l = (Label) node;
-                if (l.getStyle() != null && l.getStyle().contains("-fx-background-color")) {
-                    toRemove.add(node);
-                }
-            }
-        }
-        calendarGrid.getChildren().removeAll(toRemove);
+            // Clean old task labels, they carry their task as user data (the hour labels do not)
+            calendarGrid.getChildren().removeIf(node -> node.getUserData() instanceof Task);
 
-        // Gets the user's tasks
-        ArrayList<Task> userTasks = user.getTasks();
-        if (userTasks.isEmpty()) return;
+            // The month and agenda views only redraw their visible rows
+            if (viewMode == ViewMode.MONTH) monthListView.refresh();
+            if (viewMode == ViewMode.AGENDA) agendaListView.refresh();
 
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-M-d");
+            if (!overlaySources.isEmpty()) {
+                renderEvent.cellsCreated = addOverlayToGrid();
+                return;
+            }
 
-        // Displays the user's tasks
-        for (Task task : userTasks) {
-            try {
-                String eventDateStr = task.getEventDate();
-                if (eventDateStr == null || eventDateStr.isEmpty()) continue;
+            // Gets the user's tasks
+            List<Task> userTasks = user.getTasks();
+            renderEvent.tasksScanned = userTasks.size();
 
-                LocalDate taskStartDate = LocalDate.parse(eventDateStr.trim(), dateFormatter);
-                String repeatType = task.getRepeat() != null ? task.getRepeat() : "None";
+            // Groups the tasks of the week by day, with the minutes they cover
+            List<List<GridSlot>> slotsPerDay = new ArrayList<>();
+            for (int i = 0; i < 7; i++) slotsPerDay.add(new ArrayList<>());
 
+            for (Task task : userTasks) {
+                LocalDate taskStartDate = Recurrence.parseDate(task.getEventDate());
+                if (taskStartDate == null) {
+                    if (task.getEventDate() != null && !task.getEventDate().isBlank()) {
+                        System.err.println("Error displaying task: " + task.getTitle() + " - invalid date " + task.getEventDate());
+                    }
+                    continue;
+                }
+
+                GridSlot slot = null;
                 for(int i = 0; i < 7; i++){
                     LocalDate viewDate = currentStartOfWeek.plusDays(i);
 
-                    if(viewDate.isBefore(taskStartDate)){
-                        continue;
+                    // Puts the tasks on the calendar if the task or one of its repetitions is on that day
+                    if (Recurrence.occursOn(task.getRepeat(), taskStartDate, viewDate)){
+                        // Skipped, moved and renamed dates are found with one hash lookup
+                        Occurrence occurrence = taskController.resolveOccurrence(task, viewDate);
+                        if (occurrence == null) continue;
+                        if (occurrence.task() != task) {
+                            GridSlot changed = getGridSlot(occurrence);
+                            if (changed != null) slotsPerDay.get(i).add(changed);
+                            continue;
+                        }
+                        // The hours are parsed once per task, the slot of each day only changes its date
+                        if (slot == null) slot = getGridSlot(occurrence);
+                        if (slot != null) slotsPerDay.get(i).add(new GridSlot(occurrence, slot.top(), slot.bottom()));
                     }
+                }
+            }
 
-                    // Determines if the tasks repeats or not
-                    boolean shouldShow = switch (repeatType.toLowerCase()) {
-                        case "daily" -> true;
-                        case "weekly" -> viewDate.getDayOfWeek() == taskStartDate.getDayOfWeek();
-                        case "monthly" -> viewDate.getDayOfMonth() == taskStartDate.getDayOfMonth();
-                        case "yearly" -> viewDate.getDayOfYear() == taskStartDate.getDayOfYear();
-                        default -> viewDate.isEqual(taskStartDate);
-                    };
-
-                    // Puts the tasks on the calendar
-                    if (shouldShow){
-                        addTaskToGrid(task, i+1);
-                    }
+            // Occurrences moved to a day of the week from another date, and past tasks read from the archive
+            for (int i = 0; i < 7; i++) {
+                LocalDate viewDate = currentStartOfWeek.plusDays(i);
+                for (Occurrence occurrence : taskController.getMovedOccurrences(user, viewDate)) {
+                    GridSlot slot = getGridSlot(occurrence);
+                    if (slot != null) slotsPerDay.get(i).add(slot);
                 }
+                for (Occurrence occurrence : taskController.getArchivedOccurrences(user, viewDate)) {
+                    GridSlot slot = getGridSlot(occurrence);
+                    if (slot != null) slotsPerDay.get(i).add(slot);
+                }
+            }
+
+            for (int i = 0; i < 7; i++) {
+                renderEvent.cellsCreated += addDayToGrid(slotsPerDay.get(i), i + 1);
+            }
+        } finally {
+            Metrics.record("calendar.render", start);
+            renderEvent.weekStart = String.valueOf(currentStartOfWeek);
+            renderEvent.days = 7;
+            renderEvent.commit();
+        }
+    }
+
+    /**
+     * Applies a change of the user's tasks: redraws only the days of the week that show the task, and the visible
+     * rows of the month or agenda view. A changed date of a task may be moved to any day, so it redraws the week.
+     * The days are the task's dates and the days that show one of its dates moved there, found from the drawn cells
+     * since the moved dates of a deleted task are already removed.
+     * @param event, the change (ChangeEvent)
+     */
+    private void onTaskChanged(ChangeEvent<Task> event) {
+        if (user == null || calendarGrid == null) return;
+        if (!overlaySources.isEmpty()) {
+            // Any calendar of the overlay may show the task
+            if (event.userId() == user.getId() || overlaySources.stream().anyMatch(source -> source.user().getId() == event.userId())) {
+                loadUserTasks();
+            }
+            return;
+        }
+        if (event.userId() != user.getId()) return;
+
+        if (viewMode == ViewMode.MONTH) monthListView.refresh();
+        if (viewMode == ViewMode.AGENDA) agendaListView.refresh();
+        if (event.kind() == ChangeEvent.Kind.UPDATED) {
+            loadUserTasks();
+            return;
+        }
+
+        Task task = event.entity();
+        LocalDate taskStartDate = Recurrence.parseDate(task.getEventDate());
+        boolean[] days = new boolean[7];
+        for (int i = 0; i < 7; i++) {
+            days[i] = taskStartDate != null
+                    && Recurrence.occursOn(task.getRepeat(), taskStartDate, currentStartOfWeek.plusDays(i));
+        }
+        for (Node node : calendarGrid.getChildren()) {
+            Integer colIndex = GridPane.getColumnIndex(node);
+            if (node.getUserData() instanceof Task shown && shown.getId() == task.getId()
+                    && colIndex != null && colIndex >= 1 && colIndex <= 7) {
+                days[colIndex - 1] = true;
+            }
+        }
+
+        for (int i = 0; i < 7; i++) {
+            if (days[i]) reloadDay(i);
+        }
+    }
+
+    /**
+     * Helper method to redraw the tasks of one day of the week
+     * @param dayIndex, the day of the week, 0 for Sunday (int)
+     */
+    private void reloadDay(int dayIndex) {
+        CalendarRenderEvent renderEvent = new CalendarRenderEvent();
+        renderEvent.begin();
+        int colIndex = dayIndex + 1;
+        calendarGrid.getChildren().removeIf(node ->
+                node.getUserData() instanceof Task && Integer.valueOf(colIndex).equals(GridPane.getColumnIndex(node)));
+
+        List<GridSlot> slots = new ArrayList<>();
+        for (Occurrence occurrence : getOccurrencesOn(currentStartOfWeek.plusDays(dayIndex))) {
+            GridSlot slot = getGridSlot(occurrence);
+            if (slot != null) slots.add(slot);
+        }
+
+        renderEvent.cellsCreated = addDayToGrid(slots, colIndex);
+        renderEvent.weekStart = String.valueOf(currentStartOfWeek);
+        renderEvent.days = 1;
+        renderEvent.tasksScanned = user.getTasks().size();
+        renderEvent.commit();
+    }
+
+    /**
+     * Helper method to add the tasks of a day to its column. Overlapping tasks are placed side by side
+     * @param slots, the tasks of the day with their minutes (List)
+     * @param colIndex, the index of the column of the day (int)
+     * @return the number of task labels added (int)
+     */
+    private int addDayToGrid(List<GridSlot> slots, int colIndex) {
+        int added = 0;
+        for (LaneLayout.Placement<GridSlot> placement : LaneLayout.layout(slots, GridSlot::top, GridSlot::bottom)) {
+            try {
+                addTaskToGrid(placement, colIndex);
+                added++;
             } catch (Exception e) {
-                System.err.println("Error displaying task: " + task.getTitle() + " - " + e.getMessage());
+                System.err.println("Error displaying task: " + placement.item().occurrence().task().getTitle() + " - " + e.getMessage());
             }
         }
+        return added;
     }
 
     /**
-     * Helper method to add the user's tasks to the calendar view. It spans the grids according to the task hours
-     * @param task, the user's task (Task)
-     * @param colIndex, the index of the column where the task is going to be (int)
+     * A task of the week grid with the minutes it covers, counted from the top of the grid (1AM)
+     * @param occurrence, the user's task and its date (Occurrence)
+     * @param top, the first minute (int)
+     * @param bottom, the minute after the last one (int)
+     * @param source, the calendar of the overlay it comes from, or null when the overlay is off (OverlaySource)
      */
-    private void addTaskToGrid(Task task, int colIndex){
-        int startRow = getRowFromTime(task.getStartHour());
-        int endRow = getRowFromTime(task.getEndHour());
+    private record GridSlot(Occurrence occurrence, int top, int bottom, OverlaySource source) {
+        GridSlot(Occurrence occurrence, int top, int bottom) {
+            this(occurrence, top, bottom, null);
+        }
+    }
+
+    /**
+     * A calendar of the overlay: the tasks of a user, or the current user's tasks with a label, drawn in one color
+     * @param name, the name of the calendar (String)
+     * @param user, the owner of the tasks (User)
+     * @param filter, the tasks of the user that are shown (Predicate)
+     * @param style, the inline style with the color of the calendar, or null to keep the priority colors (String)
+     */
+    private record OverlaySource(String name, User user, Predicate<Task> filter, String style) {}
+
+    /**
+     * Helper method to draw the calendars of the overlay on the week grid. Every calendar is read day by day and they
+     * are merged in date and time order, so only the next task of each calendar is kept while the week is drawn and
+     * a day is added to the grid as soon as the merged tasks reach the next day.
+     * @return the number of task labels added (int)
+     */
+    private int addOverlayToGrid() {
+        LocalDate weekEnd = currentStartOfWeek.plusDays(6);
+        List<Iterator<Occurrence>> calendars = new ArrayList<>();
+        for (OverlaySource source : overlaySources) {
+            calendars.add(taskController.getOccurrencesBetween(source.user(), currentStartOfWeek, weekEnd, source.filter()));
+        }
+
+        int added = 0;
+        LocalDate slotsDate = currentStartOfWeek;
+        List<GridSlot> slots = new ArrayList<>();
+        for (Iterator<OccurrenceMerger.Merged> merged = OccurrenceMerger.merge(calendars); merged.hasNext(); ) {
+            OccurrenceMerger.Merged next = merged.next();
+            Occurrence occurrence = next.occurrence();
+            if (!occurrence.date().equals(slotsDate)) {
+                added += addDayToGrid(slots, (int) ChronoUnit.DAYS.between(currentStartOfWeek, slotsDate) + 1);
+                slots.clear();
+                slotsDate = occurrence.date();
+            }
+            GridSlot slot = getGridSlot(occurrence);
+            if (slot != null) {
+                slots.add(new GridSlot(occurrence, slot.top(), slot.bottom(), overlaySources.get(next.source())));
+            }
+        }
+        added += addDayToGrid(slots, (int) ChronoUnit.DAYS.between(currentStartOfWeek, slotsDate) + 1);
+        return added;
+    }
+
+    /**
+     * Helper method to get the position of a task on the week grid. The grid goes from 1AM to 1AM of the next day,
+     * so times before 1AM are drawn at the bottom like the "12 AM" row.
+     * @param occurrence, the user's task and its date (Occurrence)
+     * @return the minutes of the task on the grid, or null if its hours are not valid (GridSlot)
+     */
+    private GridSlot getGridSlot(Occurrence occurrence) {
+        Task task = occurrence.task();
+        int start = TaskController.getStartMinute(task);
+        int end = TimeParser.parseMinuteOfDay(task.getEndHour());
+        if (start == TimeParser.INVALID || end == TimeParser.INVALID) return null;
+
+        int top = toGridMinute(start);
+        int bottom = toGridMinute(end);
 
         // Fix for midnight/late tasks
-        if (endRow < startRow) endRow = 24;
+        if (bottom <= top) bottom = GRID_MINUTES;
+
+        return new GridSlot(occurrence, top, bottom);
+    }
 
-        if (startRow < 0 || endRow < 0) return;
+    /**
+     * Helper method to convert a minute of the day to minutes from the top of the week grid
+     * @param minuteOfDay, the minute of the day (int)
+     * @return the minutes from 1AM (int)
+     */
+    private static int toGridMinute(int minuteOfDay) {
+        int gridMinute = minuteOfDay - GRID_START_MINUTE;
+        return gridMinute < 0 ? gridMinute + TimeParser.MINUTES_PER_DAY : gridMinute;
+    }
+
+    /**
+     * Helper method to add the user's tasks to the calendar view. The label starts in the row of its start hour,
+     * is moved down and sized to the exact minutes, and is narrowed to its lane when other tasks overlap it
+     * @param placement, the task with its minutes and lane (Placement)
+     * @param colIndex, the index of the column where the task is going to be (int)
+     */
+    private void addTaskToGrid(LaneLayout.Placement<GridSlot> placement, int colIndex){
+        int top = placement.start();
+        int bottom = Math.min(placement.end(), GRID_MINUTES);
+        int startRow = top / 60;
+        int endRow = (bottom + 59) / 60;
 
         // Label from javafx
-        Label taskLabel = createTaskLabel(task);
+        Label taskLabel = createTaskLabel(placement.item().occurrence());
+        if (placement.item().source() != null) styleOverlayLabel(taskLabel, placement.item().occurrence(), placement.item().source());
 
         GridPane.setRowIndex(taskLabel, startRow);
         GridPane.setColumnIndex(taskLabel, colIndex);
-
-        int span = endRow - startRow;
-        if (span < 1) span = 1;
-
-        GridPane.setRowSpan(taskLabel, span);
+        GridPane.setRowSpan(taskLabel, Math.max(1, endRow - startRow));
+        GridPane.setValignment(taskLabel, VPos.TOP);
         GridPane.setMargin(taskLabel, new Insets(1));
 
+        double height = Math.max(MIN_TASK_HEIGHT, (bottom - top) * HOUR_ROW_HEIGHT / 60 - 2);
+        taskLabel.setTranslateY((top % 60) * HOUR_ROW_HEIGHT / 60);
+        taskLabel.setMinHeight(height);
+        taskLabel.setPrefHeight(height);
+        taskLabel.setMaxHeight(height);
+
+        if (placement.laneCount() > 1) {
+            double laneWidth = DAY_COLUMN_WIDTH / placement.laneCount();
+            taskLabel.setPrefWidth(laneWidth - 2);
+            taskLabel.setMaxWidth(laneWidth - 2);
+            taskLabel.setTranslateX(placement.lane() * laneWidth);
+            GridPane.setHalignment(taskLabel, HPos.LEFT);
+        }
+
         calendarGrid.getChildren().add(taskLabel);
     }
 
     /**
      * Creates the task label to place it to the calendar view
-     * @param task, the user's task (Task)
+     * @param occurrence, the user's task and the date it is shown on (Occurrence)
      * @return the label created (Label)
      */
-    private Label createTaskLabel(Task task) {
+    private Label createTaskLabel(Occurrence occurrence) {
+        Task task = occurrence.task();
+
         // Java FX Label
         Label taskLabel = new Label(task.getTitle());
 
-        String bgColor = "#4a6bc3"; // Default
-        if ("High".equalsIgnoreCase(task.getPriority())) bgColor = "#dd3b35";
-        else if ("Medium".equalsIgnoreCase(task.getPriority())) bgColor = "#fbbc42";
-        else if ("Low".equalsIgnoreCase(task.getPriority())) bgColor = "#35c840";
-
-        taskLabel.setStyle("-fx-background-color: " + bgColor + "; -fx-text-fill: white; " +
-                "-fx-padding: 4; -fx-background-radius: 3; -fx-font-size: 11; -fx-cursor: hand;");
+        // Colors come from pandtask.css, default color when the priority is unknown
+        taskLabel.getStyleClass().add(TASK_CELL_CLASS);
+        if ("High".equalsIgnoreCase(task.getPriority())) taskLabel.getStyleClass().add("task-high");
+        else if ("Medium".equalsIgnoreCase(task.getPriority())) taskLabel.getStyleClass().add("task-medium");
+        else if ("Low".equalsIgnoreCase(task.getPriority())) taskLabel.getStyleClass().add("task-low");
+        taskLabel.setUserData(task);
 
         taskLabel.setWrapText(true);
         taskLabel.setMaxWidth(Double.MAX_VALUE);
@@ -371,67 +886,206 @@ public class HomePageController {
             taskLabel.setText(task.getTitle().substring(0, 20) + "…");
         }
 
-        taskLabel.setOnMouseClicked(event -> showTaskDetails(task));
+        taskLabel.setOnMouseClicked(event -> showTaskDetails(occurrence));
         return taskLabel;
     }
 
     /**
-     * Gets the row from the time the task starts or ends
-     * @param time, the starting or ending time (String)
-     * @return the hour when the task starts or ends (int)
+     * Helper method to show a task of the overlay in the color of its calendar. The tasks of other users can only
+     * be looked at.
+     * @param taskLabel, the label of the task (Label)
+     * @param occurrence, the task and its date (Occurrence)
+     * @param source, the calendar of the task (OverlaySource)
      */
-    private int getRowFromTime(String time) {
-        if (time == null) return -1;
-        time = time.toUpperCase().trim().replace(".", "").replace(" ", "");
-
-        try {
-            DateTimeFormatter formatter12 = DateTimeFormatter.ofPattern("h[:mm]a");
-            LocalTime localTime = LocalTime.parse(time, formatter12);
-
-            int hour = localTime.getHour();
-            if (hour == 0) return 23;
-            return hour - 1;
-
-        } catch (DateTimeParseException e1) {
-            try {
-                DateTimeFormatter formatter24 = DateTimeFormatter.ofPattern("H:mm");
-                LocalTime localTime = LocalTime.parse(time, formatter24);
-
-                int hour = localTime.getHour();
-                if (hour == 0) return 23;
-                return hour - 1;
-
-            } catch (DateTimeParseException e2) {
-                return -1;
-            }
+    private void styleOverlayLabel(Label taskLabel, Occurrence occurrence, OverlaySource source) {
+        if (source.style() != null) taskLabel.setStyle(source.style());
+        taskLabel.setTooltip(new Tooltip(source.name() + ": " + occurrence.task().getTitle()));
+        if (source.user() != user) {
+            taskLabel.setOnMouseClicked(event -> {
+                Task task = occurrence.task();
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("Task Details");
+                alert.setHeaderText(task.getTitle());
+                alert.setContentText("Calendar: " + source.name() + "\n" +
+                        "Time: " + task.getStartHour() + " - " + task.getEndHour() + "\n" +
+                        "Date: " + occurrence.date());
+                alert.show();
+            });
         }
     }
 
     /**
-     * Helper method to show the task details
-     * @param task, the user's task (Task)
+     * Helper method to show the task details. The task can be changed or deleted, and a repeating task can also skip
+     * or change only the date it was clicked on.
+     * @param occurrence, the user's task and the date it was clicked on (Occurrence)
      */
-    private void showTaskDetails(Task task) {
+    private void showTaskDetails(Occurrence occurrence) {
+        Task shown = occurrence.task();
+        // A changed date shows a copy, the buttons act on the task itself
+        Task found = taskController.findTask(user, shown.getId());
+        // Past tasks read from the archive can only be looked at
+        boolean archived = found == null;
+        Task task = archived ? shown : found;
+        boolean repeating = task.getRepeat() != null && !task.getRepeat().equalsIgnoreCase("None");
+
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Task Details");
-        alert.setHeaderText(task.getTitle());
+        alert.setHeaderText(shown.getTitle());
 
-        String content = "Time: " + task.getStartHour() + " - " + task.getEndHour() + "\n" +
-                "Date: " + task.getEventDate() + "\n" +
+        String content = "Time: " + shown.getStartHour() + " - " + shown.getEndHour() + "\n" +
+                "Date: " + occurrence.date() + "\n" +
                 "Priority: " + task.getPriority() + "\n" +
-                "Repeat: " + task.getRepeat() + "\n" +
+                "Repeat: " + task.getRepeat() + (repeating ? " from " + task.getEventDate() : "") + "\n" +
                 "Description: " + (task.getDescription() != null ? task.getDescription() : "None");
 
         alert.setContentText(content);
 
-        ButtonType deleteButton = new ButtonType("Delete");
+        ButtonType deleteButton = new ButtonType(repeating ? "Delete All" : "Delete");
+        ButtonType skipButton = new ButtonType("Skip this date");
+        ButtonType editButton = new ButtonType("Edit this date");
+        ButtonType updateButton = new ButtonType(repeating ? "Edit All" : "Edit");
         ButtonType closeButton = new ButtonType("Close", ButtonBar.ButtonData.CANCEL_CLOSE);
-        alert.getButtonTypes().setAll(deleteButton, closeButton);
+        if (archived) {
+            alert.getButtonTypes().setAll(closeButton);
+        } else if (repeating) {
+            alert.getButtonTypes().setAll(skipButton, editButton, updateButton, deleteButton, closeButton);
+        } else {
+            alert.getButtonTypes().setAll(updateButton, deleteButton, closeButton);
+        }
 
+        // The days that show the task are redrawn when its change event arrives
         alert.showAndWait().ifPresent(response -> {
             if (response == deleteButton) {
                 taskController.deleteTask(user, task);
-                loadUserTasks();
+            } else if (response == skipButton) {
+                taskController.skipOccurrence(user, task, occurrence.originalDate());
+            } else if (response == editButton) {
+                editOccurrence(task, occurrence);
+            } else if (response == updateButton) {
+                editTask(task);
+            }
+        });
+    }
+
+    /**
+     * Helper method to ask for the new title, date, hours, repetition, priority, description and labels of a task
+     * and save them. A repeating task is changed on all its dates.
+     * @param task, the task (Task)
+     */
+    private void editTask(Task task) {
+        TextField titleField = new TextField(task.getTitle());
+        DatePicker datePicker = new DatePicker(Recurrence.parseDate(task.getEventDate()));
+        ComboBox<String> fromCombo = new ComboBox<>();
+        ComboBox<String> toCombo = new ComboBox<>();
+        for (int minute = GRID_START_MINUTE; minute <= TimeParser.MINUTES_PER_DAY; minute += TIME_STEP_MINUTES) {
+            fromCombo.getItems().add(TimeParser.format(minute));
+            toCombo.getItems().add(TimeParser.format(minute));
+        }
+        fromCombo.setValue(task.getStartHour());
+        toCombo.setValue(task.getEndHour());
+        ComboBox<String> repeatCombo = new ComboBox<>();
+        repeatCombo.getItems().addAll("None", "Daily", "Weekly", "Monthly", "Yearly");
+        repeatCombo.setValue(task.getRepeat());
+        ComboBox<String> priorityCombo = new ComboBox<>();
+        priorityCombo.getItems().addAll("Low", "Medium", "High");
+        priorityCombo.setValue(task.getPriority());
+        TextField descriptionField = new TextField(task.getDescription());
+        // One check box per label of the user, and per label of the task the user no longer has
+        Map<CheckBox, model.Label> labelBoxes = new LinkedHashMap<>();
+        List<model.Label> choices = new ArrayList<>(labelController.getLabels(user));
+        for (model.Label label : task.getLabels()) {
+            if (choices.stream().noneMatch(choice -> choice.getName().equals(label.getName()))) choices.add(label);
+        }
+        VBox labelsBox = new VBox(4);
+        for (model.Label label : choices) {
+            CheckBox box = new CheckBox(label.getName());
+            box.setSelected(task.getLabels().stream().anyMatch(taskLabel -> taskLabel.getName().equals(label.getName())));
+            labelBoxes.put(box, label);
+            labelsBox.getChildren().add(box);
+        }
+
+        GridPane form = new GridPane();
+        form.setHgap(10);
+        form.setVgap(10);
+        form.addRow(0, new Label("Title:"), titleField);
+        form.addRow(1, new Label("Date:"), datePicker);
+        form.addRow(2, new Label("From:"), fromCombo);
+        form.addRow(3, new Label("To:"), toCombo);
+        form.addRow(4, new Label("Repeat:"), repeatCombo);
+        form.addRow(5, new Label("Priority:"), priorityCombo);
+        form.addRow(6, new Label("Description:"), descriptionField);
+        form.addRow(7, new Label("Labels:"), labelsBox);
+
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Edit Task");
+        dialog.setHeaderText("Change " + task.getTitle());
+        dialog.getDialogPane().setContent(form);
+        dialog.getDialogPane().getButtonTypes().setAll(ButtonType.OK, ButtonType.CANCEL);
+
+        dialog.showAndWait().filter(response -> response == ButtonType.OK).ifPresent(response -> {
+            String title = titleField.getText().trim();
+            if (datePicker.getValue() == null || title.isEmpty()) {
+                new Alert(Alert.AlertType.ERROR, "Please enter a date and a title!").showAndWait();
+                return;
+            }
+            List<model.Label> labels = new ArrayList<>();
+            labelBoxes.forEach((box, label) -> {
+                if (box.isSelected()) labels.add(label);
+            });
+            try {
+                taskController.updateTask(user, task, title, fromCombo.getValue(), toCombo.getValue(),
+                        repeatCombo.getValue(), descriptionField.getText().trim(),
+                        datePicker.getValue().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), priorityCombo.getValue(),
+                        labels);
+            } catch (IllegalArgumentException e) {
+                new Alert(Alert.AlertType.ERROR, e.getMessage()).showAndWait();
+            }
+        });
+    }
+
+    /**
+     * Helper method to ask for the new date, title and hours of one date of a repeating task and save them
+     * @param task, the repeating task (Task)
+     * @param occurrence, the date that is changed, as it is shown (Occurrence)
+     */
+    private void editOccurrence(Task task, Occurrence occurrence) {
+        Task shown = occurrence.task();
+        DatePicker datePicker = new DatePicker(occurrence.date());
+        TextField titleField = new TextField(shown.getTitle());
+        ComboBox<String> fromCombo = new ComboBox<>();
+        ComboBox<String> toCombo = new ComboBox<>();
+        for (int minute = GRID_START_MINUTE; minute <= TimeParser.MINUTES_PER_DAY; minute += TIME_STEP_MINUTES) {
+            fromCombo.getItems().add(TimeParser.format(minute));
+            toCombo.getItems().add(TimeParser.format(minute));
+        }
+        fromCombo.setValue(shown.getStartHour());
+        toCombo.setValue(shown.getEndHour());
+
+        GridPane form = new GridPane();
+        form.setHgap(10);
+        form.setVgap(10);
+        form.addRow(0, new Label("Date:"), datePicker);
+        form.addRow(1, new Label("Title:"), titleField);
+        form.addRow(2, new Label("From:"), fromCombo);
+        form.addRow(3, new Label("To:"), toCombo);
+
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Edit This Date");
+        dialog.setHeaderText("Change only the " + occurrence.date() + " occurrence of " + task.getTitle());
+        dialog.getDialogPane().setContent(form);
+        dialog.getDialogPane().getButtonTypes().setAll(ButtonType.OK, ButtonType.CANCEL);
+
+        dialog.showAndWait().filter(response -> response == ButtonType.OK).ifPresent(response -> {
+            String title = titleField.getText().trim();
+            if (datePicker.getValue() == null || title.isEmpty()) {
+                new Alert(Alert.AlertType.ERROR, "Please enter a date and a title!").showAndWait();
+                return;
+            }
+            try {
+                taskController.overrideOccurrence(user, task, occurrence.originalDate(), datePicker.getValue(),
+                        title, fromCombo.getValue(), toCombo.getValue());
+            } catch (IllegalArgumentException e) {
+                new Alert(Alert.AlertType.ERROR, e.getMessage()).showAndWait();
             }
         });
     }
@@ -443,18 +1097,11 @@ public class HomePageController {
     @FXML
     public void onAddTaskButton(ActionEvent actionEvent) {
         try {
-            FXMLLoader fxmlLoader = new FXMLLoader(PandTaskApplication.class.getResource("create-task.fxml"));
-            Parent createTaskPage = fxmlLoader.load();
-            Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
-            Scene scene = new Scene(createTaskPage, 1000, 700);
-            stage.setTitle("PandTask - Create Task");
-            stage.setScene(scene);
-            CreateTaskController createTaskController = fxmlLoader.getController();
+            CreateTaskController createTaskController = SceneManager.show("create-task.fxml", "PandTask - Create Task");
             createTaskController.setUser(user);
             createTaskController.setTaskController(taskController);
             createTaskController.setLabelController(labelController);
             createTaskController.setAuthController(authController);
-            stage.show();
         } catch (Exception e) {
             System.err.println("Unable to load CreateTask scene from Home Page scene... " + e.getMessage());
             e.printStackTrace();
@@ -468,25 +1115,53 @@ public class HomePageController {
     @FXML
     public void onSettingsButtonClicked(ActionEvent actionEvent){
         try {
-            FXMLLoader fxmlLoader = new FXMLLoader(PandTaskApplication.class.getResource("settings-page.fxml"));
-            Parent settingsPage = fxmlLoader.load();
-            Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
-            Scene scene = new Scene(settingsPage, 1000, 700);
-            stage.setTitle("PandTask - Settings");
-            stage.setScene(scene);
-
-            SettingsController settingsController = fxmlLoader.getController();
+            SettingsController settingsController = SceneManager.show("settings-page.fxml", "PandTask - Settings");
             settingsController.setAuthController(authController);
             settingsController.setTaskController(taskController);
             settingsController.setLabelController(labelController);
             settingsController.setUser(user);
-            stage.show();
         } catch (Exception e) {
             System.err.println("Unable to load Settings scene from Home Page scene... " + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    /**
+     * Switch to year heatmap scene
+     * @param actionEvent, the action event (ActionEvent)
+     */
+    @FXML
+    public void onHeatmapButtonClicked(ActionEvent actionEvent){
+        try {
+            HeatmapPageController heatmapPageController = SceneManager.show("heatmap-page.fxml", "PandTask - Year Heatmap");
+            heatmapPageController.setAuthController(authController);
+            heatmapPageController.setTaskController(taskController);
+            heatmapPageController.setLabelController(labelController);
+            heatmapPageController.setUser(user);
+        } catch (Exception e) {
+            System.err.println("Unable to load Year Heatmap scene from Home Page scene... " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Switch to statistics scene
+     * @param actionEvent, the action event (ActionEvent)
+     */
+    @FXML
+    public void onStatisticsButtonClicked(ActionEvent actionEvent){
+        try {
+            StatisticsPageController statisticsPageController = SceneManager.show("statistics-page.fxml", "PandTask - Statistics");
+            statisticsPageController.setAuthController(authController);
+            statisticsPageController.setTaskController(taskController);
+            statisticsPageController.setLabelController(labelController);
+            statisticsPageController.setUser(user);
+        } catch (Exception e) {
+            System.err.println("Unable to load Statistics scene from Home Page scene... " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Switches to add-label scene when the '+' button is clicked.
      * @param actionEvent, the action event (ActionEvent)
@@ -494,19 +1169,11 @@ public class HomePageController {
     @FXML
     public void onAddLabelClicked(ActionEvent actionEvent){
         try{
-            FXMLLoader fxmlLoader = new FXMLLoader(PandTaskApplication.class.getResource("add-label.fxml"));
-            Parent addLabelPage = fxmlLoader.load();
-            Stage stage = (Stage)((Node)actionEvent.getSource()).getScene().getWindow();
-            Scene scene = new Scene(addLabelPage, 1000, 700);
-            stage.setTitle("PandTask Add Label Page");
-            stage.setScene(scene);
-
-            AddLabelController addLabelController = fxmlLoader.getController();
+            AddLabelController addLabelController = SceneManager.show("add-label.fxml", "PandTask Add Label Page");
             addLabelController.setLabelController(this.labelController);
             addLabelController.setAuthController(authController);
             addLabelController.setTaskController(taskController);
             addLabelController.setUser(user);
-            stage.show();
         } catch (Exception e) {
             System.err.println("Unable to load Add Label scene from Home Page scene... " + e.getMessage());
             e.printStackTrace();
@@ -523,37 +1190,68 @@ public class HomePageController {
         }
 
         labelsContainer.getChildren().clear();
-        ArrayList<model.Label> labels = labelController.getLabels();
+        List<model.Label> labels = labelController.getLabels();
 
         System.out.println("loading labels in homepage");
 
         for(model.Label label : labels){
-            javafx.scene.layout.HBox row = new javafx.scene.layout.HBox();
-            row.setSpacing(10.0);
-            row.setAlignment(Pos.CENTER_LEFT);
-
-            javafx.scene.shape.Rectangle colorBox = new  javafx.scene.shape.Rectangle();
-            colorBox.setWidth(15);
-            colorBox.setHeight(15);
-            //Set colors
-            try{
-                String colorHex = label.getColor();
-                if(colorHex == null || colorHex.isEmpty()) colorHex = "CCCCCC";
-
-                colorBox.setFill(javafx.scene.paint.Color.web(colorHex));
-                colorBox.setStroke(Color.BLACK);
-                colorBox.setStrokeWidth(0.5);
-            }catch (Exception e){
-                System.err.println("Unable to load color box from label: " + e.getMessage());
-                colorBox.setFill(javafx.scene.paint.Color.GRAY);
-            }
+            addLabelRow(label);
+        }
+    }
 
-            javafx.scene.control.Label labelText = new javafx.scene.control.Label(label.getName());
-            labelText.setStyle("-fx-font-size: 13px; -fx-text-fill: #333333;");
+    /**
+     * Applies a change of the user's labels: a new label is added as one more row
+     * @param event, the change (ChangeEvent)
+     */
+    private void onLabelChanged(ChangeEvent<model.Label> event) {
+        if (user == null || event.userId() != user.getId() || labelsContainer == null) return;
 
-            row.getChildren().add(colorBox);
-            row.getChildren().add(labelText);
-            labelsContainer.getChildren().add(row);
+        if (event.kind() == ChangeEvent.Kind.CREATED) {
+            addLabelRow(event.entity());
+        } else {
+            loadLabels();
         }
     }
+
+    /**
+     * Helper method to add the row of a label with its color and name
+     * @param label, the label (model.Label)
+     */
+    private void addLabelRow(model.Label label){
+        javafx.scene.layout.HBox row = new javafx.scene.layout.HBox();
+        row.setSpacing(10.0);
+        row.setAlignment(Pos.CENTER_LEFT);
+
+        javafx.scene.shape.Rectangle colorBox = new  javafx.scene.shape.Rectangle();
+        colorBox.setWidth(15);
+        colorBox.setHeight(15);
+        //Set colors
+        colorBox.setFill(getLabelColor(label.getColor()));
+        colorBox.setStroke(Color.BLACK);
+        colorBox.setStrokeWidth(0.5);
+
+        javafx.scene.control.Label labelText = new javafx.scene.control.Label(label.getName());
+        labelText.getStyleClass().add("label-name");
+
+        row.getChildren().add(colorBox);
+        row.getChildren().add(labelText);
+        labelsContainer.getChildren().add(row);
+    }
+
+    /**
+     * Helper method to get the color of a label. Each hex string is parsed only once
+     * @param colorHex, the label's color (String)
+     * @return the color, gray if the hex string is not valid (Color)
+     */
+    private static Color getLabelColor(String colorHex) {
+        if (colorHex == null || colorHex.isEmpty()) colorHex = "CCCCCC";
+        return labelColors.computeIfAbsent(colorHex, hex -> {
+            try {
+                return Color.web(hex);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unable to load color box from label: " + e.getMessage());
+                return Color.GRAY;
+            }
+        });
+    }
 }
\ No newline at end of file
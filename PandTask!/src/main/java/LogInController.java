@@ -5,11 +5,6 @@ import javafx.fxml.FXML;
 import javafx.event.ActionEvent;
 import javafx.scene.control.*;
 import java.io.IOException;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
-import javafx.scene.Node;
-import javafx.stage.Stage;
 import model.User;
 import java.util.prefs.Preferences;
 
@@ -20,7 +15,7 @@ import java.util.prefs.Preferences;
  * @author Raymond Huelitl
  * @author Francisco Espinoza
  */
-public class LogInController {
+public class LogInController implements ResettablePage {
     //FXML Components
     @FXML
     private TextField emailField;
@@ -44,6 +39,7 @@ public class LogInController {
     String email;
     String password;
     boolean rememberMe;
+    private String defaultMessage;
 
     /**
      * Sets the user on the application
@@ -110,6 +106,26 @@ public class LogInController {
      */
     @FXML
     public void initialize() {
+        defaultMessage = messageLabel.getText();
+        loadRememberedCredentials();
+    }
+
+    /**
+     * Restores the remembered credentials, or clears the fields, every time the page is shown
+     */
+    @Override
+    public void resetPage() {
+        messageLabel.setText(defaultMessage);
+        emailField.clear();
+        passwordField.clear();
+        rememberMeCheck.setSelected(false);
+        loadRememberedCredentials();
+    }
+
+    /**
+     * Helper method to fill the email and password fields from the saved preferences
+     */
+    private void loadRememberedCredentials() {
         // Get Preferences node
         Preferences prefs = Preferences.userNodeForPackage(LogInController.class);
 
@@ -166,21 +182,14 @@ public class LogInController {
 
             messageLabel.setText("-- Message Label: Log In Successfully --");
             try {
-                String fxmlPath = "home-page.fxml";
-                FXMLLoader fxmlLoader = new FXMLLoader(PandTaskApplication.class.getResource(fxmlPath));
-                Parent mainPage = fxmlLoader.load();
-                Scene scene = new Scene(mainPage, 1000, 700);
-                Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-                stage.setTitle("PandTask Home Page");
-                stage.setScene(scene);
-
-                HomePageController homePageController = fxmlLoader.getController();
+                HomePageController homePageController = SceneManager.show("home-page.fxml", "PandTask Home Page");
                 homePageController.setUser(user);
                 homePageController.setAuthController(authController);
                 homePageController.setTaskController(taskController);
                 homePageController.setLabelController(labelController);
 
-                stage.show();
+                // Parse the other pages in the background while the user looks at the calendar
+                SceneManager.preload("create-task.fxml", "settings-page.fxml", "add-label.fxml");
             } catch (Exception e) {
                 System.err.println("Failed to load the main page scene from log in scene.");
                 e.printStackTrace();
@@ -202,19 +211,11 @@ public class LogInController {
     public void handleSwitchToSignUp(ActionEvent event) {
         System.out.println("Switching scene to Sign Up view...");
         try {
-            String fxmlPath = "sign-up.fxml";
-            FXMLLoader fxmlLoader = new FXMLLoader(PandTaskApplication.class.getResource(fxmlPath));
-            Parent mainPage = fxmlLoader.load();
-            Scene scene = new Scene(mainPage, 1000, 700);
-            Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-            stage.setTitle("PandTask Sign Up Page");
-            stage.setScene(scene);
-            SignUpController signUpController = fxmlLoader.getController();
+            SignUpController signUpController = SceneManager.show("sign-up.fxml", "PandTask Sign Up Page");
             signUpController.setUser(user);
             signUpController.setAuthController(authController);
             signUpController.setTaskController(taskController);
             signUpController.setLabelController(labelController);
-            stage.show();
         } catch (Exception e) {
             System.err.println("Unable to load Sign Up scene from log in scene... " + e.getMessage());
             messageLabel.setText("-- Unable to set Scene --");
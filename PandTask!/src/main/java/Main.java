@@ -1,11 +1,13 @@
 import controller.AuthController;
 import controller.LabelController;
 import controller.TaskController;
+import metrics.Metrics;
 import model.Label;
 import model.User;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 public class Main {
@@ -16,7 +18,8 @@ public class Main {
                     "1. View all tasks\n" +
                     "2. View tasks by priority\n" +
                     "3. View tasks by label\n" +
-                    "4. Log out\n";
+                    "4. Log out\n" +
+                    "5. Show metrics\n";
 
     // Constant for the menu before login
     private static final String PRE_LOGIN_MENU =
@@ -48,6 +51,11 @@ public class Main {
             return;
         }
 
+        // Reminders of the logged in user are printed while the menus wait for input
+        taskController.getReminderService().addListener(occurrence -> System.out.println(
+                "\nReminder: " + occurrence.task().getTitle() + " starts at " + occurrence.task().getStartHour()
+                        + " on " + occurrence.date()));
+
         //main application loop (Handles returning to pre-login menu)
 
         // Outer loop to keep the application running until the user chooses to exit
@@ -129,6 +137,7 @@ public class Main {
             Scanner sc) {
 
         String appChoice;
+        taskController.getReminderService().watch(currentUser);
 
         do {
             System.out.println(APP_MENU_OPTIONS);
@@ -141,6 +150,7 @@ public class Main {
         } while (!appChoice.equals("4"));
 
         // Once the loop breaks (appChoice == "4"), perform the logout action
+        taskController.getReminderService().unwatch(currentUser);
         authController.logout(currentUser);
         System.out.println("\nReturning to the welcome screen...");
         // The method returns, and the outer while(true) loop in main() restarts.
@@ -165,7 +175,7 @@ public class Main {
             }
             case "3" -> {
                 System.out.println("\n--- Available Labels ---");
-                ArrayList<Label> labels = labelController.getLabels();
+                List<Label> labels = labelController.getLabels();
 
                 labels.forEach(label -> System.out.println("- " + label.getName()));
 
@@ -176,6 +186,16 @@ public class Main {
             case "4" -> {
                 // User chose to log out. The do-while loop in runApplicationMenu will break.
             }
+            case "5" -> {
+                System.out.println();
+                System.out.println(Metrics.report());
+                try {
+                    Metrics.dump(Metrics.METRICS_FILE_PATH);
+                    System.out.println("Metrics saved to " + Metrics.METRICS_FILE_PATH);
+                } catch (IOException e) {
+                    System.err.println("Error saving metrics: " + e.getMessage());
+                }
+            }
             default -> {
                 System.out.println("\nInvalid choice. Try again.");
             }
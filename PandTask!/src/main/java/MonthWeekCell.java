@@ -0,0 +1,85 @@
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import model.Occurrence;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The MonthWeekCell class is a row of the month view: the seven days of a week starting on Sunday.
+ * Each day shows the first tasks of the day and how many more there are. The day boxes are created once per cell
+ * and reused while scrolling, only their contents change.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class MonthWeekCell extends ListCell<LocalDate> {
+
+    /// Height of a week row, fixed so the ListView can compute the scroll position without measuring rows
+    public static final double ROW_HEIGHT = 110;
+
+    private static final int MAX_TASKS_PER_DAY = 3;
+    private static final DateTimeFormatter FIRST_DAY_FORMATTER = DateTimeFormatter.ofPattern("MMM d");
+
+    private final Function<LocalDate, List<Occurrence>> occurrences;
+    private final Function<Occurrence, Label> taskLabelFactory;
+    private final HBox week = new HBox();
+    private final VBox[] days = new VBox[7];
+
+    /**
+     * MonthWeekCell constructor
+     * @param occurrences, gives the tasks on a date (Function)
+     * @param taskLabelFactory, creates the label of a task on a date (Function)
+     */
+    public MonthWeekCell(Function<LocalDate, List<Occurrence>> occurrences, Function<Occurrence, Label> taskLabelFactory) {
+        this.occurrences = occurrences;
+        this.taskLabelFactory = taskLabelFactory;
+        for (int i = 0; i < days.length; i++) {
+            days[i] = new VBox(2);
+            days[i].getStyleClass().add("month-day");
+            days[i].setPrefWidth(0);
+            HBox.setHgrow(days[i], Priority.ALWAYS);
+            week.getChildren().add(days[i]);
+        }
+        week.setPrefHeight(ROW_HEIGHT - 4);
+    }
+
+    @Override
+    protected void updateItem(LocalDate startOfWeek, boolean empty) {
+        super.updateItem(startOfWeek, empty);
+        setText(null);
+        if (empty || startOfWeek == null) {
+            setGraphic(null);
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < days.length; i++) {
+            LocalDate date = startOfWeek.plusDays(i);
+            VBox day = days[i];
+
+            Label dayNumber = new Label(date.getDayOfMonth() == 1
+                    ? date.format(FIRST_DAY_FORMATTER) : String.valueOf(date.getDayOfMonth()));
+            day.getChildren().setAll(dayNumber);
+            day.getStyleClass().remove("month-day-today");
+            if (date.equals(today)) day.getStyleClass().add("month-day-today");
+
+            List<Occurrence> dayOccurrences = occurrences.apply(date);
+            for (int j = 0; j < dayOccurrences.size() && j < MAX_TASKS_PER_DAY; j++) {
+                Label taskLabel = taskLabelFactory.apply(dayOccurrences.get(j));
+                taskLabel.setWrapText(false);
+                day.getChildren().add(taskLabel);
+            }
+            if (dayOccurrences.size() > MAX_TASKS_PER_DAY) {
+                day.getChildren().add(new Label("+" + (dayOccurrences.size() - MAX_TASKS_PER_DAY) + " more"));
+            }
+        }
+        setGraphic(week);
+    }
+}
@@ -2,8 +2,6 @@ import controller.AuthController;
 import controller.LabelController;
 import controller.TaskController;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 /**
@@ -37,17 +35,17 @@ public class PandTaskApplication extends Application {
             taskController.loadTasksFromCSV("data/tasks.csv", authController.getUsers(), labelController.getLabels());
 
             // Get Log In scene
-            FXMLLoader fxmlLoader = new FXMLLoader(PandTaskApplication.class.getResource("log-in.fxml"));
-            Scene scene = new Scene(fxmlLoader.load(), 1000, 700);
-            stage.setTitle("PandTask Log In");
-            stage.setScene(scene);
-
-            LogInController logInController = fxmlLoader.getController();
+            SceneManager.setStage(stage);
+            LogInController logInController = SceneManager.show("log-in.fxml", "PandTask Log In");
             logInController.setAuthController(authController);
             logInController.setTaskController(taskController);
             logInController.setLabelController(labelController);
 
-            stage.show();
+            // Developer overlay, only with -Dpandtask.fxmonitor=true
+            FrameMonitor.install(stage);
+
+            // The home page is always next, parse it while the user types their credentials
+            SceneManager.preload("home-page.fxml");
         } catch (Exception e) {
             e.printStackTrace();
             System.err.println("Failed to start PandTaskApplication: " + e.getMessage());
@@ -0,0 +1,15 @@
+/**
+ * The ResettablePage interface is implemented by page controllers that are kept alive by the SceneManager.
+ * Instead of reloading the FXML, the SceneManager calls resetPage every time the page is shown again.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public interface ResettablePage {
+
+    /**
+     * Clears the page inputs and messages so it looks like a freshly loaded page
+     */
+    void resetPage();
+}
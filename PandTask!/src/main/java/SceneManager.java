@@ -0,0 +1,151 @@
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import metrics.SceneLoadEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * The SceneManager class switches between the pages of the PandTaskApplication.
+ * Every FXML file is loaded only once; its root and controller are cached and the page is shown by swapping the
+ * root of a single shared scene, so going back and forth between pages does not parse the FXML again.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class SceneManager {
+
+    private static final double SCENE_WIDTH = 1000;
+    private static final double SCENE_HEIGHT = 700;
+    private static final String STYLESHEET = "pandtask.css";
+
+    /// Pages loaded (or being preloaded) so far, keyed by FXML file name
+    private static final Map<String, CompletableFuture<Page>> pages = new ConcurrentHashMap<>();
+
+    /// Background loader used by preload so the FX thread is not blocked
+    private static final Executor preloadExecutor = runnable -> {
+        Thread thread = new Thread(runnable, "PandTask-FXML-preload");
+        thread.setDaemon(true);
+        thread.start();
+    };
+
+    private static Stage stage;
+
+    /**
+     * A loaded page: the root node of the FXML and its controller
+     */
+    private record Page(Parent root, Object controller) {}
+
+    private SceneManager() {
+    }
+
+    /**
+     * Sets the window where every page is shown
+     * @param primaryStage, the application's stage (Stage)
+     */
+    public static void setStage(Stage primaryStage) {
+        stage = primaryStage;
+    }
+
+    /**
+     * Shows a page on the stage. The page is loaded the first time and reused afterwards; reused pages are
+     * reset through ResettablePage before being returned. Every navigation records a SceneLoadEvent.
+     * @param fxml, the FXML file name (String)
+     * @param title, the window title (String)
+     * @return the page's controller
+     * @throws IOException, throws exceptions related to loading the FXML file
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T show(String fxml, String title) throws IOException {
+        SceneLoadEvent event = new SceneLoadEvent();
+        event.begin();
+        CompletableFuture<Page> loaded = pages.get(fxml);
+        event.cached = loaded != null && loaded.isDone();
+
+        Page page = getPage(fxml);
+
+        Scene scene = stage.getScene();
+        if (scene == null) {
+            scene = new Scene(page.root(), SCENE_WIDTH, SCENE_HEIGHT);
+            scene.getStylesheets().add(PandTaskApplication.class.getResource(STYLESHEET).toExternalForm());
+            stage.setScene(scene);
+        } else if (scene.getRoot() != page.root()) {
+            scene.setRoot(page.root());
+        }
+        stage.setTitle(title);
+
+        if (page.controller() instanceof ResettablePage resettablePage) {
+            resettablePage.resetPage();
+        }
+        stage.show();
+
+        event.fxml = fxml;
+        event.title = title;
+        event.commit();
+        return (T) page.controller();
+    }
+
+    /**
+     * Loads pages in the background so the first switch to them is already fast.
+     * Pages that are already loaded or loading are skipped.
+     * @param fxmls, the FXML file names (String...)
+     */
+    public static void preload(String... fxmls) {
+        for (String fxml : fxmls) {
+            pages.computeIfAbsent(fxml, name -> CompletableFuture.supplyAsync(() -> loadPage(name), preloadExecutor)
+                    .whenComplete((page, error) -> {
+                        if (error != null) {
+                            System.err.println("Unable to preload " + name + ": " + error.getMessage());
+                            pages.remove(name);
+                        }
+                    }));
+        }
+    }
+
+    /**
+     * Gets a cached page or loads it on the calling thread. Waits for a preload that is still running.
+     * @param fxml, the FXML file name (String)
+     * @return the page (Page)
+     * @throws IOException, throws exceptions related to loading the FXML file
+     */
+    private static Page getPage(String fxml) throws IOException {
+        CompletableFuture<Page> future = pages.get(fxml);
+        try {
+            if (future != null) {
+                return future.join();
+            }
+            Page page = loadPage(fxml);
+            pages.put(fxml, CompletableFuture.completedFuture(page));
+            return page;
+        } catch (CompletionException | UncheckedIOException e) {
+            pages.remove(fxml);
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException unchecked) cause = unchecked.getCause();
+            if (cause instanceof IOException ioException) throw ioException;
+            throw new IOException("Unable to load " + fxml, cause);
+        }
+    }
+
+    /**
+     * Parses the FXML file and creates its controller
+     * @param fxml, the FXML file name (String)
+     * @return the page (Page)
+     */
+    private static Page loadPage(String fxml) {
+        try {
+            FXMLLoader fxmlLoader = new FXMLLoader(PandTaskApplication.class.getResource(fxml));
+            Parent root = fxmlLoader.load();
+            return new Page(root, fxmlLoader.getController());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -3,15 +3,10 @@ import controller.LabelController;
 import controller.TaskController;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
-import javafx.stage.Stage;
 import model.User;
 
 import java.io.IOException;
@@ -24,7 +19,7 @@ import java.util.HashMap;
  * @author Raymond Huelitl
  * @author Francisco Espinoza
  */
-public class SettingsController {
+public class SettingsController implements ResettablePage {
     // FXML Components
     @FXML
     private TextField usernameField;
@@ -41,6 +36,7 @@ public class SettingsController {
     AuthController authController = new AuthController();
     TaskController taskController = new TaskController();
     LabelController labelController = new LabelController();
+    private String defaultMessage;
 
     /**
      * Sets the authController on the application
@@ -75,6 +71,24 @@ public class SettingsController {
         nameLabel.setText(user.getUsername());
     }
 
+    /**
+     * Initializes the SettingsController and keeps the default message to restore it when the page is shown again
+     */
+    @FXML
+    public void initialize() {
+        defaultMessage = messageLabel.getText();
+    }
+
+    /**
+     * Clears the username and password fields every time the page is shown
+     */
+    @Override
+    public void resetPage() {
+        usernameField.clear();
+        passwordField.clear();
+        messageLabel.setText(defaultMessage);
+    }
+
     /**
      * Switches to the log in scene when pressing the Log Out button
      * @param event, the action event (ActionEvent)
@@ -83,14 +97,8 @@ public class SettingsController {
     protected void onLogOutButtonClicked(ActionEvent event){
         System.out.println("Switching to log in page\n");
         try{
-            FXMLLoader fxmlLoader = new FXMLLoader(PandTaskApplication.class.getResource("log-in.fxml"));
-            Parent logInPage = fxmlLoader.load();
-            Scene scene = new Scene(logInPage, 1000, 700);
-            Stage stage = (Stage)((Node) event.getSource()).getScene().getWindow();
-            stage.setTitle("PandTask Log In Page");
-            stage.setScene(scene);
-
-            LogInController logInController = fxmlLoader.getController();
+            if (user != null) taskController.getReminderService().unwatch(user);
+            LogInController logInController = SceneManager.show("log-in.fxml", "PandTask Log In Page");
             logInController.setAuthController(authController);
             logInController.setTaskController(taskController);
             logInController.setLabelController(labelController);
@@ -108,18 +116,11 @@ public class SettingsController {
     @FXML
     protected void onCloseButtonClicked(ActionEvent actionEvent){
         try{
-            FXMLLoader fxmlLoader = new FXMLLoader(PandTaskApplication.class.getResource("home-page.fxml"));
-            Parent homePage = fxmlLoader.load();
-            Scene scene = new Scene(homePage, 1000, 700);
-            Stage stage = (Stage) ((Node)actionEvent.getSource()).getScene().getWindow();
-            stage.setTitle("PandTask Home Page");
-            stage.setScene(scene);
-            HomePageController homePageController = fxmlLoader.getController();
+            HomePageController homePageController = SceneManager.show("home-page.fxml", "PandTask Home Page");
             homePageController.setAuthController(authController);
             homePageController.setLabelController(labelController);
             homePageController.setTaskController(taskController);
             homePageController.setUser(user);
-            stage.show();
             System.out.println("Switched from Settings Scene to Home Page Scene successfully");
         } catch (Exception e) {
             System.err.println("Failed to load the Log In page scene from Settings scene.");
@@ -166,18 +167,10 @@ public class SettingsController {
         }
         System.out.println("Switching scene to Log In view...");
         try {
-            String fxmlPath = "log-in.fxml";
-            FXMLLoader fxmlLoader = new FXMLLoader(PandTaskApplication.class.getResource(fxmlPath));
-            Parent mainPage = fxmlLoader.load();
-            Scene scene = new Scene(mainPage, 1000, 700);
-            Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-            stage.setTitle("PandTask Calender Log - In Page");
-            stage.setScene(scene);
-            LogInController logInController = fxmlLoader.getController();
+            LogInController logInController = SceneManager.show("log-in.fxml", "PandTask Calender Log - In Page");
             logInController.setAuthController(authController);
             logInController.setTaskController(taskController);
             logInController.setLabelController(labelController);
-            stage.show();
         }
         catch(Exception e) {
             System.err.println("Unable to load a new scene... " + e.getMessage());
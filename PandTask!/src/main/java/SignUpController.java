@@ -3,16 +3,11 @@ import controller.TaskController;
 import controller.LabelController;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.stage.Stage;
 import model.User;
 import java.io.IOException;
 
-public class SignUpController {
+public class SignUpController implements ResettablePage {
     // FXML Components
     @FXML
     private TextField nameField;
@@ -33,6 +28,27 @@ public class SignUpController {
     LabelController labelController;
     TaskController taskController;
     User user;
+    private String defaultMessage;
+
+    /**
+     * Initializes the SignUpController and keeps the default message to restore it when the page is shown again
+     */
+    @FXML
+    public void initialize() {
+        defaultMessage = messageLabel.getText();
+    }
+
+    /**
+     * Clears every field every time the page is shown
+     */
+    @Override
+    public void resetPage() {
+        nameField.clear();
+        emailField.clear();
+        passwordField.clear();
+        repeatPasswordField.clear();
+        messageLabel.setText(defaultMessage);
+    }
 
     /**
      * Sets the user on the applicatio
@@ -100,19 +116,11 @@ public class SignUpController {
         }
 
         try {
-            String fxmlPath = "home-page.fxml";
-            FXMLLoader fxmlLoader = new FXMLLoader(PandTaskApplication.class.getResource(fxmlPath));
-            Parent mainPage = fxmlLoader.load();
-            Scene scene = new Scene(mainPage, 1000, 700);
-            Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-            stage.setTitle("PandTask Home Page");
-            stage.setScene(scene);
-            HomePageController homePageController = fxmlLoader.getController();
+            HomePageController homePageController = SceneManager.show("home-page.fxml", "PandTask Home Page");
             homePageController.setUser(user);
             homePageController.setAuthController(authController);
             homePageController.setTaskController(taskController);
             homePageController.setLabelController(labelController);
-            stage.show();
         } catch (Exception e) {
             System.err.println("Failed to load the main application scene from sign up scene.");
             e.printStackTrace();
@@ -130,19 +138,11 @@ public class SignUpController {
     private void handleLogInLinkClick(ActionEvent event) {
         System.out.println("Switching scene to Log In view...");
         try {
-            String fxmlPath = "log-in.fxml";
-            FXMLLoader fxmlLoader = new FXMLLoader(PandTaskApplication.class.getResource(fxmlPath));
-            Parent mainPage = fxmlLoader.load();
-            Scene scene = new Scene(mainPage, 1000, 700);
-            Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-            stage.setTitle("PandTask Calender Log - In Page");
-            stage.setScene(scene);
-            LogInController logInController = fxmlLoader.getController();
+            LogInController logInController = SceneManager.show("log-in.fxml", "PandTask Calender Log - In Page");
             logInController.setUser(user);
             logInController.setAuthController(authController);
             logInController.setTaskController(taskController);
             logInController.setLabelController(labelController);
-            stage.show();
         } catch (Exception e) {
             System.err.println("Unable to load Log In scene from Sign Up scene... " + e.getMessage());
             messageLabel.setText("-- Unable to set Scene --");
@@ -0,0 +1,198 @@
+import controller.AuthController;
+import controller.LabelController;
+import controller.StatisticsController;
+import controller.TaskController;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.PieChart;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import model.TaskStatistics;
+import model.User;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The StatisticsPageController class represents the controller for the Statistics scene of the PandTaskApplication.
+ * The counts come from the StatisticsController, which keeps them up to date as tasks change, so the page opens
+ * without reading the tasks.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class StatisticsPageController implements ResettablePage {
+    // FXML Components
+    @FXML
+    private Label summaryLabel;
+    @FXML
+    private ProgressBar completionBar;
+    @FXML
+    private PieChart priorityChart;
+    @FXML
+    private BarChart<String, Number> weekdayChart;
+    @FXML
+    private BarChart<String, Number> weekChart;
+    @FXML
+    private VBox labelsBox;
+
+    /// Weeks shown on the week chart, the current week is the last one
+    private static final int WEEKS_SHOWN = 12;
+    private static final DateTimeFormatter WEEK_FORMATTER = DateTimeFormatter.ofPattern("MMM d");
+
+    private User user;
+    private AuthController authController = new AuthController();
+    private TaskController taskController = new TaskController();
+    private LabelController labelController = new LabelController();
+    private StatisticsController statisticsController = StatisticsController.shared();
+
+    /**
+     * Sets the authController on the application
+     * @param authController, the authController (AuthController)
+     */
+    public void setAuthController(AuthController authController) {
+        this.authController = authController;
+    }
+
+    /**
+     * Sets the taskController on the application
+     * @param taskController, the taskController (TaskController)
+     */
+    public void setTaskController(TaskController taskController) {
+        this.taskController = taskController;
+    }
+
+    /**
+     * Sets the labelController on the application
+     * @param labelController, the labelController (LabelController)
+     */
+    public void setLabelController(LabelController labelController) {
+        this.labelController = labelController;
+    }
+
+    /**
+     * Sets the user on the application and shows their statistics
+     * @param user, the current user (User)
+     */
+    public void setUser(User user) {
+        this.user = user;
+        showStatistics(statisticsController.getStatistics(user));
+    }
+
+    /**
+     * Clears the charts every time the page is shown, until the statistics of the user are set
+     */
+    @Override
+    public void resetPage() {
+        summaryLabel.setText("No tasks yet");
+        completionBar.setProgress(0);
+        priorityChart.getData().clear();
+        weekdayChart.getData().clear();
+        weekChart.getData().clear();
+        labelsBox.getChildren().clear();
+    }
+
+    /**
+     * Switches to the home page when pressing the 'x' button
+     * @param actionEvent, the action event (ActionEvent)
+     */
+    @FXML
+    protected void onCloseButtonClicked(ActionEvent actionEvent) {
+        try {
+            HomePageController homePageController = SceneManager.show("home-page.fxml", "PandTask Home Page");
+            homePageController.setAuthController(authController);
+            homePageController.setLabelController(labelController);
+            homePageController.setTaskController(taskController);
+            homePageController.setUser(user);
+        } catch (Exception e) {
+            System.err.println("Failed to load the Home Page scene from Statistics scene.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Helper method to fill the charts with the statistics
+     * @param statistics, the user's statistics (TaskStatistics)
+     */
+    private void showStatistics(TaskStatistics statistics) {
+        double rate = statistics.getQuickTaskCompletionRate();
+        summaryLabel.setText(statistics.taskCount() + " tasks, " + statistics.quickTasksCompleted() + " of "
+                + statistics.quickTasksAdded() + " quick tasks completed (" + Math.round(rate * 100) + "%)");
+        completionBar.setProgress(rate);
+
+        List<PieChart.Data> priorities = new ArrayList<>();
+        for (String priority : List.of("High", "Medium", "Low")) {
+            int count = statistics.tasksByPriority().getOrDefault(priority, 0);
+            if (count > 0) priorities.add(new PieChart.Data(priority + " (" + count + ")", count));
+        }
+        statistics.tasksByPriority().forEach((priority, count) -> {
+            if (!List.of("High", "Medium", "Low").contains(priority)) {
+                priorities.add(new PieChart.Data(priority + " (" + count + ")", count));
+            }
+        });
+        priorityChart.getData().setAll(priorities);
+
+        XYChart.Series<String, Number> weekdays = new XYChart.Series<>();
+        for (DayOfWeek day : List.of(DayOfWeek.SUNDAY, DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+                DayOfWeek.THURSDAY, DayOfWeek.FRIDAY, DayOfWeek.SATURDAY)) {
+            weekdays.getData().add(new XYChart.Data<>(day.getDisplayName(TextStyle.SHORT, Locale.getDefault()),
+                    statistics.tasksByWeekday().getOrDefault(day, 0)));
+        }
+        weekdayChart.getData().setAll(List.of(weekdays));
+
+        // Weeks start on Sunday, like the calendar
+        LocalDate today = LocalDate.now();
+        LocalDate currentWeek = today.minusDays(today.getDayOfWeek().getValue() % 7);
+        XYChart.Series<String, Number> weeks = new XYChart.Series<>();
+        for (int i = WEEKS_SHOWN - 1; i >= 0; i--) {
+            LocalDate week = currentWeek.minusWeeks(i);
+            weeks.getData().add(new XYChart.Data<>(week.format(WEEK_FORMATTER),
+                    statistics.tasksByWeek().getOrDefault(week, 0)));
+        }
+        weekChart.getData().setAll(List.of(weeks));
+
+        // The tasks only keep the names of their labels, the colors come from the user's labels
+        Map<String, String> colors = new HashMap<>();
+        for (model.Label label : labelController.getLabels(user)) {
+            colors.put(label.getName(), label.getColor());
+        }
+        labelsBox.getChildren().clear();
+        if (statistics.tasksByLabel().isEmpty()) {
+            labelsBox.getChildren().add(new Label("No labelled tasks"));
+        }
+        statistics.tasksByLabel().entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> {
+                    Label row = new Label(entry.getKey() + ": " + entry.getValue());
+                    row.setGraphic(new Circle(6, getColor(colors.get(entry.getKey()))));
+                    labelsBox.getChildren().add(row);
+                });
+    }
+
+    /**
+     * Helper method to get the color of a label
+     * @param colorHex, the label's color, null for a label the user no longer has (String)
+     * @return the color, gray if there is no valid color (Color)
+     */
+    private static Color getColor(String colorHex) {
+        if (colorHex == null || colorHex.isEmpty()) return Color.GRAY;
+        try {
+            return Color.web(colorHex);
+        } catch (IllegalArgumentException e) {
+            return Color.GRAY;
+        }
+    }
+}
@@ -0,0 +1,441 @@
+package controller;
+
+import metrics.CsvReadEvent;
+import metrics.CsvWriteEvent;
+import metrics.Metrics;
+import model.Task;
+import util.CsvLine;
+import util.Recurrence;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The Archiver class keeps the history that the application does not need every day: the one-off tasks of the
+ * months before the previous one, and the completed quick tasks. They are moved out of tasks.dat and
+ * quicktasks.dat into gzip files of one month each in data/archive (tasks-2025-03.csv.gz, quicktasks-2025-03.csv.gz),
+ * so loading, saving and drawing the calendar only go through the current and repeating tasks.
+ * A month of tasks is read only when a view shows one of its dates, and the last months read are kept in memory.
+ * data/archive/index.csv has the number of tasks of every month, with a checksum and the largest id, so the
+ * statistics and the ids are checked without reading the archive. New tasks are appended to a month as another
+ * gzip member, so archiving never rewrites a month.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class Archiver {
+
+    private static final String INDEX_HEADER = "month,tasks,checksum,maxId";
+    /// Months of tasks kept in memory after they are read
+    private static final int CACHED_MONTHS = 6;
+
+    private static final Archiver SHARED = new Archiver("data/archive");
+
+    /**
+     * The archived tasks of one month, from index.csv
+     */
+    private record MonthEntry(int tasks, long checksum, int maxId) {}
+
+    private final String directory;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /// Archived months in order, read from index.csv the first time they are needed
+    private final Map<YearMonth, MonthEntry> months = new TreeMap<>();
+    private boolean loaded;
+    /// Tasks of the last months read by user, the least recently read month first
+    private final Map<YearMonth, Map<Integer, List<Task>>> cachedMonths = new LinkedHashMap<>(16, 0.75f, true);
+    /// Changes every time tasks are archived
+    private volatile long version;
+
+    /**
+     * Archiver constructor
+     * @param directory, the archive directory (String)
+     */
+    public Archiver(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the archive shared by the controllers of the application
+     * @return the shared archive (Archiver)
+     */
+    public static Archiver shared() {
+        return SHARED;
+    }
+
+    /**
+     * Checks if a task belongs in the archive: it does not repeat and its date is before the previous month
+     * @param task, the task (Task)
+     * @return true if the task is archived (boolean)
+     */
+    public static boolean isCold(Task task) {
+        if (task.getRepeat() != null && !task.getRepeat().isBlank() && !task.getRepeat().equalsIgnoreCase("None")) {
+            return false;
+        }
+        LocalDate date = Recurrence.parseDate(task.getEventDate());
+        return date != null && date.isBefore(getCutoff());
+    }
+
+    /**
+     * Gets the first date that is not archived, the first day of the previous month
+     * @return the date (LocalDate)
+     */
+    public static LocalDate getCutoff() {
+        return LocalDate.now().withDayOfMonth(1).minusMonths(1);
+    }
+
+    /**
+     * Moves tasks to the archive, each one to the month of its date, and saves the index. Tasks that are already in
+     * their month, e.g. when the application stopped before deleting them from tasks.dat, are not added again, so
+     * the number of tasks and the checksum of the index still match the tasks read. The months are then read back
+     * from their files, and only the tasks read back as they were written are returned, so the caller removes a
+     * task from tasks.dat only once it can be read from the archive.
+     * @param tasks, the tasks, all of them archived by isCold (Collection)
+     * @return the tasks read back from the archive (List)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    public List<Task> archiveTasks(Collection<Task> tasks) throws IOException {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            ensureLoaded();
+            Map<YearMonth, List<Task>> byMonth = new TreeMap<>();
+            for (Task task : tasks) {
+                byMonth.computeIfAbsent(YearMonth.from(Recurrence.parseDate(task.getEventDate())),
+                        month -> new ArrayList<>()).add(task);
+            }
+
+            int archived = 0;
+            for (Map.Entry<YearMonth, List<Task>> entry : byMonth.entrySet()) {
+                MonthEntry old = months.getOrDefault(entry.getKey(), new MonthEntry(0, 0, 0));
+                Set<Integer> archivedIds = getArchivedIds(entry.getKey(), old, entry.getValue());
+                List<String> lines = new ArrayList<>();
+                int maxId = 0;
+                long checksum = 0;
+                for (Task task : entry.getValue()) {
+                    if (!archivedIds.add(task.getId())) continue;
+                    lines.add(TaskController.formatTask(task));
+                    maxId = Math.max(maxId, task.getId());
+                    checksum += StatisticsController.mix(task.getId());
+                }
+                if (lines.isEmpty()) continue;
+                append(segment("tasks", entry.getKey()), lines);
+                archived += lines.size();
+
+                months.put(entry.getKey(), new MonthEntry(old.tasks() + lines.size(), old.checksum() + checksum,
+                        Math.max(old.maxId(), maxId)));
+                cachedMonths.remove(entry.getKey());
+            }
+            saveIndex();
+            version++;
+            System.out.println("Archived " + archived + " past tasks in " + byMonth.size() + " months");
+
+            List<Task> readBack = new ArrayList<>(tasks.size());
+            for (Map.Entry<YearMonth, List<Task>> entry : byMonth.entrySet()) {
+                Map<Integer, Task> archivedTasks = new HashMap<>();
+                for (List<Task> userTasks : readMonth(entry.getKey()).values()) {
+                    for (Task task : userTasks) {
+                        archivedTasks.put(task.getId(), task);
+                    }
+                }
+                for (Task task : entry.getValue()) {
+                    if (isReadBack(task, archivedTasks.get(task.getId()))) {
+                        readBack.add(task);
+                    } else {
+                        System.err.println("Task " + task.getId() + " was not read back from the archive of "
+                                + entry.getKey() + ", it stays in tasks.dat");
+                    }
+                }
+            }
+            return readBack;
+        } finally {
+            lock.unlock();
+            Metrics.record("archive.write", start);
+        }
+    }
+
+    /**
+     * Helper method to check if a task was read back from the archive as it was written. Both are compared as
+     * lines, the written task after a round trip through its line, since reading a line trims its fields.
+     * @param task, the archived task (Task)
+     * @param archived, the task with the same id read from the archive, or null (Task)
+     * @return true if the archived task has the same fields (boolean)
+     */
+    private static boolean isReadBack(Task task, Task archived) {
+        if (archived == null) return false;
+        Task written = TaskController.parseTask(TaskController.formatTask(task));
+        return written != null && TaskController.formatTask(written).equals(TaskController.formatTask(archived));
+    }
+
+    /**
+     * Helper method to get the ids of the tasks already archived in a month. The month is only read when one of
+     * the new tasks has an id that is not larger than the largest archived id, since ids only grow. The caller
+     * holds the lock.
+     * @param month, the month (YearMonth)
+     * @param entry, the month's entry of the index (MonthEntry)
+     * @param tasks, the tasks to archive in the month (List)
+     * @return the archived ids, a set the caller can add to (Set)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private Set<Integer> getArchivedIds(YearMonth month, MonthEntry entry, List<Task> tasks) throws IOException {
+        Set<Integer> ids = new HashSet<>();
+        if (tasks.stream().noneMatch(task -> task.getId() <= entry.maxId())) return ids;
+
+        Map<Integer, List<Task>> byUser = cachedMonths.get(month);
+        if (byUser == null) byUser = readMonth(month);
+        for (List<Task> userTasks : byUser.values()) {
+            for (Task task : userTasks) {
+                ids.add(task.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Moves completed quick tasks to the archive of the current month
+     * @param lines, the quick tasks as lines of quicktasks.csv (List)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    public void archiveQuickTasks(List<String> lines) throws IOException {
+        if (lines.isEmpty()) return;
+        lock.lock();
+        try {
+            append(segment("quicktasks", YearMonth.now()), lines);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the archived tasks of a user on a date, reading the month of the date if it is not in memory
+     * @param userId, the user's id (int)
+     * @param date, the date (LocalDate)
+     * @return the tasks on that date (List)
+     */
+    public List<Task> getTasksOn(int userId, LocalDate date) {
+        // The cutoff only moves forward, so every archived task is before it
+        if (!date.isBefore(getCutoff())) return List.of();
+        List<Task> onDate = new ArrayList<>();
+        for (Task task : getTasks(userId, YearMonth.from(date))) {
+            if (date.equals(Recurrence.parseDate(task.getEventDate()))) onDate.add(task);
+        }
+        return onDate;
+    }
+
+    /**
+     * Gets the archived tasks of a user in a month, reading the month if it is not in memory
+     * @param userId, the user's id (int)
+     * @param month, the month (YearMonth)
+     * @return the tasks (List)
+     */
+    public List<Task> getTasks(int userId, YearMonth month) {
+        lock.lock();
+        try {
+            ensureLoaded();
+            if (!months.containsKey(month)) return List.of();
+
+            Map<Integer, List<Task>> byUser = cachedMonths.get(month);
+            if (byUser == null) {
+                byUser = readMonth(month);
+                cachedMonths.put(month, byUser);
+                if (cachedMonths.size() > CACHED_MONTHS) {
+                    cachedMonths.remove(cachedMonths.keySet().iterator().next());
+                }
+            }
+            return byUser.getOrDefault(userId, List.of());
+        } catch (IOException e) {
+            System.err.println("Error reading archived tasks of " + month + ": " + e.getMessage());
+            return List.of();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads every archived task, e.g. to rebuild the statistics. It does not keep them in memory.
+     * @return the tasks (List)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    public List<Task> readAllTasks() throws IOException {
+        lock.lock();
+        try {
+            ensureLoaded();
+            List<Task> all = new ArrayList<>();
+            for (YearMonth month : months.keySet()) {
+                readMonth(month).values().forEach(all::addAll);
+            }
+            return all;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Helper method to read the tasks of a month by user. A task archived twice, e.g. when the application stopped
+     * before deleting it from tasks.dat, is read once. The caller holds the lock.
+     * @param month, the month (YearMonth)
+     * @return the tasks by user id (Map)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private Map<Integer, List<Task>> readMonth(YearMonth month) throws IOException {
+        long start = System.nanoTime();
+        File file = segment("tasks", month);
+        Map<Integer, Task> byId = new LinkedHashMap<>();
+        if (file.exists()) {
+            CsvReadEvent readEvent = new CsvReadEvent();
+            readEvent.begin();
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = CsvLine.readLine(br)) != null) {
+                    try {
+                        Task task = TaskController.parseTask(line);
+                        if (task != null) byId.put(task.getId(), task);
+                    } catch (NumberFormatException e) {
+                        System.err.println("Skipping archived task: " + line);
+                    }
+                }
+            }
+            readEvent.finish(file.getPath(), file.length(), byId.size());
+        }
+
+        Map<Integer, List<Task>> byUser = new LinkedHashMap<>();
+        for (Task task : byId.values()) {
+            byUser.computeIfAbsent(task.getUserId(), key -> new ArrayList<>()).add(task);
+        }
+        Metrics.record("archive.read", start);
+        return byUser;
+    }
+
+    /**
+     * Helper method to add lines to a gzip file as a new gzip member, which is read as part of the same file.
+     * The caller holds the lock.
+     * @param file, the file (File)
+     * @param lines, the lines (List)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private void append(File file, List<String> lines) throws IOException {
+        CsvWriteEvent writeEvent = new CsvWriteEvent();
+        writeEvent.begin();
+        long before = file.length();
+        file.getParentFile().mkdirs();
+        try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(file, true)), StandardCharsets.UTF_8))) {
+            for (String line : lines) {
+                bw.write(line);
+                bw.write("\n");
+            }
+        }
+        writeEvent.finish(file.getPath(), file.length() - before, lines.size());
+    }
+
+    /**
+     * Helper method to read the index the first time it is needed. The caller holds the lock.
+     */
+    private void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+
+        File file = new File(directory, "index.csv");
+        if (!file.exists()) return;
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line = br.readLine(); // Skip header
+
+            while ((line = br.readLine()) != null) {
+                String[] data = line.split(",");
+                if (data.length < 4) continue;
+                months.put(YearMonth.parse(data[0].trim()), new MonthEntry(Integer.parseInt(data[1].trim()),
+                        Long.parseLong(data[2].trim()), Integer.parseInt(data[3].trim())));
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading the archive index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Helper method to rewrite the index, through a temporary file so it is never half written.
+     * The caller holds the lock.
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private void saveIndex() throws IOException {
+        File file = new File(directory, "index.csv");
+        File temp = new File(directory, "index.csv.tmp");
+        file.getParentFile().mkdirs();
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(temp))) {
+            bw.write(INDEX_HEADER + "\n");
+            for (Map.Entry<YearMonth, MonthEntry> entry : months.entrySet()) {
+                MonthEntry month = entry.getValue();
+                bw.write(entry.getKey() + "," + month.tasks() + "," + month.checksum() + "," + month.maxId() + "\n");
+            }
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private File segment(String name, YearMonth month) {
+        return new File(directory, name + "-" + month + ".csv.gz");
+    }
+
+    /**
+     * Getters
+     */
+
+    public int getTaskCount() {
+        lock.lock();
+        try {
+            ensureLoaded();
+            return months.values().stream().mapToInt(MonthEntry::tasks).sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getTaskChecksum() {
+        lock.lock();
+        try {
+            ensureLoaded();
+            return months.values().stream().mapToLong(MonthEntry::checksum).sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxTaskId() {
+        lock.lock();
+        try {
+            ensureLoaded();
+            return months.values().stream().mapToInt(MonthEntry::maxId).max().orElse(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
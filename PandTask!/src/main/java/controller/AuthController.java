@@ -1,11 +1,18 @@
 package controller;
 
+import metrics.CsvReadEvent;
+import metrics.CsvWriteEvent;
+import metrics.Metrics;
 import model.Task;
 import model.User;
 
 import java.io.*;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * The AuthController class represents the controller for user authentication in the PandTaskApplication
@@ -25,19 +32,31 @@ public class AuthController {
     /// user current task
     private ArrayList<Task> currentTask = new ArrayList<>();
 
-    /// List that holds all user objects currently loaded into the application
-    private ArrayList<User> users = new ArrayList<>();
+    /// List that holds all user objects currently loaded into the application. Users are read far more often
+    /// than they sign up, so readers never wait for a lock
+    private final List<User> users = new CopyOnWriteArrayList<>();
+
+    /// Indexes over the loaded users for constant time log in and lookups
+    private final Map<Integer, User> usersById = new ConcurrentHashMap<>();
+    private final Map<String, User> usersByEmail = new ConcurrentHashMap<>();
+
+    /// Sign ups and user updates are done one at a time, so two users never get the same id or overwrite the file
+    private final ReentrantLock fileLock = new ReentrantLock();
     private ArrayList<AuthController> authUsers = new ArrayList<>();
 
     /// Define the file path once for use in multiple methods
     private static final String USERS_FILE_PATH = "data/users.csv";
 
+    /// The first user gets this id, user ids are reserved in blocks in data/ids/users
+    private static final int FIRST_USER_ID = 1001;
+    private final IdAllocator userIds = IdAllocator.forName("users");
+
     /// Retrieve the list of all users loaded by the controller
     public ArrayList<AuthController> getAuthUsers() {
         return authUsers;
     }
 
-    public ArrayList<User> getUsers() {
+    public List<User> getUsers() {
         return users;
     }
 
@@ -47,6 +66,10 @@ public class AuthController {
      * @throws IOException, throws exceptions related to file I/O
      */
     public void loadUsersFromCSV(String filename) throws IOException {
+        CsvReadEvent readEvent = new CsvReadEvent();
+        readEvent.begin();
+        int rows = 0;
+
         // Use the defined constant path or the passed filename if necessary
         try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
             // Read and discard the header line
@@ -54,6 +77,7 @@ public class AuthController {
             String line;
 
             while ((line = br.readLine()) != null) {
+                rows++;
                 // Using a regular expression to handle optional white spaces around the comma
                 String[] userItems = line.split("\\s*,\\s*");
 
@@ -71,11 +95,14 @@ public class AuthController {
 
                     User user = new User(id, username, email, password);
                     users.add(user);
+                    index(user);
+                    userIds.ensureAbove(id);
                 } catch (NumberFormatException e) {
                     System.err.println("Skipping user with invalid ID: " + line);
                 }
             }
         }
+        readEvent.finish(filename, new File(filename).length(), rows);
         System.out.println("Loaded " + users.size() + " users from CSV");
     }
 
@@ -89,31 +116,40 @@ public class AuthController {
      * @throws IOException, throws exceptions related to file I/O
      */
     public User singUp(String username, String email, String password) throws IOException {
-        // Check if email already exists
-        for (User user : users) {
-            if (user.getEmail().equals(email)) {
-                System.out.println("\nEmail already registered.");
-                return null;
-            }
+        fileLock.lock();
+        try {
+            return createUser(username, email, password);
+        } finally {
+            fileLock.unlock();
         }
+    }
 
-        int newId;
-        if (users.isEmpty()) {
-            // First user gets the starting ID
-            newId = 1001;
-        } else {
-            // Assumes the list is sorted by ID.
-            // Get the last user object: users.getLast(users.size() - 1)
-            int lastUserId = users.getLast().getId();
-            newId = lastUserId + 1;
-            id = newId;
+    /**
+     * Helper method to sign up a user while holding the file lock
+     * @param username, the new user's username (String)
+     * @param email, the user's email (String)
+     * @param password, the user's password (String)
+     * @return the user object created
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private User createUser(String username, String email, String password) throws IOException {
+        // Check if email already exists
+        if (usersByEmail.containsKey(email)) {
+            System.out.println("\nEmail already registered.");
+            return null;
         }
+
+        // Ids are never reused, even if the users file is not sorted or another process signs up users
+        userIds.ensureAbove(FIRST_USER_ID - 1);
+        int newId = Math.toIntExact(userIds.nextId());
+        id = newId;
         this.email = email;
         this.password = password;
         this.username = username;
 
         User newUser = new User(newId, username, email, password);
         users.add(newUser); // Add to in-memory list
+        index(newUser);
 
         // Append to the CSV file
         appendSignUpToCsv(newUser);
@@ -127,9 +163,13 @@ public class AuthController {
      * @throws IOException, throws exceptions related to file I/O
      */
     private void appendSignUpToCsv(User user) throws IOException {
+        CsvWriteEvent writeEvent = new CsvWriteEvent();
+        writeEvent.begin();
+        String line = "\n" + convertUserToLine(user);
         try (BufferedWriter bw = new BufferedWriter(new FileWriter(USERS_FILE_PATH, true))) {
-            bw.write( "\n" + convertUserToLine(user)  );
+            bw.write( line  );
         }
+        writeEvent.finish(USERS_FILE_PATH, line.length(), 1);
     }
 
     /**
@@ -138,6 +178,20 @@ public class AuthController {
      * @throws IOException, throws exceptions related to file I/O
      */
     public void appendUserToCsv(User updatedUser) throws IOException {
+        fileLock.lock();
+        try {
+            rewriteUsersCsv(updatedUser);
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    /**
+     * Helper method to replace the updated user in memory and overwrite the csv file while holding the file lock
+     * @param updatedUser, the updated user (User)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private void rewriteUsersCsv(User updatedUser) throws IOException {
         boolean userFound = false;
 
         StringBuilder sb = new StringBuilder();
@@ -160,7 +214,15 @@ public class AuthController {
             users.add(updatedUser);
         }
 
+        User previous = usersById.put(updatedUser.getId(), updatedUser);
+        if (previous != null) {
+            usersByEmail.remove(previous.getEmail(), previous);
+        }
+        usersByEmail.put(updatedUser.getEmail(), updatedUser);
+
         // OVERWRITE THE ENTIRE FILE WITH THE UPDATED LIST
+        CsvWriteEvent writeEvent = new CsvWriteEvent();
+        writeEvent.begin();
         try (BufferedWriter bw = new BufferedWriter(new FileWriter(USERS_FILE_PATH))) {
             bw.write(sb.toString());
             // Write ALL users from the (now updated) list to the file
@@ -174,6 +236,7 @@ public class AuthController {
                 i++;
             }
         }
+        writeEvent.finish(USERS_FILE_PATH, new File(USERS_FILE_PATH).length(), Math.max(0, users.size() - 1));
     }
 
     /**
@@ -192,8 +255,10 @@ public class AuthController {
      * @return the authenticated user (User)
      */
     public User login(String email, String password) {
-        for (User user : users) {
-            if (user.getEmail().equals(email) && user.getPassword().equals(password)) {
+        long start = System.nanoTime();
+        try {
+            User user = email == null ? null : usersByEmail.get(email);
+            if (user != null && user.getPassword().equals(password)) {
                 username = user.getUsername();
                 this.email = email;
                 id = user.getId();
@@ -201,9 +266,30 @@ public class AuthController {
                 System.out.println("\nLog in successful! Welcome " + user.getUsername());
                 return user;
             }
+            Metrics.counter("auth.login.failed").increment();
+            System.out.println("Invalid email or password.");
+            return null;
+        } finally {
+            Metrics.record("auth.login", start);
         }
-        System.out.println("Invalid email or password.");
-        return null;
+    }
+
+    /**
+     * Finds a loaded user by id
+     * @param id, the user's id (int)
+     * @return the user, or null if there is no user with that id (User)
+     */
+    public User findUserById(int id) {
+        return usersById.get(id);
+    }
+
+    /**
+     * Helper method to add a user to the id and email indexes. The first user loaded with an email keeps it.
+     * @param user, the user (User)
+     */
+    private void index(User user) {
+        usersById.put(user.getId(), user);
+        usersByEmail.putIfAbsent(user.getEmail(), user);
     }
 
     /**
@@ -0,0 +1,21 @@
+package controller;
+
+/**
+ * The ChangeEvent record represents a change made by a controller to one of the user's tasks, labels or
+ * quick tasks. Views and caches subscribe to the controllers' change events to update only what changed.
+ * @param kind, what happened to the entity (Kind)
+ * @param userId, the id of the user the entity belongs to (int)
+ * @param entity, the task, label or quick task as it is after the change (T)
+ * @param <T> the type of the entity
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public record ChangeEvent<T>(Kind kind, int userId, T entity) {
+
+    /**
+     * The kinds of change
+     */
+    public enum Kind { CREATED, UPDATED, DELETED }
+}
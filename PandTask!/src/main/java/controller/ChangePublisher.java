@@ -0,0 +1,28 @@
+package controller;
+
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * The ChangePublisher class delivers the change events of a controller to its subscribers.
+ * Each subscriber receives the events in the order they were published, on a thread of the common pool.
+ * Nothing is created when nobody is subscribed, e.g. in the console application.
+ * @param <T> the type of the changed entities
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class ChangePublisher<T> extends SubmissionPublisher<ChangeEvent<T>> {
+
+    /**
+     * Publishes a change. Waits if a subscriber has too many events it did not handle yet.
+     * @param kind, what happened to the entity (ChangeEvent.Kind)
+     * @param userId, the id of the user the entity belongs to (int)
+     * @param entity, the changed entity (T)
+     */
+    public void publish(ChangeEvent.Kind kind, int userId, T entity) {
+        if (hasSubscribers()) {
+            submit(new ChangeEvent<>(kind, userId, entity));
+        }
+    }
+}
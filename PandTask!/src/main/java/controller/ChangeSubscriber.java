@@ -0,0 +1,66 @@
+package controller;
+
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * The ChangeSubscriber class adapts a method that handles one change event to a Flow subscriber.
+ * It asks for every event and can be cancelled when the view or cache that created it is no longer used.
+ * @param <T> the type of the changed entities
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class ChangeSubscriber<T> implements Flow.Subscriber<ChangeEvent<T>> {
+
+    private final Consumer<ChangeEvent<T>> handler;
+    private volatile Flow.Subscription subscription;
+    private volatile boolean cancelled;
+
+    /**
+     * ChangeSubscriber constructor
+     * @param handler, the method called for each change event (Consumer)
+     */
+    public ChangeSubscriber(Consumer<ChangeEvent<T>> handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        if (cancelled) {
+            subscription.cancel();
+        } else {
+            subscription.request(Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public void onNext(ChangeEvent<T> event) {
+        if (cancelled) return;
+        try {
+            handler.accept(event);
+        } catch (RuntimeException e) {
+            System.err.println("Error handling " + event.kind() + " change: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        System.err.println("Change events stopped: " + throwable.getMessage());
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    /**
+     * Stops receiving change events
+     */
+    public void cancel() {
+        cancelled = true;
+        Flow.Subscription current = subscription;
+        if (current != null) current.cancel();
+    }
+}
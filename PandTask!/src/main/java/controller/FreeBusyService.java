@@ -0,0 +1,197 @@
+package controller;
+
+import metrics.Metrics;
+import model.Task;
+import model.TimeSlot;
+import model.User;
+import util.OccupancyBitmap;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The FreeBusyService class finds when a group of users, e.g. a study group, is busy and when they are all free.
+ * Every member's busy quarter hours are kept in a bitmap built from their task index, and the bitmaps of the
+ * members are built and combined in parallel, so the members' tasks are only read when their bitmap is not cached.
+ * A cached bitmap is used while the version of the member's tasks and of the changed dates is the same, and dropped
+ * when a change event of the member arrives. Every member keeps the bitmaps of their last few ranges, so views asking
+ * for different ranges, e.g. this week and this month, do not drop each other's bitmaps.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class FreeBusyService {
+
+    /// Queries cover at most a year
+    public static final int MAX_DAYS = 366;
+    /// Ranges cached per member, the least recently used one is dropped first
+    private static final int RANGES_PER_USER = 4;
+
+    /**
+     * How the members' times are combined
+     */
+    public enum Match {
+        /// Busy when any member is busy, free when everyone is free
+        ANY,
+        /// Busy only when every member is busy, free when someone is free
+        ALL
+    }
+
+    /**
+     * The dates of a cached bitmap
+     */
+    private record Range(LocalDate from, int days) {}
+
+    /**
+     * A member's busy bitmap, with the versions of their tasks and of the changed dates it was built from
+     */
+    private record CachedBitmap(long version, long overridesVersion, OccupancyBitmap busy) {}
+
+    private final TaskController taskController;
+    /// Bitmaps by user id and range, each user's ranges in access order and used while holding their map
+    private final Map<Integer, Map<Range, CachedBitmap>> bitmaps = new ConcurrentHashMap<>();
+    private final ChangeSubscriber<Task> taskChanges = new ChangeSubscriber<>(this::onTaskChanged);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * FreeBusyService constructor, see TaskController.getFreeBusyService()
+     * @param taskController, the controller whose tasks are read (TaskController)
+     */
+    FreeBusyService(TaskController taskController) {
+        this.taskController = taskController;
+        taskController.getChanges().subscribe(taskChanges);
+        Metrics.gauge("freebusy.hits", this::getHits);
+        Metrics.gauge("freebusy.misses", this::getMisses);
+    }
+
+    /**
+     * Finds the quarter hours of a range of dates when the group is busy
+     * @param users, the members (List)
+     * @param from, the first date (LocalDate)
+     * @param to, the last date, at most a year after the first one (LocalDate)
+     * @param match, ANY if the group is busy when a member is, ALL if only when every member is (Match)
+     * @return the busy quarter hours, day 0 is the first date (OccupancyBitmap)
+     * @throws IllegalArgumentException if the last date is before the first one or more than a year after it
+     */
+    public OccupancyBitmap getBusy(List<User> users, LocalDate from, LocalDate to, Match match) {
+        long start = System.nanoTime();
+        try {
+            int days = daysBetween(from, to);
+            if (users.isEmpty()) return new OccupancyBitmap(days);
+
+            return users.parallelStream()
+                    .distinct()
+                    .map(user -> bitmapOf(user, from, days))
+                    .reduce(match == Match.ANY ? OccupancyBitmap::or : OccupancyBitmap::and)
+                    .orElseThrow();
+        } finally {
+            Metrics.record("freebusy.busy", start);
+        }
+    }
+
+    /**
+     * Finds the earliest times between 8AM and 10PM when every member of the group is free for a given duration
+     * @param users, the members (List)
+     * @param from, the first date (LocalDate)
+     * @param to, the last date, at most a year after the first one (LocalDate)
+     * @param durationMinutes, the duration of the meeting (int)
+     * @param limit, the maximum number of free times (int)
+     * @return the free times, the earliest first (List)
+     */
+    public List<TimeSlot> findCommonFreeSlots(List<User> users, LocalDate from, LocalDate to, int durationMinutes, int limit) {
+        if (durationMinutes <= 0 || limit <= 0) return List.of();
+        OccupancyBitmap busy = getBusy(users, from, to, Match.ANY);
+        return TaskController.findFreeSlots(busy, from, durationMinutes, limit);
+    }
+
+    /**
+     * Lists the busy times of every day of a bitmap, joining the quarter hours that follow each other
+     * @param busy, the busy quarter hours (OccupancyBitmap)
+     * @param from, the date of the first day of the bitmap (LocalDate)
+     * @return the busy times, in order (List)
+     */
+    public static List<TimeSlot> toTimeSlots(OccupancyBitmap busy, LocalDate from) {
+        List<TimeSlot> times = new ArrayList<>();
+        for (int day = 0; day < busy.getDays(); day++) {
+            int slot = busy.next(day, 0, true);
+            while (slot < OccupancyBitmap.SLOTS_PER_DAY) {
+                int end = busy.next(day, slot, false);
+                times.add(new TimeSlot(from.plusDays(day),
+                        slot * OccupancyBitmap.SLOT_MINUTES, end * OccupancyBitmap.SLOT_MINUTES));
+                slot = busy.next(day, end, true);
+            }
+        }
+        return times;
+    }
+
+    /**
+     * Helper method to get a member's busy bitmap of a range from the cache, building it if their tasks changed
+     * since. The versions are read before building, so a change made while building leaves an older version in the
+     * cache and the next query builds the bitmap again. A member's bitmaps are built one at a time.
+     * @param user, the member (User)
+     * @param from, the first date (LocalDate)
+     * @param days, the number of days (int)
+     * @return the bitmap, shared with the cache and never changed (OccupancyBitmap)
+     */
+    private OccupancyBitmap bitmapOf(User user, LocalDate from, int days) {
+        long version = taskController.getTasksVersion(user);
+        long overridesVersion = taskController.getOverridesVersion();
+        Map<Range, CachedBitmap> ranges = bitmaps.computeIfAbsent(user.getId(),
+                id -> new LinkedHashMap<>(RANGES_PER_USER * 2, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Range, CachedBitmap> eldest) {
+                        return size() > RANGES_PER_USER;
+                    }
+                });
+        Range range = new Range(from, days);
+        synchronized (ranges) {
+            CachedBitmap cached = ranges.get(range);
+            if (cached != null && cached.version() == version && cached.overridesVersion() == overridesVersion) {
+                hits.increment();
+                return cached.busy();
+            }
+            misses.increment();
+
+            OccupancyBitmap busy = taskController.getBusyBitmap(user, from, days);
+            ranges.put(range, new CachedBitmap(version, overridesVersion, busy));
+            return busy;
+        }
+    }
+
+    /**
+     * Helper method to drop the cached bitmaps of a user whose tasks changed
+     * @param event, the change (ChangeEvent)
+     */
+    private void onTaskChanged(ChangeEvent<Task> event) {
+        bitmaps.remove(event.userId());
+    }
+
+    private static int daysBetween(LocalDate from, LocalDate to) {
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days <= 0 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("The range must be 1 to " + MAX_DAYS + " days: " + from + " to " + to);
+        }
+        return (int) days;
+    }
+
+    /**
+     * Getters
+     */
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
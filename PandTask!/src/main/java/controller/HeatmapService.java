@@ -0,0 +1,263 @@
+package controller;
+
+import metrics.Metrics;
+import model.Occurrence;
+import model.OccurrenceOverride;
+import model.Task;
+import model.TaskSnapshot;
+import model.User;
+import model.YearHeatmap;
+import util.Recurrence;
+import util.TimeParser;
+
+import java.io.Serial;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The HeatmapService class finds how busy a user is on every day of a year, for the year heatmap.
+ * Instead of checking every task on every day, each task jumps from one repetition to the next, and the user's tasks
+ * are split in parts counted in parallel on the common ForkJoinPool, each part into its own array of minutes by day
+ * of the year that are then added together. A heatmap is cached by user and year while the version of the user's
+ * tasks, of the changed dates and of the archive are the same. The past one-off tasks are counted from the archive.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class HeatmapService {
+
+    /// Parts with fewer tasks are counted without splitting them again
+    private static final int TASKS_PER_PART = 64;
+
+    /**
+     * The cache key of a heatmap
+     */
+    private record Key(int userId, int year) {}
+
+    /**
+     * A heatmap with the versions of the tasks, of the changed dates and of the archive it was counted from
+     */
+    private record CachedHeatmap(long tasksVersion, long overridesVersion, long archiveVersion, YearHeatmap heatmap) {}
+
+    private final TaskController taskController;
+    private final Map<Key, CachedHeatmap> heatmaps = new ConcurrentHashMap<>();
+    private final ChangeSubscriber<Task> taskChanges = new ChangeSubscriber<>(this::onTaskChanged);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * HeatmapService constructor, see TaskController.getHeatmapService()
+     * @param taskController, the controller whose tasks are read (TaskController)
+     */
+    HeatmapService(TaskController taskController) {
+        this.taskController = taskController;
+        taskController.getChanges().subscribe(taskChanges);
+        Metrics.gauge("heatmap.hits", this::getHits);
+        Metrics.gauge("heatmap.misses", this::getMisses);
+    }
+
+    /**
+     * Gets the minutes of tasks of the user on every day of a year, from the cache if nothing changed since
+     * @param user, the user (User)
+     * @param year, the year (int)
+     * @return the heatmap (YearHeatmap)
+     */
+    public YearHeatmap getHeatmap(User user, int year) {
+        long start = System.nanoTime();
+        try {
+            // The versions are read before counting, so a change made while counting leaves an older version in
+            // the cache and the next call counts again
+            TaskSnapshot snapshot = user.getTaskSnapshot();
+            long overridesVersion = taskController.getOverridesVersion();
+            long archiveVersion = taskController.getArchive().getVersion();
+            Key key = new Key(user.getId(), year);
+
+            CachedHeatmap cached = heatmaps.get(key);
+            if (cached != null && cached.tasksVersion() == snapshot.version()
+                    && cached.overridesVersion() == overridesVersion && cached.archiveVersion() == archiveVersion) {
+                hits.increment();
+                return cached.heatmap();
+            }
+            misses.increment();
+
+            YearHeatmap heatmap = count(user, snapshot.tasks(), year);
+            heatmaps.put(key, new CachedHeatmap(snapshot.version(), overridesVersion, archiveVersion, heatmap));
+            return heatmap;
+        } finally {
+            Metrics.record("heatmap.get", start);
+        }
+    }
+
+    /**
+     * Helper method to count the minutes of tasks of every day of a year
+     * @param user, the user (User)
+     * @param tasks, the user's tasks (List)
+     * @param year, the year (int)
+     * @return the heatmap (YearHeatmap)
+     */
+    private YearHeatmap count(User user, List<Task> tasks, int year) {
+        int[] busyMinutes = ForkJoinPool.commonPool().invoke(new CountTask(tasks, 0, tasks.size(), year));
+
+        // The past one-off tasks are in the archive, read a month at a time
+        Archiver archive = taskController.getArchive();
+        for (YearMonth month = YearMonth.of(year, 1); month.getYear() == year
+                && month.atDay(1).isBefore(Archiver.getCutoff()); month = month.plusMonths(1)) {
+            for (Task task : archive.getTasks(user.getId(), month)) {
+                LocalDate date = Recurrence.parseDate(task.getEventDate());
+                if (date != null) busyMinutes[date.getDayOfYear() - 1] += durationOf(task);
+            }
+        }
+
+        // The occurrences moved from another date are counted on their new date
+        LocalDate date = LocalDate.of(year, 1, 1);
+        for (int day = 0; day < busyMinutes.length; day++, date = date.plusDays(1)) {
+            for (Occurrence occurrence : taskController.getMovedOccurrences(user, date)) {
+                busyMinutes[day] += durationOf(occurrence.task());
+            }
+        }
+
+        int maxMinutes = 0;
+        for (int minutes : busyMinutes) {
+            maxMinutes = Math.max(maxMinutes, minutes);
+        }
+        return new YearHeatmap(year, busyMinutes, maxMinutes);
+    }
+
+    /**
+     * The ForkJoin task that counts the minutes of a part of the tasks, splitting it in two while it is large
+     */
+    private final class CountTask extends RecursiveTask<int[]> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        /// ForkJoin tasks are never serialized, the tasks are only read while the year is counted
+        private final transient List<Task> tasks;
+        private final int from;
+        private final int to;
+        private final int year;
+
+        CountTask(List<Task> tasks, int from, int to, int year) {
+            this.tasks = tasks;
+            this.from = from;
+            this.to = to;
+            this.year = year;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= TASKS_PER_PART) {
+                int[] busyMinutes = new int[Year.of(year).length()];
+                for (int i = from; i < to; i++) {
+                    addTask(tasks.get(i), year, busyMinutes);
+                }
+                return busyMinutes;
+            }
+
+            int middle = (from + to) >>> 1;
+            CountTask left = new CountTask(tasks, from, middle, year);
+            left.fork();
+            int[] busyMinutes = new CountTask(tasks, middle, to, year).compute();
+            int[] leftMinutes = left.join();
+            for (int day = 0; day < busyMinutes.length; day++) {
+                busyMinutes[day] += leftMinutes[day];
+            }
+            return busyMinutes;
+        }
+    }
+
+    /**
+     * Helper method to add the minutes of every repetition of a task in a year. Daily and weekly tasks step by day of
+     * the year; the other rules jump to their next date. Skipped and moved dates are left out and the dates with
+     * other hours count those hours.
+     * @param task, the task (Task)
+     * @param year, the year (int)
+     * @param busyMinutes, the minutes by day of the year (int[])
+     */
+    private void addTask(Task task, int year, int[] busyMinutes) {
+        LocalDate startDate = Recurrence.parseDate(task.getEventDate());
+        int minutes = durationOf(task);
+        if (startDate == null || minutes <= 0 || startDate.getYear() > year) return;
+
+        LocalDate date = Recurrence.nextOccurrence(task.getRepeat(), startDate, LocalDate.of(year, 1, 1));
+        if (date == null || date.getYear() != year) return;
+
+        boolean checkOverrides = taskController.hasOverrides();
+        String repeat = task.getRepeat() != null ? task.getRepeat().toLowerCase() : "none";
+        int step = switch (repeat) {
+            case "daily" -> 1;
+            case "weekly" -> 7;
+            default -> 0;
+        };
+
+        if (step > 0) {
+            for (int day = date.getDayOfYear() - 1; day < busyMinutes.length; day += step) {
+                busyMinutes[day] += checkOverrides ? minutesOn(task, LocalDate.ofYearDay(year, day + 1), minutes) : minutes;
+            }
+            return;
+        }
+
+        while (date != null && date.getYear() == year) {
+            busyMinutes[date.getDayOfYear() - 1] += checkOverrides ? minutesOn(task, date, minutes) : minutes;
+            if (repeat.equals("monthly") || repeat.equals("yearly")) {
+                date = Recurrence.nextOccurrence(task.getRepeat(), startDate, date.plusDays(1));
+            } else {
+                date = null;
+            }
+        }
+    }
+
+    /**
+     * Helper method to get the minutes of a task on one of its dates, after the date's override
+     * @param task, the task (Task)
+     * @param date, a date the task happens on (LocalDate)
+     * @param minutes, the minutes of the task (int)
+     * @return the minutes on that date, 0 if it is skipped or moved to another date (int)
+     */
+    private int minutesOn(Task task, LocalDate date, int minutes) {
+        OccurrenceOverride override = taskController.getOverride(task.getId(), date);
+        if (override == null) return minutes;
+        if (override.isSkipped() || override.isMoved()) return 0;
+        return durationOf(override.apply(task));
+    }
+
+    /**
+     * Helper method to get the minutes a task lasts
+     * @param task, the task (Task)
+     * @return the minutes, 0 if an hour is not valid (int)
+     */
+    private static int durationOf(Task task) {
+        int start = TaskController.getStartMinute(task);
+        int end = TaskController.getEndMinute(task);
+        if (start == TimeParser.INVALID || end == TimeParser.INVALID) return 0;
+        return Math.max(0, end - start);
+    }
+
+    /**
+     * Helper method to drop the cached heatmaps of a user whose tasks changed
+     * @param event, the change (ChangeEvent)
+     */
+    private void onTaskChanged(ChangeEvent<Task> event) {
+        heatmaps.keySet().removeIf(key -> key.userId() == event.userId());
+    }
+
+    /**
+     * Getters
+     */
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,147 @@
+package controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The IdAllocator class hands out unique ids for users, tasks and quick tasks.
+ * It reserves a block of ids at a time by writing the end of the block to a small file under data/ids, then hands
+ * out the ids of the block from memory. The file is locked while a block is reserved, so several processes never
+ * get the same ids, and after a crash the ids of an unfinished block are skipped instead of reused.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class IdAllocator {
+
+    private static final String IDS_DIRECTORY = "data/ids";
+    private static final int DEFAULT_BLOCK_SIZE = 64;
+    /// Digits of the value in the file, enough for any long
+    private static final int VALUE_WIDTH = 19;
+
+    /// One allocator per file in this process, a file can only be locked once per process
+    private static final Map<String, IdAllocator> allocators = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final int blockSize;
+
+    /// The next id to hand out and the end (exclusive) of the reserved block
+    private final AtomicLong next = new AtomicLong(1);
+    private volatile long limit = 0;
+
+    private final ReentrantLock reserveLock = new ReentrantLock();
+
+    /**
+     * IdAllocator constructor
+     * @param file, the file that keeps the end of the last reserved block (Path)
+     * @param blockSize, the number of ids reserved with each write (int)
+     */
+    public IdAllocator(Path file, int blockSize) {
+        if (blockSize < 1) throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        this.file = file;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Gets the allocator of a kind of id, stored in data/ids/name
+     * @param name, the kind of id, e.g. "tasks" (String)
+     * @return the allocator (IdAllocator)
+     */
+    public static IdAllocator forName(String name) {
+        return allocators.computeIfAbsent(name,
+                key -> new IdAllocator(Path.of(IDS_DIRECTORY, key), DEFAULT_BLOCK_SIZE));
+    }
+
+    /**
+     * Gets a new id. Only the first id of each block writes to the file.
+     * @return the id (long)
+     * @throws UncheckedIOException if a new block cannot be reserved
+     */
+    public long nextId() {
+        while (true) {
+            long id = next.get();
+            if (id < limit) {
+                if (next.compareAndSet(id, id + 1)) return id;
+            } else {
+                reserve();
+            }
+        }
+    }
+
+    /**
+     * Makes sure the ids handed out from now on are greater than an id that already exists, e.g. one read from
+     * a csv file written before the allocator was used
+     * @param existingId, the existing id (long)
+     */
+    public void ensureAbove(long existingId) {
+        reserveLock.lock();
+        try {
+            next.accumulateAndGet(existingId + 1, Math::max);
+        } finally {
+            reserveLock.unlock();
+        }
+    }
+
+    /**
+     * Helper method to reserve the next block of ids. The block starts after every block reserved before, by this
+     * or another process, and after every id already handed out here.
+     */
+    private void reserve() {
+        reserveLock.lock();
+        try {
+            if (next.get() < limit) return; // another thread reserved it
+
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // Held until the channel is closed
+                channel.lock();
+                long start = Math.max(readReserved(channel), next.get());
+                long end = start + blockSize;
+
+                // Written over the old value with the same width and without truncating, so a crash never leaves
+                // the file empty. The value only grows, so a write cut short reads as the old value or a larger one.
+                byte[] bytes = String.format("%0" + VALUE_WIDTH + "d\n", end).getBytes(StandardCharsets.US_ASCII);
+                channel.write(ByteBuffer.wrap(bytes), 0);
+                channel.force(true);
+
+                // next is moved before limit, so no thread takes an id of the old block as one of the new block
+                next.set(start);
+                limit = end;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to reserve ids in " + file, e);
+        } finally {
+            reserveLock.unlock();
+        }
+    }
+
+    /**
+     * Helper method to read the end of the last reserved block
+     * @param channel, the open id file (FileChannel)
+     * @return the end of the block, 0 if nothing was reserved yet (long)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private long readReserved(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        channel.read(buffer, 0);
+        String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII).trim();
+        if (text.isEmpty()) return 0;
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid id file " + file + ": " + text, e);
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package controller;
 
+import metrics.CsvReadEvent;
+import metrics.CsvWriteEvent;
+import metrics.Metrics;
 import model.Label;
 import model.User;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * The LabelController class represents the controller for the user's labels in the PandTaskApplication
@@ -14,35 +20,112 @@ import java.util.ArrayList;
  * @author Francisco Espinoza
  */
 public class LabelController {
-    private ArrayList<User> users;
-    private ArrayList<Label> labels;
+    private List<User> users;
     private final String FILE_PATH = "data/labels.csv";
 
+    /// Labels of the active users, so several users can be served at the same time without reading the file
+    private final SessionCache sessions;
+
+    /// The user whose labels getLabels() returns, the last one loaded
+    private volatile User currentUser;
+
+    /// labels.csv is read and appended by one thread at a time
+    private final ReentrantLock fileLock = new ReentrantLock();
+
+    /// Added labels, for the views that update only what changed
+    private final ChangePublisher<Label> changes = new ChangePublisher<>();
+
     public LabelController() {
-        this.labels = new ArrayList<>();
+        this(SessionCache.shared());
+    }
+
+    /**
+     * LabelController constructor
+     * @param sessions, the cache that keeps the labels of the active users (SessionCache)
+     */
+    public LabelController(SessionCache sessions) {
         this.users = new ArrayList<>();
+        this.sessions = sessions;
     }
-    public void setUsers(ArrayList<User> users) {
+    public void setUsers(List<User> users) {
         this.users = users;
     }
 
-    public ArrayList<Label> getLabels() {
-        return labels;
+    /**
+     * Gets the publisher of the label changes
+     * @return the publisher (Flow.Publisher)
+     */
+    public Flow.Publisher<ChangeEvent<Label>> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Gets the labels of the last user loaded
+     * @return the labels (List)
+     */
+    public List<Label> getLabels() {
+        User user = currentUser;
+        return user == null ? List.of() : getLabels(user);
+    }
+
+    /**
+     * Gets the labels of a user, from the session cache or from the file when the user is not cached
+     * @param user, the user (User)
+     * @return the labels (List)
+     */
+    public List<Label> getLabels(User user) {
+        return sessions.getLabels(user, this::readLabels);
     }
 
-    ///  Load labels from CSV and remember the path for saving later.
+    ///  Load the user's labels, from CSV only if they are not cached, and remember the user for getLabels().
     public void loadLabelsFromUser(User currentUser) throws IOException {
-        labels.clear();
+        long start = System.nanoTime();
+        try {
+            this.currentUser = currentUser;
+            getLabels(currentUser);
+        } finally {
+            Metrics.record("labels.load", start);
+        }
+    }
 
+    /**
+     * Helper method to read the labels of a user from the file
+     * @param currentUser, the current user (User)
+     * @return the labels (List)
+     */
+    private List<Label> readLabels(User currentUser) {
+        List<Label> labels = new ArrayList<>();
+        fileLock.lock();
+        try {
+            readLabels(currentUser, labels);
+        } catch (IOException e) {
+            System.err.println("Error loading labels: " + e.getMessage());
+        } finally {
+            fileLock.unlock();
+        }
+        return labels;
+    }
+
+    /**
+     * Helper method to read the labels of a user while holding the file lock
+     * @param currentUser, the current user (User)
+     * @param labels, the list to fill (List)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private void readLabels(User currentUser, List<Label> labels) throws IOException {
         File file = new File(FILE_PATH);
         if (!file.exists()) {
             createDefaultLabelsFile(currentUser);
             return;
         }
+        CsvReadEvent readEvent = new CsvReadEvent();
+        readEvent.begin();
+        int rows = 0;
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line = br.readLine(); // Skip header
 
             while ((line = br.readLine()) != null) {
+                rows++;
                 String[] data = line.split(",");
                 if (data.length >= 3) {
                     try{
@@ -57,6 +140,7 @@ public class LabelController {
                     }
                 }
             }
+            readEvent.finish(FILE_PATH, file.length(), rows);
             System.out.println("Loaded " + labels.size() + " labels from user " +  currentUser.getUsername());
 
             if(labels.isEmpty()){
@@ -73,21 +157,34 @@ public class LabelController {
      * @param labelName, the label's name (String)
      * @param color, the label's color (String)
      * @throws IOException, throws exceptions related to file I/O
+     * @throws IllegalArgumentException, if the name has a comma or a semicolon, which separate the names in the files
      */
     public void addLabel(User currentUser, String labelName, String color) throws IOException {
+        if (labelName.contains(",") || labelName.contains(TaskController.LABEL_SEPARATOR)) {
+            throw new IllegalArgumentException("Label names cannot contain commas or semicolons.");
+        }
         Label newlabel = new Label(currentUser.getId(),labelName, color);
-        labels.add(newlabel);
+        getLabels(currentUser).add(newlabel);
+        sessions.updated(currentUser.getId());
 
+        String line = String.format("%d,%s,%s\n",
+                newlabel.getUserId(),
+                newlabel.getName(),
+                newlabel.getColor()
+        );
+        CsvWriteEvent writeEvent = new CsvWriteEvent();
+        fileLock.lock();
+        writeEvent.begin();
         try (BufferedWriter bw = new BufferedWriter(new FileWriter(FILE_PATH, true))) {
-            bw.write(String.format("%d,%s,%s\n",
-                    newlabel.getUserId(),
-                    newlabel.getName(),
-                    newlabel.getColor()
-            ));
+            bw.write(line);
+            writeEvent.finish(FILE_PATH, line.length(), 1);
             System.out.println("Label saved to CSV " + labelName);
         } catch (IOException e) {
             System.err.println("Error saving label " + e.getMessage());
+        } finally {
+            fileLock.unlock();
         }
+        changes.publish(ChangeEvent.Kind.CREATED, currentUser.getId(), newlabel);
     }
 
     /**
@@ -0,0 +1,344 @@
+package controller;
+
+import metrics.CsvReadEvent;
+import metrics.CsvWriteEvent;
+import model.OccurrenceOverride;
+import util.CsvLine;
+import util.Recurrence;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The OccurrenceOverrides class keeps the skipped, moved and renamed dates of the repeating tasks, saved in
+ * data/overrides.csv. Only the changed dates are stored, in a hash table keyed by the task id and the date packed in a
+ * long, so the calendar checks a date of a task with one lookup. The moved occurrences are also kept by the date they
+ * are moved to. Reads need no lock; changes and the file are done one at a time.
+ * Every change is appended to the file as one line: an override, or a task id without a date when all the overrides
+ * of a task are removed. The lines are replayed in order when the file is loaded, and a last line cut off by a crash is
+ * left out. Once the file has many more lines than overrides, it is rewritten through a temporary file that is moved
+ * over it, so it is never half written.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class OccurrenceOverrides {
+
+    private static final String HEADER = "taskId,date,newDate,title,startHour,endHour";
+    /// The file is rewritten when it has more lines than this many per override, plus COMPACT_MIN_LINES
+    private static final int COMPACT_RATIO = 2;
+    private static final int COMPACT_MIN_LINES = 100;
+
+    private final String filePath;
+
+    /// Overrides by (taskId, date), see key()
+    private final Map<Long, OccurrenceOverride> overrides = new ConcurrentHashMap<>();
+    /// Moved occurrences by the day since the epoch they are moved to
+    private final Map<Long, List<OccurrenceOverride>> movedTo = new ConcurrentHashMap<>();
+    /// Moved occurrences by task id, e.g. to find the next reminder of a task
+    private final Map<Integer, List<OccurrenceOverride>> movedByTask = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /// Changes every time an override is loaded, added or removed
+    private volatile long version;
+    /// Lines of the file after the header, written with the lock held
+    private int lines;
+
+    /**
+     * OccurrenceOverrides constructor
+     * @param filePath, the overrides file (String)
+     */
+    public OccurrenceOverrides(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Loads the overrides from the file, replacing the loaded ones. A missing file means there are none.
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    public void load() throws IOException {
+        lock.lock();
+        try {
+            overrides.clear();
+            movedTo.clear();
+            movedByTask.clear();
+            lines = 0;
+            version++;
+
+            File file = new File(filePath);
+            if (!file.exists()) return;
+
+            CsvReadEvent readEvent = new CsvReadEvent();
+            readEvent.begin();
+            List<String> records = new ArrayList<>();
+            try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+                String line = br.readLine(); // Skip header
+
+                while ((line = CsvLine.readLine(br)) != null) {
+                    records.add(line);
+                }
+            }
+            // Every line ends with a line break and has 6 fields, so a last line without them was cut off while it
+            // was appended, e.g. inside a quoted title
+            boolean cutOff = !records.isEmpty() && (!endsWithLineBreak(file)
+                    || CsvLine.split(records.get(records.size() - 1)).length < 6);
+            if (cutOff) records.remove(records.size() - 1);
+
+            for (String line : records) {
+                String[] data = CsvLine.split(line);
+                if (data.length < 6) continue;
+                try {
+                    int taskId = Integer.parseInt(data[0].trim());
+                    if (data[1].isBlank()) {
+                        removeAll(taskId);
+                        continue;
+                    }
+                    LocalDate date = Recurrence.parseDate(data[1]);
+                    if (date == null) continue;
+                    remove(taskId, date);
+                    add(new OccurrenceOverride(taskId, date, Recurrence.parseDate(data[2]), emptyToNull(data[3]),
+                            emptyToNull(data[4]), emptyToNull(data[5])));
+                } catch (NumberFormatException e) {
+                    System.err.println("Skipping occurrence override: " + line);
+                }
+            }
+            lines = records.size();
+            readEvent.finish(filePath, file.length(), records.size());
+            System.out.println("Loaded " + overrides.size() + " occurrence overrides from CSV");
+
+            if (cutOff || needsCompaction()) compact();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the override of one date of a task
+     * @param taskId, the task's id (int)
+     * @param date, the date (LocalDate)
+     * @return the override, or null if that date is not changed (OccurrenceOverride)
+     */
+    public OccurrenceOverride get(int taskId, LocalDate date) {
+        return overrides.isEmpty() ? null : overrides.get(key(taskId, date));
+    }
+
+    /**
+     * Gets the occurrences moved to a date from another date
+     * @param date, the date (LocalDate)
+     * @return the overrides of the moved occurrences (List)
+     */
+    public List<OccurrenceOverride> getMovedTo(LocalDate date) {
+        if (movedTo.isEmpty()) return List.of();
+        return movedTo.getOrDefault(date.toEpochDay(), List.of());
+    }
+
+    /**
+     * Gets the occurrences of a task moved from one of its dates to another date
+     * @param taskId, the task's id (int)
+     * @return the overrides of the moved occurrences (List)
+     */
+    public List<OccurrenceOverride> getMoved(int taskId) {
+        if (movedByTask.isEmpty()) return List.of();
+        return movedByTask.getOrDefault(taskId, List.of());
+    }
+
+    /**
+     * Adds or replaces the override of a date and saves the file
+     * @param override, the override (OccurrenceOverride)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    public void put(OccurrenceOverride override) throws IOException {
+        lock.lock();
+        try {
+            remove(override.taskId(), override.date());
+            add(override);
+            version++;
+            append(CsvLine.join(override.taskId(), override.date(), override.newDate(), override.title(),
+                    override.startHour(), override.endHour()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes every override of a task, e.g. when the task is deleted, and saves the file if there was one
+     * @param taskId, the task's id (int)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    public void removeTask(int taskId) throws IOException {
+        lock.lock();
+        try {
+            if (!removeAll(taskId)) return;
+            version++;
+            append(CsvLine.join(taskId, "", "", "", "", ""));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of overrides
+     * @return the number of overrides (int)
+     */
+    public int size() {
+        return overrides.size();
+    }
+
+    /**
+     * Gets the version of the overrides, which changes every time one of them is loaded, added or removed
+     * @return the version (long)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Helper method to add an override to the tables. The caller holds the lock.
+     * @param override, the override (OccurrenceOverride)
+     */
+    private void add(OccurrenceOverride override) {
+        overrides.put(key(override.taskId(), override.date()), override);
+        if (override.isMoved()) {
+            movedTo.computeIfAbsent(override.newDate().toEpochDay(), day -> new CopyOnWriteArrayList<>()).add(override);
+            movedByTask.computeIfAbsent(override.taskId(), id -> new CopyOnWriteArrayList<>()).add(override);
+        }
+    }
+
+    /**
+     * Helper method to remove every override of a task from the tables. The caller holds the lock.
+     * @param taskId, the task's id (int)
+     * @return true if the task had overrides (boolean)
+     */
+    private boolean removeAll(int taskId) {
+        List<OccurrenceOverride> removed = new ArrayList<>();
+        for (OccurrenceOverride override : overrides.values()) {
+            if (override.taskId() == taskId) removed.add(override);
+        }
+        for (OccurrenceOverride override : removed) {
+            remove(override.taskId(), override.date());
+        }
+        return !removed.isEmpty();
+    }
+
+    /**
+     * Helper method to remove the override of a date from the tables. The caller holds the lock.
+     * @param taskId, the task's id (int)
+     * @param date, the date (LocalDate)
+     */
+    private void remove(int taskId, LocalDate date) {
+        OccurrenceOverride old = overrides.remove(key(taskId, date));
+        if (old != null && old.isMoved()) {
+            List<OccurrenceOverride> moved = movedTo.get(old.newDate().toEpochDay());
+            if (moved != null) {
+                moved.remove(old);
+                if (moved.isEmpty()) movedTo.remove(old.newDate().toEpochDay());
+            }
+            List<OccurrenceOverride> ofTask = movedByTask.get(taskId);
+            if (ofTask != null) {
+                ofTask.remove(old);
+                if (ofTask.isEmpty()) movedByTask.remove(taskId);
+            }
+        }
+    }
+
+    /**
+     * Helper method to append a change to the overrides file, rewriting the file instead when it has grown too long.
+     * The caller holds the lock.
+     * @param line, the change (String)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private void append(String line) throws IOException {
+        lines++;
+        if (needsCompaction()) {
+            compact();
+            return;
+        }
+
+        File file = new File(filePath);
+        if (!file.exists()) {
+            compact();
+            return;
+        }
+        CsvWriteEvent writeEvent = new CsvWriteEvent();
+        writeEvent.begin();
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(file, true))) {
+            bw.write(line + "\n");
+        }
+        writeEvent.finish(filePath, line.length() + 1, 1);
+    }
+
+    /**
+     * Helper method to check if the file has many more lines than overrides. The caller holds the lock.
+     * @return true if the file should be rewritten (boolean)
+     */
+    private boolean needsCompaction() {
+        return lines > overrides.size() * COMPACT_RATIO + COMPACT_MIN_LINES;
+    }
+
+    /**
+     * Helper method to rewrite the overrides file with one line per override, through a temporary file so it is
+     * never half written. The caller holds the lock.
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private void compact() throws IOException {
+        CsvWriteEvent writeEvent = new CsvWriteEvent();
+        writeEvent.begin();
+        File file = new File(filePath);
+        File temp = new File(filePath + ".tmp");
+        if (file.getParentFile() != null) file.getParentFile().mkdirs();
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(temp))) {
+            bw.write(HEADER + "\n");
+            for (OccurrenceOverride override : overrides.values()) {
+                bw.write(CsvLine.join(override.taskId(), override.date(), override.newDate(), override.title(),
+                        override.startHour(), override.endHour()) + "\n");
+            }
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        lines = overrides.size();
+        writeEvent.finish(filePath, file.length(), overrides.size());
+    }
+
+    /**
+     * Helper method to check if a file ends with a line break
+     * @param file, the file (File)
+     * @return true if the last byte is a line break (boolean)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private static boolean endsWithLineBreak(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.length() == 0) return false;
+            raf.seek(raf.length() - 1);
+            return raf.read() == '\n';
+        }
+    }
+
+    /**
+     * Helper method to pack a task id and a date in one key
+     * @param taskId, the task's id (int)
+     * @param date, the date (LocalDate)
+     * @return the task id in the high 32 bits and the day since the epoch in the low 32 bits (long)
+     */
+    private static long key(int taskId, LocalDate date) {
+        return ((long) taskId << 32) | (date.toEpochDay() & 0xFFFFFFFFL);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+}
@@ -1,10 +1,20 @@
 package controller;
 
+import metrics.CsvReadEvent;
+import metrics.Metrics;
 import model.QuickTask;
 import model.User;
+import util.CsvLine;
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * The QuickTaskController class represents the controller for the user's quick tasks in the PandTaskApplication
@@ -16,63 +26,245 @@ import java.util.List;
 public class QuickTaskController {
 
     private String filePath = "data/quicktasks.csv";
-    private int nextId = 1;
+    private String storeFilePath = "data/quicktasks.dat";
+    private String heapFilePath = "data/quicktasks.heap";
+    /// Quick task ids are reserved in blocks in data/ids/quicktasks, so two processes never create the same id
+    private final IdAllocator quickTaskIds = IdAllocator.forName("quicktasks");
+
+    /// The active quick tasks, one slot per quick task, so completing one writes only its slot.
+    /// quicktasks.csv is only read when there is no quicktasks.dat yet.
+    private RecordStore<QuickTask> store;
+    /// Ids of the quick tasks in the record file by user id, built when the file is opened, so a user's quick tasks
+    /// are read from their slots without decoding the other users' ones. Guarded by the file lock.
+    private final Map<Integer, Set<Integer>> idsByUser = new HashMap<>();
+    /// The record file is opened, and a quick task completed, by one thread at a time
+    private final ReentrantLock fileLock = new ReentrantLock();
+
+    /// The fields of a quick task in its slot: the user's id, the title and the status
+    static final RecordStore.Codec<QuickTask> QUICK_TASK_CODEC = new RecordStore.Codec<>() {
+        @Override
+        public int fieldsSize() {
+            return 4 + RecordStore.TEXT_SIZE + 1;
+        }
+
+        @Override
+        public int idOf(QuickTask quickTask) {
+            return quickTask.getId();
+        }
+
+        @Override
+        public void write(QuickTask quickTask, RecordStore.Slot slot) throws IOException {
+            slot.putInt(quickTask.getUserId());
+            slot.putText(quickTask.getTitle());
+            slot.putBoolean(quickTask.isStatus());
+        }
+
+        @Override
+        public QuickTask read(int id, RecordStore.Slot slot) throws IOException {
+            return new QuickTask(id, slot.getInt(), slot.getText(), slot.getBoolean());
+        }
+    };
+
+    /// Added and completed quick tasks, for the views that update only what changed
+    private final ChangePublisher<QuickTask> changes = new ChangePublisher<>();
+
+    /// Active quick tasks of the active users, so they are not read from the file every time
+    private final SessionCache sessions;
+
+    /// Counts shown on the statistics page, kept up to date with every change
+    private final StatisticsController statistics = StatisticsController.shared();
+
+    /// Completed quick tasks are moved out of quicktasks.csv into the archive
+    private final Archiver archive = Archiver.shared();
+
+    public QuickTaskController() {
+        this(SessionCache.shared());
+    }
+
+    /**
+     * QuickTaskController constructor
+     * @param sessions, the cache that keeps the quick tasks of the active users (SessionCache)
+     */
+    public QuickTaskController(SessionCache sessions) {
+        this.sessions = sessions;
+    }
 
     /**
-     * Load user's quick tasks from csv file
+     * Gets the publisher of the quick task changes
+     * @return the publisher (Flow.Publisher)
+     */
+    public Flow.Publisher<ChangeEvent<QuickTask>> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Load user's quick tasks, from the csv file only if they are not cached
      * @param user, the current user
      * @return a list of quick tasks (List)
      */
     public List<QuickTask> loadQuickTasks(User user) {
+        return List.copyOf(getActiveQuickTasks(user));
+    }
+
+    /**
+     * Helper method to get the cached list of the user's active quick tasks
+     * @param user, the current user
+     * @return the cached list (List)
+     */
+    private List<QuickTask> getActiveQuickTasks(User user) {
+        return sessions.getQuickTasks(user, this::readQuickTasksLocked);
+    }
+
+    /**
+     * Helper method to read the user's quick tasks from the record file while holding the file lock
+     * @param user, the current user
+     * @return a list of quick tasks (List)
+     */
+    private List<QuickTask> readQuickTasksLocked(User user) {
+        fileLock.lock();
+        try {
+            return readQuickTasks(user);
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    /**
+     * Helper method to read the user's active quick tasks from their slots, and archive the completed ones that could
+     * not be archived when they were completed. The caller holds the file lock.
+     * @param user, the current user
+     * @return a list of quick tasks (List)
+     */
+    private List<QuickTask> readQuickTasks(User user) {
         List<QuickTask> activeTask = new ArrayList<>();
-        List<String> linesToKeep = new ArrayList<>();
-        File file = new File(filePath);
-        if (!file.exists()) {
-            try{
-                file.getParentFile().mkdirs();
-                file.createNewFile();
-                try(BufferedWriter bw = new BufferedWriter(new FileWriter(file))){
-                    bw.write("id,userId,title,status\n");
+        List<QuickTask> completed = new ArrayList<>();
+        try {
+            RecordStore<QuickTask> records = getStore();
+            for (int id : idsByUser.getOrDefault(user.getId(), Set.of())) {
+                QuickTask quickTask = records.read(id);
+                if (quickTask == null) continue;
+                if (quickTask.isStatus()) {
+                    completed.add(quickTask);
+                } else {
+                    activeTask.add(quickTask);
+                }
+            }
+            activeTask.sort(Comparator.comparingInt(QuickTask::getId));
+            if (!completed.isEmpty()) {
+                archive.archiveQuickTasks(completed.stream().map(QuickTaskController::formatQuickTask).toList());
+                for (QuickTask quickTask : completed) {
+                    records.delete(quickTask.getId());
+                    unindex(quickTask);
                 }
-            } catch (IOException e) {
-                e.printStackTrace();
             }
-            return activeTask;
+        } catch (IOException e) {
+            System.err.println("Error reading quick tasks: " + e.getMessage());
+        }
+        return activeTask;
+    }
+
+    /**
+     * Helper method to get the record file of the quick tasks, opening it the first time. quicktasks.csv is imported
+     * only when there is no record file yet: the active quick tasks go to the record file and the completed ones to
+     * the archive. The file is read once when it is opened, to index the quick tasks by user. The caller holds the
+     * file lock.
+     * @return the record file (RecordStore)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private RecordStore<QuickTask> getStore() throws IOException {
+        if (store != null) return store;
+
+        File file = new File(filePath);
+        File storeFile = new File(storeFilePath);
+        RecordStore<QuickTask> opened;
+        List<QuickTask> quickTasks;
+        if (file.exists() && !storeFile.exists()) {
+            quickTasks = importQuickTasks(file);
+            opened = RecordStore.create(storeFile.toPath(), new File(heapFilePath).toPath(), QUICK_TASK_CODEC,
+                    quickTasks);
+        } else {
+            opened = RecordStore.open(storeFile.toPath(), new File(heapFilePath).toPath(), QUICK_TASK_CODEC);
+            quickTasks = opened.readAll();
+        }
+        idsByUser.clear();
+        for (QuickTask quickTask : quickTasks) {
+            quickTaskIds.ensureAbove(quickTask.getId());
+            index(quickTask);
         }
-        boolean fileNeedsUpdate = false;
+        store = opened;
+        return store;
+    }
+
+    /**
+     * Helper method to add a quick task to the ids by user. The caller holds the file lock.
+     * @param quickTask, the quick task (QuickTask)
+     */
+    private void index(QuickTask quickTask) {
+        idsByUser.computeIfAbsent(quickTask.getUserId(), id -> new TreeSet<>()).add(quickTask.getId());
+    }
 
+    /**
+     * Helper method to remove a quick task from the ids by user. The caller holds the file lock.
+     * @param quickTask, the quick task (QuickTask)
+     */
+    private void unindex(QuickTask quickTask) {
+        Set<Integer> ids = idsByUser.get(quickTask.getUserId());
+        if (ids == null) return;
+        ids.remove(quickTask.getId());
+        if (ids.isEmpty()) idsByUser.remove(quickTask.getUserId());
+    }
+
+    /**
+     * Helper method to read the active quick tasks of quicktasks.csv and archive the completed ones
+     * @param file, the quick tasks file (File)
+     * @return the active quick tasks (List)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private List<QuickTask> importQuickTasks(File file) throws IOException {
+        List<QuickTask> active = new ArrayList<>();
+        List<String> completedLines = new ArrayList<>();
+        CsvReadEvent readEvent = new CsvReadEvent();
+        readEvent.begin();
+        int rows = 0;
         try(BufferedReader br = new BufferedReader(new FileReader(file))){
-            String line = br.readLine();
-            if (line != null) linesToKeep.add(line);
+            String line = br.readLine(); // Skip header
 
-            while((line = br.readLine()) != null){
-                String[] data = line.split(",");
+            while((line = CsvLine.readLine(br)) != null){
+                rows++;
+                String[] data = CsvLine.split(line);
                 if(data.length >= 4){
                     int id = Integer.parseInt(data[0].trim());
                     int userId = Integer.parseInt(data[1].trim());
                     String title = data[2].trim();
                     boolean status = Boolean.parseBoolean(data[3].trim());
-                    if(id >= nextId) nextId = id + 1;
-
-                    if(userId == user.getId()){
-                        if(!status){
-                            activeTask.add(new QuickTask(id, userId, title, false));
-                            linesToKeep.add(line);
-                        } else{
-                            fileNeedsUpdate = true;
-                        }
-                    } else {
-                        linesToKeep.add(line);
+                    quickTaskIds.ensureAbove(id);
+
+                    if(!status){
+                        active.add(new QuickTask(id, userId, title, false));
+                    } else{
+                        completedLines.add(line);
                     }
                 }
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
-        if(fileNeedsUpdate){
-            rewriteFile(linesToKeep);
-        }
-        return activeTask;
+        readEvent.finish(filePath, file.length(), rows);
+        archive.archiveQuickTasks(completedLines);
+        System.out.println("Imported " + active.size() + " quick tasks from CSV");
+        return active;
+    }
+
+    /**
+     * Helper method to write a quick task as a line of quicktasks.csv, the format of the archive, with the title
+     * quoted when it has a comma
+     * @param quickTask, the quick task (QuickTask)
+     * @return the line (String)
+     */
+    private static String formatQuickTask(QuickTask quickTask) {
+        return CsvLine.join(
+                quickTask.getId(),
+                quickTask.getUserId(),
+                quickTask.getTitle(),
+                quickTask.isStatus());
     }
 
     /**
@@ -82,63 +274,87 @@ public class QuickTaskController {
      * @return the quick task (QuickTask)
      */
     public QuickTask addQuickTask(User user, String title) {
-        QuickTask newTask = new QuickTask(nextId++, user.getId(), title, false);
-        try(BufferedWriter bw = new BufferedWriter(new FileWriter(filePath, true))){
-            bw.write(String.format("%d,%d,%s,%b\n",
-                    newTask.getId(),
-                    newTask.getUserId(),
-                    newTask.getTitle(),
-                    newTask.isStatus()));
+        // Load the cached list first, so the new quick task is not read back from the file as well
+        List<QuickTask> active = getActiveQuickTasks(user);
+        QuickTask newTask = new QuickTask(Math.toIntExact(quickTaskIds.nextId()), user.getId(), title, false);
+        long start = System.nanoTime();
+        fileLock.lock();
+        try {
+            getStore().put(newTask);
+            index(newTask);
         } catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            fileLock.unlock();
+            Metrics.record("quicktasks.save", start);
         }
+        active.add(newTask);
+        sessions.updated(user.getId());
+        statistics.quickTaskAdded(user.getId());
+        changes.publish(ChangeEvent.Kind.CREATED, user.getId(), newTask);
         return newTask;
     }
 
     /**
-     * Reads the quicktasks.csv file and set the status to true is the task was completed
+     * Moves the completed quick task from the record file to the archive, reading and deleting only its slot
      * @param taskId, the task id (int)
      */
     public void markTaskAsCompleted(int taskId){
-        List<String> allLines = new ArrayList<>();
-        File file = new  File(filePath);
+        complete(taskId, null);
+    }
 
-        try(BufferedReader br = new BufferedReader(new FileReader(file))){
-            String line;
-            while((line = br.readLine()) != null){
-                String[] data = line.split(",");
-                if(data.length >= 4){
-                    int currentId = -1;
-                    try{
-                        currentId = Integer.parseInt(data[0].trim());
-                    } catch(NumberFormatException e){}
-                    if(currentId == taskId){
-                        allLines.add(data[0] + "," + data[1] + "," + data[2] + ",true");
-                    } else{
-                        allLines.add(line);
-                    }
-                } else{
-                    allLines.add(line);
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        rewriteFile(allLines);
+    /**
+     * Moves a completed quick task of the user from the record file to the archive
+     * @param user, the user the quick task must belong to (User)
+     * @param taskId, the task id (int)
+     * @return true if the user had the quick task (boolean)
+     */
+    public boolean markTaskAsCompleted(User user, int taskId){
+        return complete(taskId, user);
     }
 
     /**
-     * Rewrites the file
-     * @param lines, the contents of the quick task (List)
+     * Helper method to move a completed quick task from the record file to the archive
+     * @param taskId, the task id (int)
+     * @param owner, the user the quick task must belong to, or null for any user (User)
+     * @return true if the quick task was found (boolean)
      */
-    private void rewriteFile(List<String> lines){
-        try(BufferedWriter bw = new BufferedWriter(new FileWriter(filePath))){
-            for (String line : lines){
-                bw.write(line);
-                bw.newLine();
+    private boolean complete(int taskId, User owner){
+        long start = System.nanoTime();
+        try {
+            QuickTask completed = null;
+            boolean wasActive = false;
+
+            fileLock.lock();
+            try {
+                RecordStore<QuickTask> records = getStore();
+                QuickTask quickTask = records.read(taskId);
+                if (quickTask != null && (owner == null || quickTask.getUserId() == owner.getId())) {
+                    wasActive = !quickTask.isStatus();
+                    completed = new QuickTask(taskId, quickTask.getUserId(), quickTask.getTitle(), true);
+                    try {
+                        archive.archiveQuickTasks(List.of(formatQuickTask(completed)));
+                        records.delete(taskId);
+                        unindex(completed);
+                    } catch (IOException e) {
+                        // The completed task stays in the record file and is archived the next time it is read
+                        System.err.println("Error archiving the completed quick task: " + e.getMessage());
+                        records.put(completed);
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                fileLock.unlock();
             }
-        }catch (IOException e) {
-            e.printStackTrace();
+            if (completed != null) {
+                if (wasActive) statistics.quickTaskCompleted(completed.getUserId());
+                sessions.removeQuickTask(completed.getUserId(), taskId);
+                changes.publish(ChangeEvent.Kind.UPDATED, completed.getUserId(), completed);
+            }
+            return completed != null;
+        } finally {
+            Metrics.record("quicktask.complete", start);
         }
     }
 }
@@ -0,0 +1,488 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The RecordStore class keeps records, e.g. tasks or quick tasks, in a file where every record has a slot of the same
+ * size, so a record is read, changed or deleted where it is instead of rewriting the whole file.
+ * The slot file starts with a header, then every slot has a used flag, the record's id and its fields. A text field
+ * takes TEXT_SIZE bytes: short texts are kept in the slot, longer ones in a second file, the heap, and the slot keeps
+ * where they are. The offset of every record's slot is kept by id, so reading, changing and deleting a record is one
+ * positional read or write of its slot. A deleted slot goes to a free list and is taken by the next new record.
+ * Long texts are always appended to the heap before the slot points to them, so a write that stops halfway leaves the
+ * slot with its old text. The heap is not compacted, it grows with every changed long text and keeps the long texts
+ * of deleted records.
+ * The files are opened by one process at a time; the threads of that process take turns with the lock.
+ * @param <T> the type of the records
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class RecordStore<T> implements Closeable {
+
+    /// Bytes of a text field in the slot, the texts of up to TEXT_SIZE - 1 bytes are kept in the slot
+    public static final int TEXT_SIZE = 16;
+
+    private static final int MAGIC = 0x50545253; // "PTRS"
+    private static final short FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    /// Used flag and id in front of the fields of every slot
+    private static final int SLOT_HEADER_SIZE = 1 + 4;
+    /// Slots read at a time when the file is scanned
+    private static final int SCAN_SLOTS = 4096;
+
+    /// Length byte of a text field kept in the heap, and of a null text
+    private static final byte IN_HEAP = -1;
+    private static final byte NULL_TEXT = -2;
+
+    /**
+     * The Codec interface writes the fields of a record to its slot and reads them back, in the same order
+     * @param <T> the type of the records
+     */
+    public interface Codec<T> {
+
+        /**
+         * Gets the bytes taken by the fields of a record, e.g. 4 for an int and TEXT_SIZE for a text
+         * @return the size (int)
+         */
+        int fieldsSize();
+
+        /**
+         * Gets the id of a record
+         * @param record, the record (T)
+         * @return the id (int)
+         */
+        int idOf(T record);
+
+        /**
+         * Writes the fields of a record to its slot
+         * @param record, the record (T)
+         * @param slot, the slot (Slot)
+         * @throws IOException, throws exceptions related to file I/O
+         */
+        void write(T record, Slot slot) throws IOException;
+
+        /**
+         * Reads a record from its slot
+         * @param id, the record's id (int)
+         * @param slot, the slot (Slot)
+         * @return the record (T)
+         * @throws IOException, throws exceptions related to file I/O
+         */
+        T read(int id, Slot slot) throws IOException;
+    }
+
+    /**
+     * The fields of one slot, written and read one after the other
+     */
+    public static final class Slot {
+        private final RecordStore<?> store;
+        private final ByteBuffer buffer;
+        /// The whole heap while the file is scanned, so the long texts are not read one at a time
+        private final ByteBuffer heap;
+
+        private Slot(RecordStore<?> store, ByteBuffer buffer, ByteBuffer heap) {
+            this.store = store;
+            this.buffer = buffer;
+            this.heap = heap;
+        }
+
+        /**
+         * Numbers and flags, 4 bytes for an int and 1 for a boolean
+         */
+
+        public void putInt(int value) {
+            buffer.putInt(value);
+        }
+
+        public int getInt() {
+            return buffer.getInt();
+        }
+
+        public void putBoolean(boolean value) {
+            buffer.put((byte) (value ? 1 : 0));
+        }
+
+        public boolean getBoolean() {
+            return buffer.get() != 0;
+        }
+
+        /**
+         * Writes a text field, in the slot if it is short and at the end of the heap otherwise. The old text in the
+         * heap is never written over, since the slot still points to it until the slot is written.
+         * @param text, the text, can be null (String)
+         * @throws IOException, throws exceptions related to file I/O
+         */
+        public void putText(String text) throws IOException {
+            int field = buffer.position();
+            if (text == null) {
+                buffer.put(NULL_TEXT);
+                buffer.position(field + TEXT_SIZE);
+                return;
+            }
+
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length < TEXT_SIZE) {
+                buffer.put((byte) bytes.length).put(bytes);
+                buffer.position(field + TEXT_SIZE);
+                return;
+            }
+
+            long offset = store.heapEnd;
+            store.heapEnd += bytes.length;
+            store.writeFully(store.heapChannel, ByteBuffer.wrap(bytes), offset);
+            buffer.put(IN_HEAP).putLong(offset).putInt(bytes.length);
+            buffer.position(field + TEXT_SIZE);
+        }
+
+        /**
+         * Reads a text field
+         * @return the text, can be null (String)
+         * @throws IOException, throws exceptions related to file I/O
+         */
+        public String getText() throws IOException {
+            int field = buffer.position();
+            byte length = buffer.get();
+            String text;
+            if (length == NULL_TEXT) {
+                text = null;
+            } else if (length == IN_HEAP) {
+                long offset = buffer.getLong();
+                byte[] bytes = new byte[buffer.getInt()];
+                if (heap != null && offset + bytes.length <= heap.limit()) {
+                    heap.get((int) offset, bytes);
+                } else {
+                    store.readFully(store.heapChannel, ByteBuffer.wrap(bytes), offset);
+                }
+                text = new String(bytes, StandardCharsets.UTF_8);
+            } else {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                text = new String(bytes, StandardCharsets.UTF_8);
+            }
+            buffer.position(field + TEXT_SIZE);
+            return text;
+        }
+    }
+
+    private final Path file;
+    private final Codec<T> codec;
+    private final int slotSize;
+    private final FileChannel channel;
+    private final FileChannel heapChannel;
+    private long heapEnd;
+    private long fileEnd;
+
+    /// Offset of the slot of every record by id, and the offsets of the deleted slots
+    private final Map<Integer, Long> offsets = new HashMap<>();
+    private final ArrayDeque<Long> freeSlots = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Opens the record files, creating them if they do not exist, and finds the slot of every record
+     * @param file, the file of the slots (Path)
+     * @param heapFile, the file of the long texts (Path)
+     * @param codec, the codec of the records (Codec)
+     * @return the store (RecordStore)
+     * @throws IOException if a file cannot be opened or the slot file was written with other fields
+     */
+    public static <T> RecordStore<T> open(Path file, Path heapFile, Codec<T> codec) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        RecordStore<T> store = new RecordStore<>(file, heapFile, codec);
+        try {
+            store.scan();
+        } catch (IOException | RuntimeException e) {
+            store.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Creates the record files with the given records, when they are imported from a csv file and there is no slot
+     * file yet. The records are written to temporary files that are moved over the record files once all of them are
+     * written, the heap first and the slot file last, so an import that stops halfway leaves no slot file and starts
+     * again. No record file is deleted before the moves.
+     * @param file, the file of the slots (Path)
+     * @param heapFile, the file of the long texts (Path)
+     * @param codec, the codec of the records (Codec)
+     * @param records, the records (Collection)
+     * @return the store, opened on the new files (RecordStore)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    public static <T> RecordStore<T> create(Path file, Path heapFile, Codec<T> codec, Collection<T> records)
+            throws IOException {
+        Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+        Path tmpHeapFile = heapFile.resolveSibling(heapFile.getFileName() + ".tmp");
+        Files.deleteIfExists(tmpFile);
+        Files.deleteIfExists(tmpHeapFile);
+
+        try (RecordStore<T> store = open(tmpFile, tmpHeapFile, codec)) {
+            for (T record : records) {
+                store.put(record);
+            }
+        }
+        Files.move(tmpHeapFile, heapFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return open(file, heapFile, codec);
+    }
+
+    /**
+     * RecordStore constructor, see open()
+     */
+    private RecordStore(Path file, Path heapFile, Codec<T> codec) throws IOException {
+        this.file = file;
+        this.codec = codec;
+        // Slots are aligned to 8 bytes
+        this.slotSize = (SLOT_HEADER_SIZE + codec.fieldsSize() + 7) & ~7;
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.heapChannel = FileChannel.open(heapFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Helper method to check the header, writing it to a new file, and find the used and the free slots
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private void scan() throws IOException {
+        heapEnd = heapChannel.size();
+        fileEnd = channel.size();
+        if (fileEnd == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putShort(FORMAT_VERSION).putShort((short) 0).putInt(slotSize).putInt(0).flip();
+            writeFully(channel, header, 0);
+            fileEnd = HEADER_SIZE;
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getShort() != FORMAT_VERSION) {
+            throw new IOException(file + " is not a record file");
+        }
+        header.getShort();
+        int savedSlotSize = header.getInt();
+        if (savedSlotSize != slotSize) {
+            throw new IOException(file + " has slots of " + savedSlotSize + " bytes instead of " + slotSize);
+        }
+
+        // A slot cut short by a crash while it was appended is left out, the next new record writes over it
+        fileEnd = HEADER_SIZE + (fileEnd - HEADER_SIZE) / slotSize * slotSize;
+        forEachSlot((offset, slot) -> {
+            boolean used = slot.get() != 0;
+            int id = slot.getInt();
+            if (used) {
+                offsets.put(id, offset);
+            } else {
+                freeSlots.push(offset);
+            }
+        });
+    }
+
+    /**
+     * Reads every record, in the order of their slots
+     * @return the records (List)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    public List<T> readAll() throws IOException {
+        lock.lock();
+        try {
+            List<T> records = new ArrayList<>(offsets.size());
+            ByteBuffer heap = heapEnd <= Integer.MAX_VALUE
+                    ? heapChannel.map(FileChannel.MapMode.READ_ONLY, 0, heapEnd) : null;
+            forEachSlot((offset, buffer) -> {
+                if (buffer.get() == 0) return;
+                int id = buffer.getInt();
+                records.add(codec.read(id, new Slot(this, buffer, heap)));
+            });
+            return records;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads a record with one positional read of its slot
+     * @param id, the record's id (int)
+     * @return the record, or null if there is none with that id (T)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    public T read(int id) throws IOException {
+        lock.lock();
+        try {
+            Long offset = offsets.get(id);
+            if (offset == null) return null;
+            ByteBuffer buffer = readSlot(offset);
+            buffer.position(SLOT_HEADER_SIZE);
+            return codec.read(id, new Slot(this, buffer, null));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a record or changes the record with the same id. A changed record is written over its slot, and a new
+     * record takes a deleted slot if there is one or is added at the end of the file.
+     * @param record, the record (T)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    public void put(T record) throws IOException {
+        lock.lock();
+        try {
+            int id = codec.idOf(record);
+            Long offset = offsets.get(id);
+            Long freeSlot = offset == null ? freeSlots.poll() : null;
+            if (freeSlot != null) offset = freeSlot;
+            boolean appended = offset == null;
+            if (appended) offset = fileEnd;
+
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(slotSize);
+                buffer.put((byte) 1).putInt(id);
+                codec.write(record, new Slot(this, buffer, null));
+                buffer.clear();
+                writeFully(channel, buffer, offset);
+            } catch (IOException e) {
+                // The slot was not written, so a slot taken from the free list is still free
+                if (freeSlot != null) freeSlots.push(freeSlot);
+                throw e;
+            }
+
+            offsets.put(id, offset);
+            if (appended) fileEnd += slotSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes a record by clearing the used flag of its slot, which goes to the free list
+     * @param id, the record's id (int)
+     * @return true if there was a record with that id (boolean)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    public boolean delete(int id) throws IOException {
+        lock.lock();
+        try {
+            Long offset = offsets.get(id);
+            if (offset == null) return false;
+            writeFully(channel, ByteBuffer.wrap(new byte[] {0}), offset);
+            offsets.remove(id);
+            freeSlots.push(offset);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of records
+     * @return the number of records (int)
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return offsets.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of deleted slots waiting for a new record
+     * @return the number of free slots (int)
+     */
+    public int getFreeSlots() {
+        lock.lock();
+        try {
+            return freeSlots.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            heapChannel.close();
+        }
+    }
+
+    /**
+     * The action done for every slot of the file
+     */
+    private interface SlotAction {
+        void accept(long offset, ByteBuffer slot) throws IOException;
+    }
+
+    /**
+     * Helper method to read the slots from the start of the file, many at a time. Each slot is given to the action
+     * positioned at its used flag. The caller holds the lock or is opening the store.
+     * @param action, the action (SlotAction)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private void forEachSlot(SlotAction action) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(slotSize * SCAN_SLOTS);
+        for (long position = HEADER_SIZE; position < fileEnd; ) {
+            chunk.clear().limit((int) Math.min(chunk.capacity(), fileEnd - position));
+            readFully(channel, chunk, position);
+            for (int start = 0; start < chunk.limit(); start += slotSize) {
+                ByteBuffer slot = chunk.slice(start, slotSize);
+                action.accept(position + start, slot);
+            }
+            position += chunk.limit();
+        }
+    }
+
+    /**
+     * Helper method to read one slot
+     * @param offset, the offset of the slot (long)
+     * @return the slot (ByteBuffer)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private ByteBuffer readSlot(long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(slotSize);
+        readFully(channel, buffer, offset);
+        buffer.flip();
+        return buffer;
+    }
+
+    private void readFully(FileChannel from, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = from.read(buffer, position);
+            if (read < 0) throw new IOException("Unexpected end of " + (from == channel ? file : "the heap of " + file));
+            position += read;
+        }
+    }
+
+    private void writeFully(FileChannel to, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += to.write(buffer, position);
+        }
+    }
+}
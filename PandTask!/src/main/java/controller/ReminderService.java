@@ -0,0 +1,269 @@
+package controller;
+
+import metrics.Metrics;
+import model.Occurrence;
+import model.OccurrenceOverride;
+import model.Task;
+import model.User;
+import util.Recurrence;
+import util.TimeParser;
+import util.TimingWheel;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * The ReminderService class tells the listeners when a task of a watched user is about to start.
+ * Only the next occurrence of every task waits in a timing wheel of minutes; when it fires, the occurrence after it
+ * is found with the repetition rule and scheduled, so the work done every minute depends on the reminders that are
+ * due, not on the number of tasks. Created and deleted tasks arrive as change events from the TaskController.
+ * Reminders come the number of minutes set with -Dpandtask.reminderMinutes (10 by default) before the task starts.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class ReminderService {
+
+    private static final long LEAD_MINUTES = Long.getLong("pandtask.reminderMinutes", 10);
+    private static final long MINUTE_MILLIS = 60_000;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final TaskController taskController;
+
+    /// The wheel and the timer of every task are only used while holding the lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TimingWheel<Occurrence> wheel = new TimingWheel<>(currentMinute());
+    private final Map<Integer, TimingWheel.Timer<Occurrence>> timers = new HashMap<>();
+
+    private final Set<Integer> watchedUsers = ConcurrentHashMap.newKeySet();
+    private final List<Consumer<Occurrence>> listeners = new CopyOnWriteArrayList<>();
+    private final ChangeSubscriber<Task> taskChanges = new ChangeSubscriber<>(this::onTaskChanged);
+
+    /// Advances the wheel every minute, started when the first user is watched
+    private ScheduledExecutorService clock;
+
+    /**
+     * ReminderService constructor, see TaskController.getReminderService()
+     * @param taskController, the controller whose task changes are followed (TaskController)
+     */
+    ReminderService(TaskController taskController) {
+        this.taskController = taskController;
+        taskController.getChanges().subscribe(taskChanges);
+    }
+
+    /**
+     * Adds a listener that receives the task and the date of every reminder. Listeners are called on the
+     * reminder thread, views must move to their own thread.
+     * @param listener, the listener (Consumer)
+     */
+    public void addListener(Consumer<Occurrence> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener
+     * @param listener, the listener (Consumer)
+     */
+    public void removeListener(Consumer<Occurrence> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts the reminders of a user's tasks, e.g. after logging in. Watching a user twice does nothing.
+     * @param user, the user (User)
+     */
+    public void watch(User user) {
+        if (!watchedUsers.add(user.getId())) return;
+
+        lock.lock();
+        try {
+            long now = currentMinute();
+            for (Task task : user.getTasks()) {
+                scheduleNext(task, now);
+            }
+            startClock();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the reminders of a user's tasks, e.g. after logging out
+     * @param user, the user (User)
+     */
+    public void unwatch(User user) {
+        if (!watchedUsers.remove(user.getId())) return;
+
+        lock.lock();
+        try {
+            for (Task task : user.getTasks()) {
+                wheel.cancel(timers.remove(task.getId()));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of reminders waiting in the wheel
+     * @return the number of reminders (int)
+     */
+    public int getScheduledCount() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Helper method to follow the created and deleted tasks of the watched users
+     * @param event, the change (ChangeEvent)
+     */
+    private void onTaskChanged(ChangeEvent<Task> event) {
+        if (!watchedUsers.contains(event.userId())) return;
+
+        lock.lock();
+        try {
+            Task task = event.entity();
+            if (event.kind() == ChangeEvent.Kind.DELETED) {
+                wheel.cancel(timers.remove(task.getId()));
+            } else {
+                scheduleNext(task, currentMinute());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Helper method to advance the wheel to the current minute and give the due reminders to the listeners.
+     * Every task that fires schedules its next occurrence. Runs every minute on the reminder thread.
+     */
+    private void tick() {
+        List<Occurrence> due = new ArrayList<>();
+        lock.lock();
+        try {
+            long now = currentMinute();
+            wheel.advance(now, occurrence -> {
+                timers.remove(occurrence.task().getId());
+                due.add(occurrence);
+
+                // The occurrence may hold a renamed copy, the next one is found from the task itself
+                Task task = taskController.getTask(occurrence.task().getId());
+                if (task != null && watchedUsers.contains(task.getUserId())) {
+                    scheduleNext(task, now);
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+
+        for (Occurrence occurrence : due) {
+            Metrics.counter("reminders.fired").increment();
+            for (Consumer<Occurrence> listener : listeners) {
+                try {
+                    listener.accept(occurrence);
+                } catch (RuntimeException e) {
+                    System.err.println("Error delivering reminder for " + occurrence.task().getTitle() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method to schedule the first reminder of a task that comes after a minute, replacing the one it had.
+     * Skipped dates have no reminder, and a date moved in time or to another day is reminded at its new start. The
+     * caller holds the lock.
+     * @param task, the task (Task)
+     * @param afterMinute, the minute since the epoch the reminder must come after (long)
+     */
+    private void scheduleNext(Task task, long afterMinute) {
+        wheel.cancel(timers.remove(task.getId()));
+
+        LocalDate startDate = Recurrence.parseDate(task.getEventDate());
+        int startMinute = TaskController.getStartMinute(task);
+        if (startDate == null || startMinute == TimeParser.INVALID) return;
+
+        // The first date whose start is more than the lead time after the minute
+        LocalDateTime earliestStart = LocalDateTime.ofInstant(
+                Instant.ofEpochSecond((afterMinute + LEAD_MINUTES + 1) * 60), zone);
+        LocalDate from = earliestStart.toLocalDate();
+        if (from.atStartOfDay().plusMinutes(startMinute).isBefore(earliestStart)) {
+            from = from.plusDays(1);
+        }
+
+        LocalDate date = Recurrence.nextOccurrence(task.getRepeat(), startDate, from);
+        Occurrence occurrence = null;
+        while (date != null && (occurrence = taskController.resolveOccurrence(task, date)) == null) {
+            date = Recurrence.nextOccurrence(task.getRepeat(), startDate, date.plusDays(1));
+        }
+        LocalDateTime start = occurrence == null ? null : startOf(occurrence);
+
+        // A date moved to another day is not found by the repetition rule, it comes first if it starts earlier
+        for (OccurrenceOverride override : taskController.getMovedOverrides(task.getId())) {
+            Occurrence moved = new Occurrence(override.apply(task), override.newDate(), override.date());
+            LocalDateTime movedStart = startOf(moved);
+            if (movedStart != null && !movedStart.isBefore(earliestStart)
+                    && (start == null || movedStart.isBefore(start))) {
+                occurrence = moved;
+                start = movedStart;
+            }
+        }
+        if (start == null) return;
+
+        long deadline = toMinute(start) - LEAD_MINUTES;
+        if (deadline - wheel.getCurrentTick() >= TimingWheel.RANGE) return;
+        timers.put(task.getId(), wheel.schedule(deadline, occurrence));
+    }
+
+    /**
+     * Helper method to get when an occurrence starts
+     * @param occurrence, the occurrence (Occurrence)
+     * @return the start, or null if its start hour is not a valid time (LocalDateTime)
+     */
+    private static LocalDateTime startOf(Occurrence occurrence) {
+        int startMinute = TaskController.getStartMinute(occurrence.task());
+        if (startMinute == TimeParser.INVALID) return null;
+        return occurrence.date().atStartOfDay().plusMinutes(startMinute);
+    }
+
+    /**
+     * Helper method to start the thread that advances the wheel at the start of every minute. The caller holds
+     * the lock.
+     */
+    private void startClock() {
+        if (clock != null) return;
+        clock = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PandTask-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long delay = MINUTE_MILLIS - System.currentTimeMillis() % MINUTE_MILLIS;
+        clock.scheduleAtFixedRate(this::tick, delay, MINUTE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private long currentMinute() {
+        return System.currentTimeMillis() / MINUTE_MILLIS;
+    }
+
+    private long toMinute(LocalDateTime dateTime) {
+        return dateTime.atZone(zone).toEpochSecond() / 60;
+    }
+}
@@ -0,0 +1,266 @@
+package controller;
+
+import metrics.Metrics;
+import model.Label;
+import model.QuickTask;
+import model.User;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * The SessionCache class keeps the labels and quick tasks of the active users in memory.
+ * When the estimated size of the cached sessions goes over the budget, the users that were not used for the
+ * longest time are evicted, and their data is read again from the csv files the next time they need it.
+ * The budget in bytes is set with -Dpandtask.sessionCacheBytes (16 MB by default).
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class SessionCache {
+
+    /// Rough sizes used to estimate the memory of a session
+    private static final long SESSION_BYTES = 128;
+    private static final long ENTRY_BYTES = 64;
+
+    private static final SessionCache SHARED =
+            new SessionCache(Long.getLong("pandtask.sessionCacheBytes", 16L * 1024 * 1024));
+
+    static {
+        Metrics.gauge("sessions.count", SHARED::getSessionCount);
+        Metrics.gauge("sessions.bytes", SHARED::getUsedBytes);
+        Metrics.gauge("sessions.hits", SHARED::getHits);
+        Metrics.gauge("sessions.misses", SHARED::getMisses);
+        Metrics.gauge("sessions.evictions", SHARED::getEvictions);
+    }
+
+    /// The sessions in access order, the first one is the least recently used
+    private final LinkedHashMap<Integer, Session> sessions = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long budgetBytes;
+    private long usedBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * The cached data of a user. A part is null until its controller loads it.
+     */
+    private static final class Session {
+        private List<Label> labels;
+        private List<QuickTask> quickTasks;
+        private long bytes;
+    }
+
+    /**
+     * SessionCache constructor
+     * @param budgetBytes, the estimated memory the sessions may use (long)
+     */
+    public SessionCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Gets the cache shared by the controllers of the application
+     * @return the shared cache (SessionCache)
+     */
+    public static SessionCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the labels of a user, reading them with the loader if they are not cached
+     * @param user, the user (User)
+     * @param loader, reads the user's labels from the file (Function)
+     * @return the labels, a list the caller may add to (List)
+     */
+    public List<Label> getLabels(User user, Function<User, List<Label>> loader) {
+        lock.lock();
+        try {
+            Session session = sessions.get(user.getId());
+            if (session != null && session.labels != null) {
+                hits.increment();
+                return session.labels;
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+
+        // Reads outside the lock so other users are not blocked by the file
+        List<Label> loaded = new CopyOnWriteArrayList<>(loader.apply(user));
+        lock.lock();
+        try {
+            Session session = sessions.computeIfAbsent(user.getId(), id -> new Session());
+            if (session.labels == null) session.labels = loaded;
+            resize(user.getId(), session);
+            return session.labels;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the active quick tasks of a user, reading them with the loader if they are not cached
+     * @param user, the user (User)
+     * @param loader, reads the user's quick tasks from the file (Function)
+     * @return the quick tasks, a list the caller may add to and remove from (List)
+     */
+    public List<QuickTask> getQuickTasks(User user, Function<User, List<QuickTask>> loader) {
+        lock.lock();
+        try {
+            Session session = sessions.get(user.getId());
+            if (session != null && session.quickTasks != null) {
+                hits.increment();
+                return session.quickTasks;
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+
+        List<QuickTask> loaded = new CopyOnWriteArrayList<>(loader.apply(user));
+        lock.lock();
+        try {
+            Session session = sessions.computeIfAbsent(user.getId(), id -> new Session());
+            if (session.quickTasks == null) session.quickTasks = loaded;
+            resize(user.getId(), session);
+            return session.quickTasks;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a completed quick task from a user's cached quick tasks, if they are cached
+     * @param userId, the user's id (int)
+     * @param quickTaskId, the quick task's id (int)
+     */
+    public void removeQuickTask(int userId, int quickTaskId) {
+        lock.lock();
+        try {
+            Session session = sessions.get(userId);
+            if (session != null && session.quickTasks != null
+                    && session.quickTasks.removeIf(quickTask -> quickTask.getId() == quickTaskId)) {
+                resize(userId, session);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Updates the estimated size of a user's session after its lists changed, evicting other users if needed
+     * @param userId, the user's id (int)
+     */
+    public void updated(int userId) {
+        lock.lock();
+        try {
+            Session session = sessions.get(userId);
+            if (session != null) resize(userId, session);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a user's session, e.g. when the files were changed by someone else
+     * @param userId, the user's id (int)
+     */
+    public void invalidate(int userId) {
+        lock.lock();
+        try {
+            Session session = sessions.remove(userId);
+            if (session != null) usedBytes -= session.bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Helper method to estimate the size of a session and evict the least recently used sessions over the budget.
+     * The session being resized is never evicted. The caller holds the lock.
+     * @param userId, the user's id (int)
+     * @param session, the session (Session)
+     */
+    private void resize(int userId, Session session) {
+        long bytes = SESSION_BYTES;
+        if (session.labels != null) {
+            for (Label label : session.labels) {
+                bytes += ENTRY_BYTES + 2L * (length(label.getName()) + length(label.getColor()));
+            }
+        }
+        if (session.quickTasks != null) {
+            for (QuickTask quickTask : session.quickTasks) {
+                bytes += ENTRY_BYTES + 2L * length(quickTask.getTitle());
+            }
+        }
+        usedBytes += bytes - session.bytes;
+        session.bytes = bytes;
+
+        Iterator<Map.Entry<Integer, Session>> eldest = sessions.entrySet().iterator();
+        while (usedBytes > budgetBytes && eldest.hasNext()) {
+            Map.Entry<Integer, Session> entry = eldest.next();
+            if (entry.getKey() == userId) continue;
+            usedBytes -= entry.getValue().bytes;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static int length(String text) {
+        return text == null ? 0 : text.length();
+    }
+
+    /**
+     * Getters
+     */
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int getSessionCount() {
+        lock.lock();
+        try {
+            return sessions.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getUsedBytes() {
+        lock.lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * String representation of the cache counters
+     * @return the sessions, memory, hits, misses and evictions (String)
+     */
+    @Override
+    public String toString() {
+        return "SessionCache{sessions=" + getSessionCount() + ", bytes=" + getUsedBytes() + "/" + budgetBytes
+                + ", hits=" + getHits() + ", misses=" + getMisses() + ", evictions=" + getEvictions() + "}";
+    }
+}
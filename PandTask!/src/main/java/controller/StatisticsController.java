@@ -0,0 +1,487 @@
+package controller;
+
+import metrics.CsvReadEvent;
+import metrics.CsvWriteEvent;
+import metrics.Metrics;
+import model.Label;
+import model.QuickTask;
+import model.Task;
+import model.TaskStatistics;
+import model.User;
+import util.Recurrence;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The StatisticsController class keeps the statistics of every user up to date as their tasks and quick tasks change,
+ * so the statistics page never reads the tasks or the quick tasks file. The TaskController and the
+ * QuickTaskController tell it about every change, and the counts are saved in data/stats.csv a moment after the last
+ * change and when the application exits.
+ * The saved file has the number of tasks and a checksum of their ids. When the loaded tasks do not
+ * match it, e.g. the first time or after the file was changed by another tool, the task counts are rebuilt from the
+ * loaded tasks in parallel. Quick tasks are removed from their file once completed, so their counts are only rebuilt
+ * from quicktasks.dat, or quicktasks.csv before it was imported, when there is no saved file.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class StatisticsController {
+
+    private static final String HEADER = "userId,kind,key,count";
+    private static final long SAVE_DELAY_MILLIS = 2000;
+
+    private static final StatisticsController SHARED =
+            new StatisticsController("data/stats.csv", "data/quicktasks.csv");
+
+    /**
+     * The task counts of a user
+     */
+    private static final class TaskCounts {
+        private final Map<String, Integer> byPriority = new HashMap<>();
+        private final Map<String, Integer> byLabel = new HashMap<>();
+        private final Map<LocalDate, Integer> byWeek = new HashMap<>();
+        private final int[] byWeekday = new int[7];
+        private int tasks;
+
+        /**
+         * Counts a task, or uncounts it
+         * @param task, the task (Task)
+         * @param delta, 1 to count it, -1 to uncount it (int)
+         */
+        private void add(Task task, int delta) {
+            tasks += delta;
+            String priority = task.getPriority() == null || task.getPriority().isBlank() ? "None" : task.getPriority();
+            addTo(byPriority, priority, delta);
+            if (task.getLabels() != null) {
+                for (Label label : task.getLabels()) {
+                    addTo(byLabel, label.getName(), delta);
+                }
+            }
+            LocalDate date = Recurrence.parseDate(task.getEventDate());
+            if (date != null) {
+                addTo(byWeek, startOfWeek(date), delta);
+                byWeekday[date.getDayOfWeek().getValue() - 1] += delta;
+            }
+        }
+
+        private TaskCounts merge(TaskCounts other) {
+            tasks += other.tasks;
+            other.byPriority.forEach((key, count) -> addTo(byPriority, key, count));
+            other.byLabel.forEach((key, count) -> addTo(byLabel, key, count));
+            other.byWeek.forEach((key, count) -> addTo(byWeek, key, count));
+            for (int i = 0; i < byWeekday.length; i++) byWeekday[i] += other.byWeekday[i];
+            return this;
+        }
+
+        private static <K> void addTo(Map<K, Integer> counts, K key, int delta) {
+            counts.merge(key, delta, (count, change) -> count + change == 0 ? null : count + change);
+        }
+    }
+
+    private final String filePath;
+    private final String quickTasksFilePath;
+
+    /// Counts by user id, read and changed with the lock held
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Integer, TaskCounts> taskCounts = new HashMap<>();
+    /// Quick tasks added and completed by user id
+    private final Map<Integer, int[]> quickTaskCounts = new HashMap<>();
+    /// Number and checksum of the counted tasks of all users, -1 until the tasks were counted once
+    private int countedTasks = -1;
+    private long countedChecksum;
+    private boolean loaded;
+
+    /// Writes the file a moment after the last change, started with the first change
+    private ScheduledExecutorService saver;
+    private boolean saveScheduled;
+    private final ReentrantLock fileLock = new ReentrantLock();
+
+    /**
+     * StatisticsController constructor
+     * @param filePath, the statistics file (String)
+     * @param quickTasksFilePath, the quick tasks file, its record file is read when there is no statistics file (String)
+     */
+    public StatisticsController(String filePath, String quickTasksFilePath) {
+        this.filePath = filePath;
+        this.quickTasksFilePath = quickTasksFilePath;
+    }
+
+    /**
+     * Gets the statistics shared by the controllers of the application
+     * @return the shared statistics (StatisticsController)
+     */
+    public static StatisticsController shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets a snapshot of the statistics of a user
+     * @param user, the user (User)
+     * @return the statistics (TaskStatistics)
+     */
+    public TaskStatistics getStatistics(User user) {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            ensureLoaded();
+            TaskCounts counts = taskCounts.getOrDefault(user.getId(), new TaskCounts());
+            int[] quickTasks = quickTaskCounts.getOrDefault(user.getId(), new int[2]);
+
+            Map<DayOfWeek, Integer> byWeekday = new EnumMap<>(DayOfWeek.class);
+            for (int i = 0; i < counts.byWeekday.length; i++) {
+                byWeekday.put(DayOfWeek.of(i + 1), counts.byWeekday[i]);
+            }
+            return new TaskStatistics(counts.tasks, Map.copyOf(counts.byPriority), Map.copyOf(counts.byLabel),
+                    new TreeMap<>(counts.byWeek), byWeekday, quickTasks[0], quickTasks[1]);
+        } finally {
+            lock.unlock();
+            Metrics.record("stats.get", start);
+        }
+    }
+
+    /**
+     * Checks the saved task counts against the tasks loaded from the tasks file and the archived ones, and rebuilds
+     * them in parallel if they do not match. The archive is only read to rebuild them.
+     * @param tasks, all the loaded tasks (Collection)
+     * @param archive, the archive of the past tasks (Archiver)
+     */
+    public void tasksLoaded(Collection<Task> tasks, Archiver archive) {
+        int taskCount = tasks.size() + archive.getTaskCount();
+        long checksum = tasks.parallelStream().mapToLong(task -> mix(task.getId())).sum() + archive.getTaskChecksum();
+        lock.lock();
+        try {
+            ensureLoaded();
+            if (countedTasks == taskCount && countedChecksum == checksum) return;
+
+            long start = System.nanoTime();
+            List<Task> archived = archive.getTaskCount() == 0 ? List.of() : archive.readAllTasks();
+            Map<Integer, TaskCounts> rebuilt = Stream.concat(tasks.parallelStream(), archived.parallelStream())
+                    .collect(Collectors.groupingByConcurrent(
+                            Task::getUserId,
+                            Collector.of(TaskCounts::new, (counts, task) -> counts.add(task, 1), TaskCounts::merge)));
+            taskCounts.clear();
+            taskCounts.putAll(rebuilt);
+            countedTasks = taskCount;
+            countedChecksum = checksum;
+            scheduleSave();
+            System.out.println("Rebuilt the statistics of " + (tasks.size() + archived.size()) + " tasks in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        } catch (IOException e) {
+            System.err.println("Error reading the archive, the statistics are not rebuilt: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Counts a new task
+     * @param task, the task (Task)
+     */
+    public void taskAdded(Task task) {
+        changeTask(task, 1);
+    }
+
+    /**
+     * Uncounts a deleted task
+     * @param task, the task (Task)
+     */
+    public void taskRemoved(Task task) {
+        changeTask(task, -1);
+    }
+
+    /**
+     * Counts a new quick task
+     * @param userId, the id of its user (int)
+     */
+    public void quickTaskAdded(int userId) {
+        changeQuickTasks(userId, 0);
+    }
+
+    /**
+     * Counts a completed quick task
+     * @param userId, the id of its user (int)
+     */
+    public void quickTaskCompleted(int userId) {
+        changeQuickTasks(userId, 1);
+    }
+
+    /**
+     * Writes the statistics file now, e.g. when the application exits
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    public void save() throws IOException {
+        List<String> lines;
+        lock.lock();
+        try {
+            if (!loaded) return;
+            saveScheduled = false;
+            lines = toLines();
+        } finally {
+            lock.unlock();
+        }
+
+        long start = System.nanoTime();
+        fileLock.lock();
+        try {
+            CsvWriteEvent writeEvent = new CsvWriteEvent();
+            writeEvent.begin();
+            File file = new File(filePath);
+            if (file.getParentFile() != null) file.getParentFile().mkdirs();
+            try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
+                bw.write(HEADER + "\n");
+                for (String line : lines) {
+                    bw.write(line);
+                    bw.newLine();
+                }
+            }
+            writeEvent.finish(filePath, file.length(), lines.size());
+        } finally {
+            fileLock.unlock();
+            Metrics.record("stats.save", start);
+        }
+    }
+
+    private void changeTask(Task task, int delta) {
+        lock.lock();
+        try {
+            ensureLoaded();
+            taskCounts.computeIfAbsent(task.getUserId(), id -> new TaskCounts()).add(task, delta);
+            if (countedTasks >= 0) {
+                countedTasks += delta;
+                countedChecksum += delta * mix(task.getId());
+            }
+            scheduleSave();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void changeQuickTasks(int userId, int index) {
+        lock.lock();
+        try {
+            ensureLoaded();
+            quickTaskCounts.computeIfAbsent(userId, id -> new int[2])[index]++;
+            scheduleSave();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Helper method to read the statistics file the first time they are needed. Without a file, the quick task
+     * counts are rebuilt from the quick tasks file and the task counts wait for the tasks to be loaded.
+     * The caller holds the lock.
+     */
+    private void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+
+        File file = new File(filePath);
+        try {
+            if (file.exists()) {
+                readFile(file);
+            } else {
+                rebuildQuickTasks();
+                scheduleSave();
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading statistics, rebuilding them: " + e.getMessage());
+            taskCounts.clear();
+            quickTaskCounts.clear();
+            countedTasks = -1;
+            try {
+                rebuildQuickTasks();
+            } catch (IOException ex) {
+                System.err.println("Error rebuilding quick task statistics: " + ex.getMessage());
+            }
+            scheduleSave();
+        }
+    }
+
+    /**
+     * Helper method to read the statistics file. The caller holds the lock.
+     * @param file, the statistics file (File)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private void readFile(File file) throws IOException {
+        CsvReadEvent readEvent = new CsvReadEvent();
+        readEvent.begin();
+        int rows = 0;
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line = br.readLine(); // Skip header
+
+            while ((line = br.readLine()) != null) {
+                rows++;
+                String[] data = line.split(",");
+                if (data.length < 4) continue;
+
+                int userId = Integer.parseInt(data[0].trim());
+                String kind = data[1].trim();
+                String key = data[2].trim();
+                long count = Long.parseLong(data[3].trim());
+
+                switch (kind) {
+                    case "meta" -> {
+                        if (key.equals("taskCount")) countedTasks = (int) count;
+                        if (key.equals("taskChecksum")) countedChecksum = count;
+                    }
+                    case "quickAdded" -> quickTaskCounts.computeIfAbsent(userId, id -> new int[2])[0] = (int) count;
+                    case "quickCompleted" -> quickTaskCounts.computeIfAbsent(userId, id -> new int[2])[1] = (int) count;
+                    default -> {
+                        TaskCounts counts = taskCounts.computeIfAbsent(userId, id -> new TaskCounts());
+                        switch (kind) {
+                            case "tasks" -> counts.tasks = (int) count;
+                            case "priority" -> counts.byPriority.put(key, (int) count);
+                            case "label" -> counts.byLabel.put(key, (int) count);
+                            case "week" -> counts.byWeek.put(LocalDate.parse(key), (int) count);
+                            case "weekday" -> counts.byWeekday[Integer.parseInt(key) - 1] = (int) count;
+                            default -> { }
+                        }
+                    }
+                }
+            }
+        }
+        readEvent.finish(filePath, file.length(), rows);
+    }
+
+    /**
+     * Helper method to count the quick tasks of every user in the record file of the quick tasks, or in the quick
+     * tasks file in parallel when it was not imported yet. Completed quick tasks that were already archived are not
+     * counted. The caller holds the lock.
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private void rebuildQuickTasks() throws IOException {
+        File storeFile = TaskController.recordFile(quickTasksFilePath, ".dat");
+        if (storeFile.exists()) {
+            File heapFile = TaskController.recordFile(quickTasksFilePath, ".heap");
+            try (RecordStore<QuickTask> store = RecordStore.open(storeFile.toPath(), heapFile.toPath(),
+                    QuickTaskController.QUICK_TASK_CODEC)) {
+                for (QuickTask quickTask : store.readAll()) {
+                    int[] count = quickTaskCounts.computeIfAbsent(quickTask.getUserId(), id -> new int[2]);
+                    count[0]++;
+                    if (quickTask.isStatus()) count[1]++;
+                }
+            }
+            return;
+        }
+
+        // Without a record file the quick tasks are still only in the csv file, which is imported when first read
+        Path path = Path.of(quickTasksFilePath);
+        if (!Files.exists(path)) return;
+
+        try (Stream<String> lines = Files.lines(path)) {
+            Map<Integer, int[]> counts = lines.skip(1).parallel()
+                    .map(line -> line.split(","))
+                    .filter(data -> data.length >= 4 && parseUserId(data[1]) >= 0)
+                    .collect(Collectors.groupingByConcurrent(data -> parseUserId(data[1]), Collector.of(
+                            () -> new int[2],
+                            (count, data) -> {
+                                count[0]++;
+                                if (Boolean.parseBoolean(data[3].trim())) count[1]++;
+                            },
+                            (a, b) -> {
+                                a[0] += b[0];
+                                a[1] += b[1];
+                                return a;
+                            })));
+            quickTaskCounts.putAll(counts);
+        }
+    }
+
+    /**
+     * Helper method to write every count as a line of the statistics file. The caller holds the lock.
+     * @return the lines (List)
+     */
+    private List<String> toLines() {
+        List<String> lines = new ArrayList<>();
+        lines.add("0,meta,taskCount," + countedTasks);
+        lines.add("0,meta,taskChecksum," + countedChecksum);
+        taskCounts.forEach((userId, counts) -> {
+            lines.add(userId + ",tasks,-," + counts.tasks);
+            counts.byPriority.forEach((key, count) -> lines.add(userId + ",priority," + key + "," + count));
+            counts.byLabel.forEach((key, count) -> lines.add(userId + ",label," + key + "," + count));
+            counts.byWeek.forEach((key, count) -> lines.add(userId + ",week," + key + "," + count));
+            for (int i = 0; i < counts.byWeekday.length; i++) {
+                if (counts.byWeekday[i] != 0) lines.add(userId + ",weekday," + (i + 1) + "," + counts.byWeekday[i]);
+            }
+        });
+        quickTaskCounts.forEach((userId, counts) -> {
+            lines.add(userId + ",quickAdded,-," + counts[0]);
+            lines.add(userId + ",quickCompleted,-," + counts[1]);
+        });
+        return lines;
+    }
+
+    /**
+     * Helper method to write the file a moment after a change, so many changes in a row are written once. Starts
+     * the saving thread and the save at exit the first time. The caller holds the lock.
+     */
+    private void scheduleSave() {
+        if (saveScheduled) return;
+        saveScheduled = true;
+        if (saver == null) {
+            saver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "PandTask-stats");
+                thread.setDaemon(true);
+                return thread;
+            });
+            Runtime.getRuntime().addShutdownHook(new Thread(this::saveQuietly, "PandTask-stats-exit"));
+        }
+        saver.schedule(this::saveQuietly, SAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException e) {
+            System.err.println("Error saving statistics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Helper method to spread the bits of a task id, so the sum of the ids is a checksum of the set of tasks that
+     * changes when a task is replaced by another one
+     * @param id, the task's id (int)
+     * @return the mixed id (long)
+     */
+    static long mix(int id) {
+        long x = id * 0x9E3779B97F4A7C15L;
+        return x ^ (x >>> 29);
+    }
+
+    private static LocalDate startOfWeek(LocalDate date) {
+        return date.minusDays(date.getDayOfWeek().getValue() % 7);
+    }
+
+    private static int parseUserId(String userId) {
+        try {
+            return Integer.parseInt(userId.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -1,11 +1,39 @@
 package controller;
 
+import metrics.CsvReadEvent;
+import metrics.Metrics;
 import model.Label;
+import model.Occurrence;
+import model.OccurrenceOverride;
 import model.Task;
+import model.TimeSlot;
 import model.User;
+import util.CsvLine;
+import util.OccupancyBitmap;
+import util.Recurrence;
+import util.TaskIndex;
+import util.TimeParser;
 
 import java.io.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 
 /**
  * The TaskController class represents the controller for the user's tasks in the PandTaskApplication
@@ -16,73 +44,315 @@ import java.util.ArrayList;
  */
 public class TaskController {
 
-    private ArrayList<Task> tasks;
-    private int nextTaskId = 1;
+    private static final String TASKS_FILE_PATH = "data/tasks.csv";
+    private static final String OVERRIDES_FILE_PATH = "data/overrides.csv";
+
+    /// All loaded tasks keyed and ordered by id, safe to change from several threads
+    private final ConcurrentSkipListMap<Integer, Task> tasks;
+    /// Task ids are reserved in blocks in data/ids/tasks, so two processes never create the same id
+    private final IdAllocator taskIds = IdAllocator.forName("tasks");
+
+    /// Changes of the same user are done one at a time, changes of different users in parallel.
+    /// Reads need no lock, they use the user's current task snapshot
+    private final UserLocks userLocks = new UserLocks();
+
+    /// Skipped, moved and renamed dates of the repeating tasks
+    private final OccurrenceOverrides overrides = new OccurrenceOverrides(OVERRIDES_FILE_PATH);
+
+    /// Counts shown on the statistics page, kept up to date with every change
+    private final StatisticsController statistics = StatisticsController.shared();
+    /// Past one-off tasks, moved out of the tasks file when the tasks are loaded
+    private final Archiver archive = Archiver.shared();
+
+    /// Every user's tasks by the days they happen on, changed and read with the user's lock held
+    private final Map<Integer, TaskIndex> indexes = new ConcurrentHashMap<>();
+
+    /// Repeating tasks are checked for conflicts over this many days from their first date
+    private static final int CONFLICT_HORIZON_DAYS = 366;
+
+    /// Free slots are only suggested during the day, from 8AM to 10PM
+    private static final int FREE_DAY_START_MINUTE = 8 * 60;
+    private static final int FREE_DAY_END_MINUTE = 22 * 60;
+    private static final int MAX_FREE_SLOT_DAYS = 366;
+
+    /// The tasks are saved one slot per task in tasks.dat, long texts in tasks.heap, so a change writes only the
+    /// slot of its task. tasks.csv is only read when there is no tasks.dat yet.
+    private volatile RecordStore<Task> store;
+
+    /// The names of a task's labels are saved as one text, separated by this
+    static final String LABEL_SEPARATOR = ";";
+
+    /// The fields of a task in its slot: the user's id, 7 texts and the names of its labels
+    private static final RecordStore.Codec<Task> TASK_CODEC = new RecordStore.Codec<>() {
+        @Override
+        public int fieldsSize() {
+            return 4 + 8 * RecordStore.TEXT_SIZE;
+        }
+
+        @Override
+        public int idOf(Task task) {
+            return task.getId();
+        }
+
+        @Override
+        public void write(Task task, RecordStore.Slot slot) throws IOException {
+            slot.putInt(task.getUserId());
+            slot.putText(task.getTitle());
+            slot.putText(task.getStartHour());
+            slot.putText(task.getEndHour());
+            slot.putText(task.getRepeat());
+            slot.putText(task.getDescription());
+            slot.putText(task.getEventDate());
+            slot.putText(task.getPriority());
+            slot.putText(formatLabels(task));
+        }
+
+        @Override
+        public Task read(int id, RecordStore.Slot slot) throws IOException {
+            Task task = new Task(id, slot.getInt(), slot.getText(), slot.getText(), slot.getText(), slot.getText(),
+                    slot.getText(), slot.getText(), slot.getText());
+            task.setLabels(parseLabels(task.getUserId(), slot.getText()));
+            return task;
+        }
+    };
+
+    /// Created and deleted tasks, for the views and caches that update only what changed
+    private final ChangePublisher<Task> changes = new ChangePublisher<>();
+
+    /// Reminders of the watched users' tasks, created the first time they are needed
+    private volatile ReminderService reminderService;
+    /// Free/busy times of groups of users, created the first time they are needed
+    private volatile FreeBusyService freeBusyService;
+    /// Year heatmaps of the users, created the first time they are needed
+    private volatile HeatmapService heatmapService;
 
     public TaskController() {
-        this.tasks = new ArrayList<>();
+        this.tasks = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Gets a copy of all the loaded tasks ordered by id
+     * @return the tasks (List)
+     */
+    public List<Task> getTasks() {
+        return new ArrayList<>(tasks.values());
+    }
+
+    /**
+     * Gets the publisher of the task changes
+     * @return the publisher (Flow.Publisher)
+     */
+    public Flow.Publisher<ChangeEvent<Task>> getChanges() {
+        return changes;
     }
 
-    public ArrayList<Task> getTasks() {
-        return tasks;
+    /**
+     * Gets the reminder service that follows the tasks of this controller, creating it the first time
+     * @return the reminder service (ReminderService)
+     */
+    public ReminderService getReminderService() {
+        ReminderService service = reminderService;
+        if (service == null) {
+            synchronized (this) {
+                service = reminderService;
+                if (service == null) {
+                    service = new ReminderService(this);
+                    reminderService = service;
+                }
+            }
+        }
+        return service;
     }
 
     /**
-     * Load tasks from tasks.csv file
+     * Gets the free/busy service that reads the tasks of this controller, creating it the first time
+     * @return the free/busy service (FreeBusyService)
+     */
+    public FreeBusyService getFreeBusyService() {
+        FreeBusyService service = freeBusyService;
+        if (service == null) {
+            synchronized (this) {
+                service = freeBusyService;
+                if (service == null) {
+                    service = new FreeBusyService(this);
+                    freeBusyService = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    /**
+     * Gets the heatmap service that reads the tasks of this controller, creating it the first time
+     * @return the heatmap service (HeatmapService)
+     */
+    public HeatmapService getHeatmapService() {
+        HeatmapService service = heatmapService;
+        if (service == null) {
+            synchronized (this) {
+                service = heatmapService;
+                if (service == null) {
+                    service = new HeatmapService(this);
+                    heatmapService = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    /**
+     * Finds a task of a user by id
+     * @param user, the current user (User)
+     * @param taskId, the task's id (int)
+     * @return the task, or null if the user has no task with that id (Task)
+     */
+    public Task findTask(User user, int taskId) {
+        Task task = tasks.get(taskId);
+        return task != null && task.getUserId() == user.getId() ? task : null;
+    }
+
+    /**
+     * Load tasks from the record file next to tasks.csv, importing tasks.csv first when there is no record file yet,
+     * and the skipped and changed dates of the repeating tasks from overrides.csv
      * @param filePath, the name of the file (String)
-     * @param users, the users registered (ArrayList)
-     * @param labels, the labels (ArrayList)
+     * @param users, the users registered (List)
+     * @param labels, the labels (List)
      * @throws IOException, throws exceptions related to file I/O
      */
-    public void loadTasksFromCSV(String filePath, ArrayList<User> users, ArrayList<Label> labels) throws IOException {
-        tasks.clear();
+    public void loadTasksFromCSV(String filePath, List<User> users, List<Label> labels) throws IOException {
+        long start = System.nanoTime();
+        try {
+            tasks.clear();
+            indexes.clear();
+            overrides.load();
+            closeStore();
 
-        File file = new File(filePath);
-        if (!file.exists()) {
-            System.out.println("Tasks file not found. Creating new file.");
-            file.getParentFile().mkdirs();
-            file.createNewFile();
-            try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
-                bw.write("id,userId,title,startHour,endHour,repeat,description,eventDate,priority\n");
+            File file = new File(filePath);
+            File storeFile = recordFile(filePath, ".dat");
+            File heapFile = recordFile(filePath, ".heap");
+            if (!file.exists() && !storeFile.exists()) {
+                System.out.println("Tasks file not found. Creating new file.");
+                file.getParentFile().mkdirs();
+                file.createNewFile();
+                try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
+                    bw.write("id,userId,title,startHour,endHour,repeat,description,eventDate,priority\n");
+                }
             }
-            return;
-        }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line = br.readLine(); // Skip header
+            // The csv file is only imported when there is no record file, e.g. the first time or after the
+            // DatasetGenerator. Its date says nothing: a checkout of the repository makes it newer than the record file.
+            boolean importing = !storeFile.exists();
+            List<Task> loaded;
+            RecordStore<Task> opened = null;
+            if (importing) {
+                loaded = readTasksFromCSV(file);
+            } else {
+                opened = RecordStore.open(storeFile.toPath(), heapFile.toPath(), TASK_CODEC);
+                store = opened;
+                loaded = opened.readAll();
+                // Slots are reused, so the tasks are put back in the order of their ids
+                loaded.sort(Comparator.comparingInt(Task::getId));
+                System.out.println("Loaded " + loaded.size() + " tasks from " + storeFile.getName());
+            }
+
+            Map<Integer, List<Task>> tasksByUser = new HashMap<>();
+            List<Task> hot = new ArrayList<>(loaded.size());
+            List<Task> cold = new ArrayList<>();
+            for (Task task : loaded) {
+                taskIds.ensureAbove(task.getId());
+                // Past one-off tasks go to the archive, they are read again only for the past dates
+                if (Archiver.isCold(task)) {
+                    cold.add(task);
+                } else {
+                    hot.add(task);
+                }
+            }
 
-            while ((line = br.readLine()) != null) {
-                String[] data = line.split(",");
-                if (data.length >= 9) {
-
-                    int id = Integer.parseInt(data[0].trim());
-                    int userId = Integer.parseInt(data[1].trim());
-                    String title = data[2].trim();
-                    String startHour = data[3].trim();
-                    String endHour = data[4].trim();
-                    String repeat = data[5].trim();
-                    String description = data[6].trim();
-                    String eventDate = data[7].trim();
-                    String priority = data[8].trim();
-
-                    Task task = new Task(id, userId, title, startHour, endHour, repeat, description, eventDate, priority);
-                    tasks.add(task);
-
-                    // Link the task to a user
-                    for (User user : users) {
-                        if (user.getId() == userId) {
-                            user.getTasks().add(task);
-                            break;
+            if (!cold.isEmpty()) {
+                List<Task> archived = List.of();
+                try {
+                    archived = archive.archiveTasks(cold);
+                } catch (IOException e) {
+                    System.err.println("Error archiving past tasks: " + e.getMessage());
+                }
+                if (archived.size() < cold.size()) {
+                    // The tasks not read back from the archive stay with the other tasks and are archived on the next load
+                    Set<Integer> archivedIds = new HashSet<>();
+                    for (Task task : archived) {
+                        archivedIds.add(task.getId());
+                    }
+                    for (Task task : cold) {
+                        if (!archivedIds.contains(task.getId())) hot.add(task);
+                    }
+                    hot.sort(Comparator.comparingInt(Task::getId));
+                }
+
+                // The archived tasks are only removed from the record file once they were read back from the archive
+                if (opened != null) {
+                    try {
+                        for (Task task : archived) {
+                            opened.delete(task.getId());
                         }
+                    } catch (IOException e) {
+                        // The archive reads a task archived twice once, the rest are deleted on the next load
+                        System.err.println("Error deleting archived tasks: " + e.getMessage());
                     }
+                }
+            }
+            taskIds.ensureAbove(archive.getMaxTaskId());
+            if (importing) {
+                store = RecordStore.create(storeFile.toPath(), heapFile.toPath(), TASK_CODEC, hot);
+            }
 
-                    if (id >= nextTaskId) {
-                        nextTaskId = id + 1;
+            for (Task task : hot) {
+                tasks.put(task.getId(), task);
+                tasksByUser.computeIfAbsent(task.getUserId(), key -> new ArrayList<>()).add(task);
+            }
+
+            Metrics.gauge("tasks.loaded", tasks::size);
+            statistics.tasksLoaded(tasks.values(), archive);
+
+            // Link the tasks to their users, one snapshot per user
+            for (User user : users) {
+                List<Task> userTasks = tasksByUser.get(user.getId());
+                if (userTasks != null) {
+                    user.setTasks(userTasks);
+                    TaskIndex index = indexOf(user.getId());
+                    for (Task task : userTasks) {
+                        index.add(task, getStartMinute(task), getEndMinute(task));
                     }
                 }
             }
-            System.out.println("Loaded " + tasks.size() + " tasks from CSV");
+        } finally {
+            Metrics.record("tasks.load", start);
+        }
+    }
+
+    /**
+     * Helper method to read every task of the tasks file
+     * @param file, the tasks file (File)
+     * @return the tasks, in the order of the file (List)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private List<Task> readTasksFromCSV(File file) throws IOException {
+        List<Task> loaded = new ArrayList<>();
+        if (!file.exists()) return loaded;
+
+        CsvReadEvent readEvent = new CsvReadEvent();
+        readEvent.begin();
+        int rows = 0;
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line = br.readLine(); // Skip header
+
+            while ((line = CsvLine.readLine(br)) != null) {
+                rows++;
+                Task task = parseTask(line);
+                if (task != null) loaded.add(task);
+            }
+            System.out.println("Loaded " + loaded.size() + " tasks from CSV");
         }
+        readEvent.finish(file.getPath(), file.length(), rows);
+        return loaded;
     }
 
     /**
@@ -96,33 +366,364 @@ public class TaskController {
      * @param eventDate, the task's date (String)
      * @param priority, the task's priority (String)
      * @return the nest task (Task)
+     * @throws IllegalArgumentException, if the start or end hour is not a valid time
      */
     public Task createTask(User user, String title, String startHour, String endHour,
                            String repeat, String description, String eventDate, String priority) {
+        return createTask(user, title, startHour, endHour, repeat, description, eventDate, priority, List.of());
+    }
 
-        Task newTask = new Task(
-                nextTaskId++,
-                user.getId(),
-                title,
-                startHour,
-                endHour,
-                repeat,
-                description,
-                eventDate,
-                priority
-        );
+    /**
+     * Creates a task for the current user with labels
+     * @param user, the current user (User)
+     * @param title, the task's name (String)
+     * @param startHour, the task's start hour (String)
+     * @param endHour, the task's end hour (String)
+     * @param repeat, the task's repetition type (String)
+     * @param description, the task's description (String)
+     * @param eventDate, the task's date (String)
+     * @param priority, the task's priority (String)
+     * @param labels, the user's labels to put on the task (List)
+     * @return the nest task (Task)
+     * @throws IllegalArgumentException, if the start or end hour is not a valid time
+     */
+    public Task createTask(User user, String title, String startHour, String endHour, String repeat,
+                           String description, String eventDate, String priority, List<Label> labels) {
+        long start = System.nanoTime();
+        try {
+            if (TimeParser.parseMinuteOfDay(startHour) == TimeParser.INVALID) {
+                throw new IllegalArgumentException("Invalid start hour: " + startHour);
+            }
+            if (TimeParser.parseMinuteOfDay(endHour) == TimeParser.INVALID) {
+                throw new IllegalArgumentException("Invalid end hour: " + endHour);
+            }
+
+            Task newTask = new Task(
+                    Math.toIntExact(taskIds.nextId()),
+                    user.getId(),
+                    title,
+                    startHour,
+                    endHour,
+                    repeat,
+                    description,
+                    eventDate,
+                    priority
+            );
+            newTask.setLabels(new ArrayList<>(labels));
+
+            ReentrantLock lock = userLocks.forUser(user.getId());
+            lock.lock();
+            try {
+                tasks.put(newTask.getId(), newTask);
+                user.addTask(newTask);
+                indexOf(user.getId()).add(newTask, getStartMinute(newTask), getEndMinute(newTask));
+                statistics.taskAdded(newTask);
+                saveTask(newTask);
+            } finally {
+                lock.unlock();
+            }
+
+            changes.publish(ChangeEvent.Kind.CREATED, user.getId(), newTask);
+
+            System.out.println("Task created: " + title + " for " + user.getUsername());
+            return newTask;
+        } finally {
+            Metrics.record("task.create", start);
+        }
+    }
+
+    /**
+     * Changes a task of the current user. The task is replaced by a changed copy with the same id and labels, so
+     * the views that still show the old task are not changed under them, and only the task's slot is written. When
+     * the date or the repetition changes, the skipped and changed dates of the task are dropped.
+     * @param user, the current user (User)
+     * @param task, the task to change (Task)
+     * @param title, the task's name (String)
+     * @param startHour, the task's start hour (String)
+     * @param endHour, the task's end hour (String)
+     * @param repeat, the task's repetition type (String)
+     * @param description, the task's description (String)
+     * @param eventDate, the task's date (String)
+     * @param priority, the task's priority (String)
+     * @return the changed task (Task)
+     * @throws IllegalArgumentException, if the task is not a task of the user or an hour is not a valid time
+     */
+    public Task updateTask(User user, Task task, String title, String startHour, String endHour,
+                           String repeat, String description, String eventDate, String priority) {
+        return updateTask(user, task, title, startHour, endHour, repeat, description, eventDate, priority,
+                task.getLabels());
+    }
+
+    /**
+     * Changes a task of the current user and its labels
+     * @param user, the current user (User)
+     * @param task, the task to change (Task)
+     * @param title, the task's name (String)
+     * @param startHour, the task's start hour (String)
+     * @param endHour, the task's end hour (String)
+     * @param repeat, the task's repetition type (String)
+     * @param description, the task's description (String)
+     * @param eventDate, the task's date (String)
+     * @param priority, the task's priority (String)
+     * @param labels, the user's labels to put on the task instead of its labels (List)
+     * @return the changed task (Task)
+     * @throws IllegalArgumentException, if the task is not a task of the user or an hour is not a valid time
+     */
+    public Task updateTask(User user, Task task, String title, String startHour, String endHour, String repeat,
+                           String description, String eventDate, String priority, List<Label> labels) {
+        long start = System.nanoTime();
+        try {
+            if (TimeParser.parseMinuteOfDay(startHour) == TimeParser.INVALID) {
+                throw new IllegalArgumentException("Invalid start hour: " + startHour);
+            }
+            if (TimeParser.parseMinuteOfDay(endHour) == TimeParser.INVALID) {
+                throw new IllegalArgumentException("Invalid end hour: " + endHour);
+            }
+
+            Task updated = new Task(task.getId(), user.getId(), title, startHour, endHour,
+                    repeat, description, eventDate, priority);
+            updated.setLabels(new ArrayList<>(labels));
 
-        tasks.add(newTask);
-        user.getTasks().add(newTask);
+            ReentrantLock lock = userLocks.forUser(user.getId());
+            lock.lock();
+            try {
+                if (!tasks.replace(task.getId(), task, updated)) {
+                    throw new IllegalArgumentException("Task " + task.getId() + " is not a task of " + user.getUsername());
+                }
+                user.replaceTask(task, updated);
+                TaskIndex index = indexOf(user.getId());
+                index.remove(task);
+                index.add(updated, getStartMinute(updated), getEndMinute(updated));
+                statistics.taskRemoved(task);
+                statistics.taskAdded(updated);
+                // The slot is written with the lock held, so a change and a delete of the task are saved in order
+                saveTask(updated);
+            } finally {
+                lock.unlock();
+            }
 
+            if (!Objects.equals(task.getRepeat(), repeat) || !Objects.equals(task.getEventDate(), eventDate)) {
+                // The old dates may no longer be dates of the task
+                try {
+                    overrides.removeTask(task.getId());
+                } catch (IOException e) {
+                    System.err.println("Error saving occurrence overrides to CSV: " + e.getMessage());
+                }
+            }
+            changes.publish(ChangeEvent.Kind.UPDATED, user.getId(), updated);
+
+            System.out.println("Task updated: " + title + " for " + user.getUsername());
+            return updated;
+        } finally {
+            Metrics.record("task.update", start);
+        }
+    }
+
+    /**
+     * Finds the tasks of the user that overlap a new task on one of its dates. A repeating new task is checked on
+     * its dates of the next year, and each conflicting task is returned once, with the first date they overlap.
+     * The dates are looked up in the user's index, so it does not go through all the user's tasks. Skipped dates do
+     * not conflict, and moved or retimed dates conflict at their new time.
+     * @param user, the current user (User)
+     * @param startHour, the new task's start hour (String)
+     * @param endHour, the new task's end hour (String)
+     * @param repeat, the new task's repetition type (String)
+     * @param eventDate, the new task's date (String)
+     * @return the conflicting tasks with the date of the first conflict, sorted by date and start (List)
+     */
+    public List<Occurrence> findConflicts(User user, String startHour, String endHour, String repeat, String eventDate) {
+        long start = System.nanoTime();
         try {
-            saveTasksToCSV("data/tasks.csv");
-        } catch (IOException e) {
-            System.err.println("Error saving tasks to CSV: " + e.getMessage());
+            LocalDate startDate = Recurrence.parseDate(eventDate);
+            Task candidate = new Task(0, user.getId(), "", startHour, endHour, repeat, "", eventDate, "");
+            int startMinute = getStartMinute(candidate);
+            int endMinute = getEndMinute(candidate);
+            if (startDate == null || startMinute == TimeParser.INVALID || endMinute == TimeParser.INVALID) {
+                return List.of();
+            }
+
+            Map<Integer, Occurrence> conflicts = new LinkedHashMap<>();
+            LocalDate lastDate = startDate.plusDays(CONFLICT_HORIZON_DAYS - 1);
+            ReentrantLock lock = userLocks.forUser(user.getId());
+            lock.lock();
+            try {
+                TaskIndex index = indexOf(user.getId());
+                LocalDate date = Recurrence.nextOccurrence(repeat, startDate, startDate);
+                while (date != null && !date.isAfter(lastDate)) {
+                    for (Occurrence occurrence : overlapping(user, index, date, startMinute, endMinute)) {
+                        conflicts.putIfAbsent(occurrence.task().getId(), occurrence);
+                    }
+                    date = Recurrence.nextOccurrence(repeat, startDate, date.plusDays(1));
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            List<Occurrence> sorted = new ArrayList<>(conflicts.values());
+            sorted.sort(Comparator.comparing(Occurrence::date)
+                    .thenComparingInt(occurrence -> getStartMinute(occurrence.task())));
+            return sorted;
+        } finally {
+            Metrics.record("task.conflicts", start);
+        }
+    }
+
+    /**
+     * Finds the earliest free times of the user, between 8AM and 10PM, where a task of a given duration fits.
+     * The busy quarter hours of each day are marked in a bitmap from the user's task index, including the
+     * repetitions, and the free times are found a word of the bitmap at a time. On today, only the times after now
+     * are suggested. The free times returned do not overlap each other.
+     * @param user, the current user (User)
+     * @param from, the first date (LocalDate)
+     * @param to, the last date, at most a year after the first one (LocalDate)
+     * @param durationMinutes, the duration of the task (int)
+     * @param limit, the maximum number of free times (int)
+     * @return the free times, the earliest first (List)
+     */
+    public List<TimeSlot> findFreeSlots(User user, LocalDate from, LocalDate to, int durationMinutes, int limit) {
+        long start = System.nanoTime();
+        try {
+            int days = (int) Math.min(MAX_FREE_SLOT_DAYS, ChronoUnit.DAYS.between(from, to) + 1);
+            if (days <= 0 || durationMinutes <= 0 || limit <= 0) return List.of();
+            return findFreeSlots(getBusyBitmap(user, from, days), from, durationMinutes, limit);
+        } finally {
+            Metrics.record("task.freeSlots", start);
+        }
+    }
+
+    /**
+     * Builds the bitmap of the quarter hours when the user has a task, repetitions and changed dates included, from
+     * the user's index
+     * @param user, the user (User)
+     * @param from, the date of the first day of the bitmap (LocalDate)
+     * @param days, the number of days (int)
+     * @return the busy quarter hours (OccupancyBitmap)
+     */
+    public OccupancyBitmap getBusyBitmap(User user, LocalDate from, int days) {
+        OccupancyBitmap bitmap = new OccupancyBitmap(days);
+        ReentrantLock lock = userLocks.forUser(user.getId());
+        lock.lock();
+        try {
+            TaskIndex index = indexOf(user.getId());
+            boolean checkOverrides = hasOverrides();
+            for (int day = 0; day < days; day++) {
+                LocalDate date = from.plusDays(day);
+                if (!checkOverrides) {
+                    index.markBusy(date, bitmap, day);
+                    continue;
+                }
+                for (Occurrence occurrence : overlapping(user, index, date, 0, TimeParser.MINUTES_PER_DAY)) {
+                    bitmap.markBusy(day, getStartMinute(occurrence.task()), getEndMinute(occurrence.task()));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return bitmap;
+    }
+
+    /**
+     * Gets the version of a user's tasks, which changes every time one of them is added or removed
+     * @param user, the user (User)
+     * @return the version (long)
+     */
+    public long getTasksVersion(User user) {
+        ReentrantLock lock = userLocks.forUser(user.getId());
+        lock.lock();
+        try {
+            return indexOf(user.getId()).getVersion();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finds the earliest free times between 8AM and 10PM of a busy bitmap where a task of a given duration fits.
+     * On today, only the times after now are suggested, and the free times do not overlap each other.
+     * @param busy, the busy quarter hours (OccupancyBitmap)
+     * @param from, the date of the first day of the bitmap (LocalDate)
+     * @param durationMinutes, the duration of the task (int)
+     * @param limit, the maximum number of free times (int)
+     * @return the free times, the earliest first (List)
+     */
+    static List<TimeSlot> findFreeSlots(OccupancyBitmap busy, LocalDate from, int durationMinutes, int limit) {
+        int slots = (durationMinutes + OccupancyBitmap.SLOT_MINUTES - 1) / OccupancyBitmap.SLOT_MINUTES;
+        int dayStartSlot = FREE_DAY_START_MINUTE / OccupancyBitmap.SLOT_MINUTES;
+        int dayEndSlot = FREE_DAY_END_MINUTE / OccupancyBitmap.SLOT_MINUTES;
+        LocalDateTime now = LocalDateTime.now();
+
+        List<TimeSlot> free = new ArrayList<>();
+        for (int day = 0; day < busy.getDays() && free.size() < limit; day++) {
+            LocalDate date = from.plusDays(day);
+            if (date.isBefore(now.toLocalDate())) continue;
+
+            int firstSlot = dayStartSlot;
+            if (date.equals(now.toLocalDate())) {
+                int nowSlot = (now.getHour() * 60 + now.getMinute() + OccupancyBitmap.SLOT_MINUTES - 1) / OccupancyBitmap.SLOT_MINUTES;
+                firstSlot = Math.max(firstSlot, nowSlot);
+            }
+
+            int slot = busy.findFree(day, slots, firstSlot, dayEndSlot);
+            while (slot >= 0 && free.size() < limit) {
+                int startMinute = slot * OccupancyBitmap.SLOT_MINUTES;
+                free.add(new TimeSlot(date, startMinute, startMinute + durationMinutes));
+                slot = busy.findFree(day, slots, slot + slots, dayEndSlot);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Helper method to find the occurrences of the user's tasks on a date that overlap a time, as the calendar shows
+     * them: skipped dates are left out and moved or retimed dates are checked at their new time. The caller holds the
+     * user's lock.
+     * @param user, the user (User)
+     * @param index, the user's index (TaskIndex)
+     * @param date, the date (LocalDate)
+     * @param startMinute, the start of the time (int)
+     * @param endMinute, the end of the time (int)
+     * @return the occurrences, in no particular order (List)
+     */
+    private List<Occurrence> overlapping(User user, TaskIndex index, LocalDate date, int startMinute, int endMinute) {
+        List<Occurrence> found = new ArrayList<>();
+        if (!hasOverrides()) {
+            for (Task task : index.overlapping(date, startMinute, endMinute)) {
+                found.add(new Occurrence(task, date));
+            }
+            return found;
         }
 
-        System.out.println("Task created: " + title + " for " + user.getUsername());
-        return newTask;
+        // A retimed date may overlap the time while its task's usual time does not, so the whole day is checked
+        for (Task task : index.overlapping(date, 0, TimeParser.MINUTES_PER_DAY)) {
+            Occurrence occurrence = resolveOccurrence(task, date);
+            if (occurrence != null && overlaps(occurrence.task(), startMinute, endMinute)) found.add(occurrence);
+        }
+        for (Occurrence occurrence : getMovedOccurrences(user, date)) {
+            if (overlaps(occurrence.task(), startMinute, endMinute)) found.add(occurrence);
+        }
+        return found;
+    }
+
+    /**
+     * Helper method to check if a task overlaps a time of the day
+     * @param task, the task (Task)
+     * @param startMinute, the start of the time (int)
+     * @param endMinute, the end of the time (int)
+     * @return true if they overlap, false if an hour of the task is not valid (boolean)
+     */
+    private static boolean overlaps(Task task, int startMinute, int endMinute) {
+        int start = getStartMinute(task);
+        int end = getEndMinute(task);
+        return start != TimeParser.INVALID && end != TimeParser.INVALID && start < endMinute && end > startMinute;
+    }
+
+    /**
+     * Helper method to get the task index of a user, creating it the first time
+     * @param userId, the user's id (int)
+     * @return the index (TaskIndex)
+     */
+    private TaskIndex indexOf(int userId) {
+        return indexes.computeIfAbsent(userId, key -> new TaskIndex());
     }
 
     /**
@@ -131,42 +732,416 @@ public class TaskController {
      * @param task, the task the user wants to delete (Task)
      */
     public void deleteTask(User user, Task task) {
-        tasks.remove(task);
-        user.getTasks().remove(task);
+        long start = System.nanoTime();
+        try {
+            boolean removed;
+            ReentrantLock lock = userLocks.forUser(user.getId());
+            lock.lock();
+            try {
+                tasks.remove(task.getId(), task);
+                removed = user.removeTask(task);
+                if (removed) {
+                    indexOf(user.getId()).remove(task);
+                    statistics.taskRemoved(task);
+                    long saveStart = System.nanoTime();
+                    try {
+                        getStore().delete(task.getId());
+                    } catch (IOException e) {
+                        System.err.println("Error deleting the task: " + e.getMessage());
+                    } finally {
+                        Metrics.record("tasks.save", saveStart);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
 
+            if (removed) {
+                try {
+                    overrides.removeTask(task.getId());
+                } catch (IOException e) {
+                    System.err.println("Error saving occurrence overrides to CSV: " + e.getMessage());
+                }
+                changes.publish(ChangeEvent.Kind.DELETED, user.getId(), task);
+            }
+
+            System.out.println("Task deleted: " + task.getTitle());
+        } finally {
+            Metrics.record("task.delete", start);
+        }
+    }
+
+    /**
+     * Helper method to write a task to its slot of the record file, a new task to a free slot. The caller holds the
+     * lock of the task's user, so the writes of one task are in the order of its changes.
+     * @param task, the task (Task)
+     */
+    private void saveTask(Task task) {
+        long start = System.nanoTime();
         try {
-            saveTasksToCSV("data/tasks.csv");
+            getStore().put(task);
         } catch (IOException e) {
-            System.err.println("Error saving tasks to CSV: " + e.getMessage());
+            System.err.println("Error saving the task: " + e.getMessage());
+        } finally {
+            Metrics.record("tasks.save", start);
         }
+    }
 
-        System.out.println("Task deleted: " + task.getTitle());
+    /**
+     * Helper method to get the record file of the tasks, opening the one of data/tasks.csv when no tasks were loaded
+     * @return the record file (RecordStore)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private RecordStore<Task> getStore() throws IOException {
+        RecordStore<Task> opened = store;
+        if (opened == null) {
+            synchronized (this) {
+                opened = store;
+                if (opened == null) {
+                    opened = RecordStore.open(recordFile(TASKS_FILE_PATH, ".dat").toPath(),
+                            recordFile(TASKS_FILE_PATH, ".heap").toPath(), TASK_CODEC);
+                    store = opened;
+                }
+            }
+        }
+        return opened;
     }
 
     /**
-     * Saves the tasks on the tasks file
-     * @param filePath, the tasks file (String)
+     * Helper method to close the record file before the tasks are loaded again
      * @throws IOException, throws exceptions related to file I/O
      */
-    private void saveTasksToCSV(String filePath) throws IOException {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath))) {
-            bw.write("id,userId,title,startHour,endHour,repeat,description,eventDate,priority\n");
+    private synchronized void closeStore() throws IOException {
+        RecordStore<Task> opened = store;
+        store = null;
+        if (opened != null) opened.close();
+    }
+
+    /**
+     * Helper method to get a record file next to a csv file, e.g. data/tasks.dat for data/tasks.csv
+     * @param filePath, the csv file (String)
+     * @param extension, the extension of the record file (String)
+     * @return the record file (File)
+     */
+    static File recordFile(String filePath, String extension) {
+        String name = filePath.endsWith(".csv") ? filePath.substring(0, filePath.length() - 4) : filePath;
+        return new File(name + extension);
+    }
 
-            for (Task task : tasks) {
-                bw.write(String.format(
-                        "%d,%d,%s,%s,%s,%s,%s,%s,%s\n",
-                        task.getId(),
-                        task.getUserId(),
-                        task.getTitle(),
-                        task.getStartHour(),
-                        task.getEndHour(),
-                        task.getRepeat(),
-                        task.getDescription(),
-                        task.getEventDate(),
-                        task.getPriority()
-                ));
+    /**
+     * Helper method to read a task from a line of the tasks file, also used for the archived tasks. The names of
+     * the task's labels are in an optional 10th column, and the texts may be quoted by formatTask.
+     * @param line, the line (String)
+     * @return the task, or null if the line has fewer than 9 columns (Task)
+     * @throws NumberFormatException if an id is not a number
+     */
+    static Task parseTask(String line) {
+        String[] data = CsvLine.split(line);
+        if (data.length < 9) return null;
+
+        int id = Integer.parseInt(data[0].trim());
+        int userId = Integer.parseInt(data[1].trim());
+        String title = data[2].trim();
+        String startHour = data[3].trim();
+        String endHour = data[4].trim();
+        String repeat = data[5].trim();
+        String description = data[6].trim();
+        String eventDate = data[7].trim();
+        String priority = data[8].trim();
+
+        Task task = new Task(id, userId, title, startHour, endHour, repeat, description, eventDate, priority);
+        if (data.length > 9) task.setLabels(parseLabels(userId, data[9].trim()));
+        return task;
+    }
+
+    /**
+     * Helper method to write a task as a line of the tasks file, without the line break. The texts with a comma, a
+     * quote or a line break are quoted, so they are read back by parseTask as they were.
+     * @param task, the task (Task)
+     * @return the line (String)
+     */
+    static String formatTask(Task task) {
+        return CsvLine.join(
+                task.getId(),
+                task.getUserId(),
+                task.getTitle(),
+                task.getStartHour(),
+                task.getEndHour(),
+                task.getRepeat(),
+                task.getDescription(),
+                task.getEventDate(),
+                task.getPriority(),
+                formatLabels(task)
+        );
+    }
+
+    /**
+     * Helper method to write the names of a task's labels as one text
+     * @param task, the task (Task)
+     * @return the names separated by semicolons, empty if the task has no labels (String)
+     */
+    static String formatLabels(Task task) {
+        if (task.getLabels() == null) return "";
+        List<String> names = new ArrayList<>(task.getLabels().size());
+        for (Label label : task.getLabels()) {
+            names.add(label.getName());
+        }
+        return String.join(LABEL_SEPARATOR, names);
+    }
+
+    /**
+     * Helper method to read the labels of a task from the names written by formatLabels. Only the names are saved
+     * with the task, the colors are in the labels file.
+     * @param userId, the id of the task's user (int)
+     * @param names, the names separated by semicolons, may be null or empty (String)
+     * @return the labels (ArrayList)
+     */
+    static ArrayList<Label> parseLabels(int userId, String names) {
+        ArrayList<Label> labels = new ArrayList<>();
+        if (names == null || names.isBlank()) return labels;
+        for (String name : names.split(LABEL_SEPARATOR)) {
+            if (!name.isBlank()) labels.add(new Label(userId, name.trim(), ""));
+        }
+        return labels;
+    }
+
+    /**
+     * Gets the tasks of the user that happen on a date, including the repetitions of recurring tasks.
+     * Views call it for the dates they show, so nothing is expanded for dates that are not visible.
+     * @param user, the current user (User)
+     * @param date, the date (LocalDate)
+     * @return the occurrences on that date (List)
+     */
+    public List<Occurrence> getOccurrencesOn(User user, LocalDate date) {
+        List<Occurrence> occurrences = new ArrayList<>();
+        for (Task task : user.getTasks()) {
+            if (Recurrence.occursOn(task, date)) {
+                Occurrence occurrence = resolveOccurrence(task, date);
+                if (occurrence != null) occurrences.add(occurrence);
             }
         }
+        occurrences.addAll(getMovedOccurrences(user, date));
+        occurrences.addAll(getArchivedOccurrences(user, date));
+        occurrences.sort(Comparator.comparingInt(occurrence -> getStartMinute(occurrence.task())));
+        return occurrences;
+    }
+
+    /**
+     * Gets the tasks of the user between two dates, ordered by date and start time, as a calendar that is read day
+     * by day: only the occurrences of the day being read are kept, whatever the number of days.
+     * @param user, the user (User)
+     * @param from, the first date (LocalDate)
+     * @param to, the last date (LocalDate)
+     * @param filter, the tasks to keep, e.g. the tasks with a label (Predicate)
+     * @return the occurrences (Iterator)
+     */
+    public Iterator<Occurrence> getOccurrencesBetween(User user, LocalDate from, LocalDate to, Predicate<Task> filter) {
+        return new Iterator<>() {
+            private LocalDate nextDate = from;
+            private Iterator<Occurrence> day = List.<Occurrence>of().iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!day.hasNext() && !nextDate.isAfter(to)) {
+                    List<Occurrence> occurrences = getOccurrencesOn(user, nextDate);
+                    occurrences.removeIf(occurrence -> !filter.test(occurrence.task()));
+                    day = occurrences.iterator();
+                    nextDate = nextDate.plusDays(1);
+                }
+                return day.hasNext();
+            }
+
+            @Override
+            public Occurrence next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return day.next();
+            }
+        };
+    }
+
+    /**
+     * Applies the override of a date to a task that happens on it by its repetition rule
+     * @param task, the task (Task)
+     * @param date, a date the task happens on (LocalDate)
+     * @return the occurrence, with a changed copy of the task if it was moved in time or renamed, or null if the date
+     *     is skipped or moved to another date (Occurrence)
+     */
+    public Occurrence resolveOccurrence(Task task, LocalDate date) {
+        OccurrenceOverride override = overrides.get(task.getId(), date);
+        if (override == null) return new Occurrence(task, date);
+        if (override.isSkipped() || override.isMoved()) return null;
+        return new Occurrence(override.apply(task), date);
+    }
+
+    /**
+     * Gets the occurrences of the user's tasks that were moved to a date from another date
+     * @param user, the current user (User)
+     * @param date, the date (LocalDate)
+     * @return the moved occurrences, with a changed copy of their task (List)
+     */
+    public List<Occurrence> getMovedOccurrences(User user, LocalDate date) {
+        List<Occurrence> moved = new ArrayList<>();
+        for (OccurrenceOverride override : overrides.getMovedTo(date)) {
+            Task task = findTask(user, override.taskId());
+            if (task != null) moved.add(new Occurrence(override.apply(task), date, override.date()));
+        }
+        return moved;
+    }
+
+    /**
+     * Gets the user's past tasks on a date from the archive. The month of the date is read only the first time one
+     * of its dates is shown.
+     * @param user, the current user (User)
+     * @param date, the date (LocalDate)
+     * @return the archived occurrences, empty for the dates that are never archived (List)
+     */
+    public List<Occurrence> getArchivedOccurrences(User user, LocalDate date) {
+        List<Task> archived = archive.getTasksOn(user.getId(), date);
+        if (archived.isEmpty()) return List.of();
+
+        List<Occurrence> occurrences = new ArrayList<>(archived.size());
+        for (Task task : archived) {
+            occurrences.add(new Occurrence(task, date));
+        }
+        return occurrences;
+    }
+
+    /**
+     * Skips one date of a repeating task, the other dates are not changed
+     * @param user, the current user (User)
+     * @param task, the task (Task)
+     * @param date, the date to skip (LocalDate)
+     * @throws IllegalArgumentException if the task does not happen on the date
+     */
+    public void skipOccurrence(User user, Task task, LocalDate date) {
+        saveOverride(user, task, OccurrenceOverride.skip(task.getId(), date));
+        System.out.println("Occurrence skipped: " + task.getTitle() + " on " + date);
+    }
+
+    /**
+     * Moves or renames one date of a repeating task, the other dates are not changed
+     * @param user, the current user (User)
+     * @param task, the task (Task)
+     * @param date, the date to change (LocalDate)
+     * @param newDate, the date of the occurrence (LocalDate)
+     * @param title, the title of the occurrence (String)
+     * @param startHour, the start hour of the occurrence (String)
+     * @param endHour, the end hour of the occurrence (String)
+     * @throws IllegalArgumentException if the task does not happen on the date or an hour is not a valid time
+     */
+    public void overrideOccurrence(User user, Task task, LocalDate date, LocalDate newDate,
+                                   String title, String startHour, String endHour) {
+        if (TimeParser.parseMinuteOfDay(startHour) == TimeParser.INVALID) {
+            throw new IllegalArgumentException("Invalid start hour: " + startHour);
+        }
+        if (TimeParser.parseMinuteOfDay(endHour) == TimeParser.INVALID) {
+            throw new IllegalArgumentException("Invalid end hour: " + endHour);
+        }
+        saveOverride(user, task, new OccurrenceOverride(task.getId(), date, newDate, title, startHour, endHour));
+        System.out.println("Occurrence changed: " + task.getTitle() + " on " + date + " to " + title + " on " + newDate);
+    }
+
+    /**
+     * Helper method to save an override of a task of the user and tell the views that the task changed
+     * @param user, the current user (User)
+     * @param task, the task (Task)
+     * @param override, the override (OccurrenceOverride)
+     */
+    private void saveOverride(User user, Task task, OccurrenceOverride override) {
+        long start = System.nanoTime();
+        try {
+            if (findTask(user, task.getId()) != task) {
+                throw new IllegalArgumentException("Task " + task.getId() + " is not a task of " + user.getUsername());
+            }
+            if (!Recurrence.occursOn(task, override.date())) {
+                throw new IllegalArgumentException(task.getTitle() + " does not happen on " + override.date());
+            }
+
+            try {
+                overrides.put(override);
+            } catch (IOException e) {
+                System.err.println("Error saving occurrence overrides to CSV: " + e.getMessage());
+            }
+            changes.publish(ChangeEvent.Kind.UPDATED, user.getId(), task);
+        } finally {
+            Metrics.record("task.override", start);
+        }
+    }
+
+    /**
+     * Gets the override of one date of a task
+     * @param taskId, the task's id (int)
+     * @param date, the date (LocalDate)
+     * @return the override, or null if that date is not changed (OccurrenceOverride)
+     */
+    OccurrenceOverride getOverride(int taskId, LocalDate date) {
+        return overrides.get(taskId, date);
+    }
+
+    /**
+     * Gets the occurrences of a task moved from one of its dates to another date
+     * @param taskId, the task's id (int)
+     * @return the overrides of the moved occurrences (List)
+     */
+    List<OccurrenceOverride> getMovedOverrides(int taskId) {
+        return overrides.getMoved(taskId);
+    }
+
+    /**
+     * Checks if a date of any task is changed
+     * @return true if there is at least one override (boolean)
+     */
+    boolean hasOverrides() {
+        return overrides.size() > 0;
+    }
+
+    /**
+     * Gets the version of the overrides, which changes every time one of them is loaded, added or removed
+     * @return the version (long)
+     */
+    long getOverridesVersion() {
+        return overrides.getVersion();
+    }
+
+    /**
+     * Gets the archive of the past tasks
+     * @return the archive (Archiver)
+     */
+    Archiver getArchive() {
+        return archive;
+    }
+
+    /**
+     * Gets a loaded task by id
+     * @param taskId, the task's id (int)
+     * @return the task, or null if there is none (Task)
+     */
+    Task getTask(int taskId) {
+        return tasks.get(taskId);
+    }
+
+    /**
+     * Gets the minute of the day when a task starts
+     * @param task, the task (Task)
+     * @return the minute of the day, or TimeParser.INVALID (int)
+     */
+    public static int getStartMinute(Task task) {
+        return TimeParser.parseMinuteOfDay(task.getStartHour());
+    }
+
+    /**
+     * Gets the minute of the day when a task ends. A task that ends at or before its start (e.g. 11PM - 12AM)
+     * ends at midnight.
+     * @param task, the task (Task)
+     * @return the minute of the day up to 1440, or TimeParser.INVALID (int)
+     */
+    public static int getEndMinute(Task task) {
+        int start = getStartMinute(task);
+        int end = TimeParser.parseMinuteOfDay(task.getEndHour());
+        if (start != TimeParser.INVALID && end != TimeParser.INVALID && end <= start) {
+            return TimeParser.MINUTES_PER_DAY;
+        }
+        return end;
     }
 
     /**
@@ -175,10 +1150,11 @@ public class TaskController {
      */
     public void getAllTasks(User user) {
         System.out.println("\n=== All Tasks for " + user.getUsername() + " ===");
-        if (user.getTasks().isEmpty()) {
+        List<Task> userTasks = user.getTasks();
+        if (userTasks.isEmpty()) {
             System.out.println("No tasks found.");
         } else {
-            for (Task task : user.getTasks()) {
+            for (Task task : userTasks) {
                 System.out.println(task);
             }
         }
@@ -0,0 +1,49 @@
+package controller;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The UserLocks class gives each user a lock without creating one lock per user.
+ * Users are spread over a fixed number of stripes: two users rarely share a stripe, so changes of different users
+ * run in parallel, while changes of the same user are done one at a time.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class UserLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    /**
+     * UserLocks constructor with four stripes per processor
+     */
+    public UserLocks() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * UserLocks constructor
+     * @param stripeCount, the minimum number of stripes, rounded up to a power of two (int)
+     */
+    public UserLocks(int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Gets the lock of a user
+     * @param userId, the user's id (int)
+     * @return the lock of the stripe the user belongs to (ReentrantLock)
+     */
+    public ReentrantLock forUser(int userId) {
+        // Spread consecutive ids over different stripes
+        int hash = userId * 0x9E3779B9;
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+}
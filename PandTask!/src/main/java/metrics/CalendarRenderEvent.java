@@ -0,0 +1,33 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The CalendarRenderEvent class is the Flight Recorder event of the home page drawing the tasks of the week grid.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+@Name("pandtask.CalendarRender")
+@Label("Calendar Render")
+@Category({"PandTask", "User Interface"})
+@Description("The home page drew the tasks of one or more days of the week grid")
+public class CalendarRenderEvent extends Event {
+
+    @Label("Week Start")
+    public String weekStart;
+
+    @Label("Days")
+    public int days;
+
+    @Label("Tasks Scanned")
+    public int tasksScanned;
+
+    @Label("Cells Created")
+    public int cellsCreated;
+}
@@ -0,0 +1,38 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The Counter class counts events, e.g. failed log ins. Threads that count at the same time do not contend.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class Counter {
+
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Counts one event
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Counts several events
+     * @param events, the number of events (long)
+     */
+    public void add(long events) {
+        count.add(events);
+    }
+
+    /**
+     * Gets the number of events counted
+     * @return the count (long)
+     */
+    public long get() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,42 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * The CsvEvent class is the base of the Flight Recorder events recorded around csv file reads and writes.
+ * A controller calls begin() before using the file and finish() after it; when no recording is running the
+ * event costs almost nothing.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+@Category({"PandTask", "Persistence"})
+public abstract class CsvEvent extends Event {
+
+    @Label("File")
+    String file;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Rows")
+    int rows;
+
+    /**
+     * Ends the event with what was read or written and commits it to the recording
+     * @param file, the csv file (String)
+     * @param bytes, the bytes read or written (long)
+     * @param rows, the rows read or written (int)
+     */
+    public void finish(String file, long bytes, int rows) {
+        this.file = file;
+        this.bytes = bytes;
+        this.rows = rows;
+        commit();
+    }
+}
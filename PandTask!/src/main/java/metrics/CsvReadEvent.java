@@ -0,0 +1,18 @@
+package metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The CsvReadEvent class is the Flight Recorder event of a csv file read by a controller.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+@Name("pandtask.CsvRead")
+@Label("CSV Read")
+@Description("A controller read a csv data file")
+public class CsvReadEvent extends CsvEvent {
+}
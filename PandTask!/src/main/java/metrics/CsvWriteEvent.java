@@ -0,0 +1,18 @@
+package metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The CsvWriteEvent class is the Flight Recorder event of a csv file rewritten or appended to by a controller.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+@Name("pandtask.CsvWrite")
+@Label("CSV Write")
+@Description("A controller rewrote or appended to a csv data file")
+public class CsvWriteEvent extends CsvEvent {
+}
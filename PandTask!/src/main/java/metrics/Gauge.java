@@ -0,0 +1,19 @@
+package metrics;
+
+/**
+ * The Gauge interface reads a value that goes up and down, e.g. the number of loaded tasks.
+ * The value is read only when the metrics are shown, so a gauge costs nothing on the hot path.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+@FunctionalInterface
+public interface Gauge {
+
+    /**
+     * Reads the current value
+     * @return the value (long)
+     */
+    long value();
+}
@@ -0,0 +1,113 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LatencyHistogram class records how long an operation takes, in nanoseconds, and answers percentiles.
+ * Like an HDR histogram, each power of two is split into 32 buckets, so every recorded value is kept with an error
+ * of about 3% from one nanosecond to hours, in a fixed array and without allocating when a value is recorded.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class LatencyHistogram {
+
+    /// Bits kept from each value: values below 64 have their own bucket, bigger ones share a bucket per 1/32
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKET_COUNT = bucketIndex(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records one duration
+     * @param nanos, the duration in nanoseconds, negative values count as 0 (long)
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucketIndex(value));
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Gets the duration below which a percentage of the recorded durations are
+     * @param percentile, the percentage, e.g. 99 (double)
+     * @return the duration in nanoseconds, 0 if nothing was recorded (long)
+     */
+    public long getPercentile(double percentile) {
+        long recorded = 0;
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            recorded += counts[i];
+        }
+        if (recorded == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * recorded));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(highestValueIn(i), getMax());
+        }
+        return getMax();
+    }
+
+    /**
+     * Gets the number of recorded durations
+     * @return the count (long)
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the longest recorded duration
+     * @return the duration in nanoseconds (long)
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the average recorded duration
+     * @return the duration in nanoseconds, 0 if nothing was recorded (long)
+     */
+    public long getMean() {
+        long recorded = count.sum();
+        return recorded == 0 ? 0 : total.sum() / recorded;
+    }
+
+    /**
+     * Helper method to find the bucket of a value. The bucket keeps the 6 highest bits of the value and the
+     * power of two it belongs to.
+     * @param value, a value that is not negative (long)
+     * @return the bucket index (int)
+     */
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+    }
+
+    /**
+     * Helper method to get the highest value that falls in a bucket
+     * @param index, the bucket index (int)
+     * @return the value (long)
+     */
+    private static long highestValueIn(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int shift = index / SUB_BUCKET_HALF - 1;
+        long subBucket = index % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        long highest = ((subBucket + 1) << shift) - 1;
+        return highest < 0 ? Long.MAX_VALUE : highest;
+    }
+}
@@ -0,0 +1,155 @@
+package metrics;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The Metrics class is the registry of the application's counters, gauges and latency histograms.
+ * Operations are timed by taking System.nanoTime() before them and calling record() after them:
+ * <pre>
+ * long start = System.nanoTime();
+ * try {
+ *     ...
+ * } finally {
+ *     Metrics.record("task.create", start);
+ * }
+ * </pre>
+ * The report shows the count, p50, p99 and max of each operation, and can be written to data/metrics.txt.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public final class Metrics {
+
+    public static final String METRICS_FILE_PATH = "data/metrics.txt";
+
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * The last operation that finished, with the thread that ran it
+     * @param name, the operation's name (String)
+     * @param nanos, how long it took (long)
+     * @param thread, the name of the thread (String)
+     */
+    public record Operation(String name, long nanos, String thread) {}
+
+    private static volatile Operation lastOperation;
+
+    static {
+        gauge("jvm.heap.used.bytes", () -> {
+            Runtime runtime = Runtime.getRuntime();
+            return runtime.totalMemory() - runtime.freeMemory();
+        });
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Gets the counter with a name, creating it the first time
+     * @param name, the counter's name (String)
+     * @return the counter (Counter)
+     */
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Registers a gauge, replacing the one with the same name
+     * @param name, the gauge's name (String)
+     * @param gauge, reads the value (Gauge)
+     */
+    public static void gauge(String name, Gauge gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Gets the latency histogram with a name, creating it the first time
+     * @param name, the operation's name (String)
+     * @return the histogram (LatencyHistogram)
+     */
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Records the duration of an operation that started at startNanos
+     * @param name, the operation's name (String)
+     * @param startNanos, System.nanoTime() when the operation started (long)
+     * @return the duration in nanoseconds (long)
+     */
+    public static long record(String name, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        histogram(name).record(nanos);
+        lastOperation = new Operation(name, nanos, Thread.currentThread().getName());
+        return nanos;
+    }
+
+    /**
+     * Gets the last operation recorded by any thread
+     * @return the operation, or null if nothing was recorded yet (Operation)
+     */
+    public static Operation getLastOperation() {
+        return lastOperation;
+    }
+
+    /**
+     * Creates a report of every metric, sorted by name. Durations are shown in milliseconds.
+     * @return the report (String)
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== PandTask metrics ").append(LocalDateTime.now().withNano(0)).append(" ===\n");
+
+        sb.append(String.format("%-32s %8s %10s %10s %10s %10s%n", "operation", "count", "mean ms", "p50 ms", "p99 ms", "max ms"));
+        for (Map.Entry<String, LatencyHistogram> entry : new ConcurrentSkipListMap<>(histograms).entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            sb.append(String.format("%-32s %8d %10.3f %10.3f %10.3f %10.3f%n",
+                    entry.getKey(),
+                    histogram.getCount(),
+                    toMillis(histogram.getMean()),
+                    toMillis(histogram.getPercentile(50)),
+                    toMillis(histogram.getPercentile(99)),
+                    toMillis(histogram.getMax())));
+        }
+
+        if (!counters.isEmpty()) {
+            sb.append("\ncounters\n");
+            for (Map.Entry<String, Counter> entry : new ConcurrentSkipListMap<>(counters).entrySet()) {
+                sb.append(String.format("%-32s %12d%n", entry.getKey(), entry.getValue().get()));
+            }
+        }
+
+        sb.append("\ngauges\n");
+        for (Map.Entry<String, Gauge> entry : new ConcurrentSkipListMap<>(gauges).entrySet()) {
+            sb.append(String.format("%-32s %12d%n", entry.getKey(), entry.getValue().value()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the report to a file, replacing the previous one
+     * @param filePath, the file (String)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    public static void dump(String filePath) throws IOException {
+        File file = new File(filePath);
+        if (file.getParentFile() != null) file.getParentFile().mkdirs();
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
+            bw.write(report());
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
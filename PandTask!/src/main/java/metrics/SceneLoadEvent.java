@@ -0,0 +1,32 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The SceneLoadEvent class is the Flight Recorder event of a page shown by the SceneManager, including the time
+ * spent parsing its FXML when it was not preloaded.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+@Name("pandtask.SceneLoad")
+@Label("Scene Load")
+@Category({"PandTask", "User Interface"})
+@Description("A page was shown, loading its FXML if it was not cached")
+public class SceneLoadEvent extends Event {
+
+    @Label("FXML")
+    public String fxml;
+
+    @Label("Title")
+    public String title;
+
+    @Label("Cached")
+    @Description("The page was already loaded or preloaded")
+    public boolean cached;
+}
@@ -0,0 +1,26 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * The Occurrence record represents one appearance of a task on the calendar.
+ * A task that does not repeat has a single occurrence, a repeating task has one per matching date.
+ * @param task, the task, or a changed copy of it if this date was moved or renamed (Task)
+ * @param date, the date of this occurrence (LocalDate)
+ * @param originalDate, the date of the repetition it comes from, different from date if it was moved (LocalDate)
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public record Occurrence(Task task, LocalDate date, LocalDate originalDate) {
+
+    /**
+     * Occurrence constructor for an occurrence that is on the date of its repetition
+     * @param task, the task (Task)
+     * @param date, the date of this occurrence (LocalDate)
+     */
+    public Occurrence(Task task, LocalDate date) {
+        this(task, date, date);
+    }
+}
@@ -0,0 +1,62 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * The OccurrenceOverride record represents a change to one date of a repeating task: the date is skipped, or that
+ * occurrence is moved to another date or time or renamed. The other dates of the task are not changed.
+ * @param taskId, the id of the repeating task (int)
+ * @param date, the date of the occurrence that is changed (LocalDate)
+ * @param newDate, the date the occurrence is moved to, the same date if it is not moved, or null if it is skipped (LocalDate)
+ * @param title, the title of the occurrence, or null to keep the task's title (String)
+ * @param startHour, the start hour of the occurrence, or null to keep the task's start hour (String)
+ * @param endHour, the end hour of the occurrence, or null to keep the task's end hour (String)
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public record OccurrenceOverride(int taskId, LocalDate date, LocalDate newDate, String title, String startHour, String endHour) {
+
+    /**
+     * Creates the override that skips one date of a task
+     * @param taskId, the id of the repeating task (int)
+     * @param date, the skipped date (LocalDate)
+     * @return the override (OccurrenceOverride)
+     */
+    public static OccurrenceOverride skip(int taskId, LocalDate date) {
+        return new OccurrenceOverride(taskId, date, null, null, null, null);
+    }
+
+    /**
+     * Checks if the occurrence is skipped
+     * @return true if the task does not happen on the date (boolean)
+     */
+    public boolean isSkipped() {
+        return newDate == null;
+    }
+
+    /**
+     * Checks if the occurrence is moved to another date
+     * @return true if it happens on another date (boolean)
+     */
+    public boolean isMoved() {
+        return newDate != null && !newDate.equals(date);
+    }
+
+    /**
+     * Creates the task shown for the occurrence: a copy of the task on the new date, with the new title and hours,
+     * that does not repeat. The copy keeps the id of the task.
+     * @param task, the repeating task (Task)
+     * @return the task of the occurrence (Task)
+     */
+    public Task apply(Task task) {
+        Task copy = new Task(task.getId(), task.getUserId(),
+                title != null ? title : task.getTitle(),
+                startHour != null ? startHour : task.getStartHour(),
+                endHour != null ? endHour : task.getEndHour(),
+                "None", task.getDescription(), newDate.toString(), task.getPriority());
+        copy.setLabels(task.getLabels());
+        return copy;
+    }
+}
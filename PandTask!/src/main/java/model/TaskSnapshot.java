@@ -0,0 +1,66 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The TaskSnapshot record represents the tasks of a user at one point in time.
+ * A snapshot never changes: every change to the user's tasks publishes a new snapshot with the next version,
+ * so a view can keep iterating the snapshot it read while another thread adds or deletes tasks.
+ * @param version, the number of changes made before this snapshot (long)
+ * @param tasks, the tasks, unmodifiable (List)
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public record TaskSnapshot(long version, List<Task> tasks) {
+
+    /// The snapshot of a user without tasks
+    public static final TaskSnapshot EMPTY = new TaskSnapshot(0, List.of());
+
+    public TaskSnapshot {
+        tasks = List.copyOf(tasks);
+    }
+
+    /**
+     * Creates the next snapshot with a task added at the end
+     * @param task, the task to add (Task)
+     * @return the new snapshot (TaskSnapshot)
+     */
+    public TaskSnapshot with(Task task) {
+        List<Task> copy = new ArrayList<>(tasks.size() + 1);
+        copy.addAll(tasks);
+        copy.add(task);
+        return new TaskSnapshot(version + 1, copy);
+    }
+
+    /**
+     * Creates the next snapshot without a task
+     * @param task, the task to remove (Task)
+     * @return the new snapshot, or this snapshot if it does not have the task (TaskSnapshot)
+     */
+    public TaskSnapshot without(Task task) {
+        int index = tasks.indexOf(task);
+        if (index < 0) return this;
+
+        List<Task> copy = new ArrayList<>(tasks);
+        copy.remove(index);
+        return new TaskSnapshot(version + 1, copy);
+    }
+
+    /**
+     * Creates the next snapshot with a task replaced by its changed copy, at the same position
+     * @param task, the task to replace (Task)
+     * @param changed, the changed copy (Task)
+     * @return the new snapshot, or this snapshot if it does not have the task (TaskSnapshot)
+     */
+    public TaskSnapshot replacing(Task task, Task changed) {
+        int index = tasks.indexOf(task);
+        if (index < 0) return this;
+
+        List<Task> copy = new ArrayList<>(tasks);
+        copy.set(index, changed);
+        return new TaskSnapshot(version + 1, copy);
+    }
+}
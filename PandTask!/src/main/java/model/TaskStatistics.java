@@ -0,0 +1,34 @@
+package model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * The TaskStatistics record represents a snapshot of the statistics of a user: how many tasks they have by priority,
+ * label, week and day of the week of their first date, and how many quick tasks they added and completed.
+ * @param taskCount, the number of tasks (int)
+ * @param tasksByPriority, the number of tasks of each priority (Map)
+ * @param tasksByLabel, the number of tasks with each label (Map)
+ * @param tasksByWeek, the number of tasks by the Sunday of the week of their first date, in order (SortedMap)
+ * @param tasksByWeekday, the number of tasks by the day of the week of their first date (Map)
+ * @param quickTasksAdded, the number of quick tasks ever added (int)
+ * @param quickTasksCompleted, the number of quick tasks ever completed (int)
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public record TaskStatistics(int taskCount, Map<String, Integer> tasksByPriority, Map<String, Integer> tasksByLabel,
+                             SortedMap<LocalDate, Integer> tasksByWeek, Map<DayOfWeek, Integer> tasksByWeekday,
+                             int quickTasksAdded, int quickTasksCompleted) {
+
+    /**
+     * Gets the share of the added quick tasks that were completed
+     * @return the completion rate from 0 to 1, 0 if no quick task was added (double)
+     */
+    public double getQuickTaskCompletionRate() {
+        return quickTasksAdded == 0 ? 0 : Math.min(1.0, (double) quickTasksCompleted / quickTasksAdded);
+    }
+}
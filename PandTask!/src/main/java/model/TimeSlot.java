@@ -0,0 +1,34 @@
+package model;
+
+import util.TimeParser;
+
+import java.time.LocalDate;
+
+/**
+ * The TimeSlot record represents a time of a date, e.g. a free time found for a new task.
+ * @param date, the date (LocalDate)
+ * @param startMinute, the minute of the day when it starts (int)
+ * @param endMinute, the minute of the day when it ends, up to 1440 (int)
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public record TimeSlot(LocalDate date, int startMinute, int endMinute) {
+
+    /**
+     * Gets the start hour written like the hours of the tasks, e.g. 9:30AM
+     * @return the start hour (String)
+     */
+    public String getStartHour() {
+        return TimeParser.format(startMinute);
+    }
+
+    /**
+     * Gets the end hour written like the hours of the tasks
+     * @return the end hour (String)
+     */
+    public String getEndHour() {
+        return TimeParser.format(endMinute);
+    }
+}
@@ -1,6 +1,7 @@
 package model;
 
-import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The User class represents the current user using the application.
@@ -14,7 +15,8 @@ public class User {
     private String username;
     private String email;
     private String password;
-    private ArrayList<Task> tasks;
+    /// The current tasks, replaced as a whole on every change so readers never need a lock
+    private final AtomicReference<TaskSnapshot> tasks = new AtomicReference<>(TaskSnapshot.EMPTY);
 
     /**
      * User constructor
@@ -28,7 +30,51 @@ public class User {
         setUsername(username);
         setEmail(email);
         setPassword(password);
-        this.tasks = new ArrayList<>();
+    }
+
+    /**
+     * Adds a task to the user by publishing a new snapshot
+     * @param task, the task (Task)
+     */
+    public void addTask(Task task) {
+        tasks.updateAndGet(snapshot -> snapshot.with(task));
+    }
+
+    /**
+     * Removes a task from the user by publishing a new snapshot
+     * @param task, the task (Task)
+     * @return true if the user had the task (boolean)
+     */
+    public boolean removeTask(Task task) {
+        TaskSnapshot before = tasks.getAndUpdate(snapshot -> snapshot.without(task));
+        return before.tasks().contains(task);
+    }
+
+    /**
+     * Replaces a task of the user with its changed copy by publishing a new snapshot
+     * @param task, the task (Task)
+     * @param changed, the changed copy (Task)
+     * @return true if the user had the task (boolean)
+     */
+    public boolean replaceTask(Task task, Task changed) {
+        TaskSnapshot before = tasks.getAndUpdate(snapshot -> snapshot.replacing(task, changed));
+        return before.tasks().contains(task);
+    }
+
+    /**
+     * Gets the current snapshot of the user's tasks together with its version
+     * @return the snapshot (TaskSnapshot)
+     */
+    public TaskSnapshot getTaskSnapshot() {
+        return tasks.get();
+    }
+
+    /**
+     * Gets the version of the user's tasks, which changes every time a task is added, changed or removed
+     * @return the version (long)
+     */
+    public long getTaskVersion() {
+        return tasks.get().version();
     }
 
     /**
@@ -67,11 +113,19 @@ public class User {
         this.password = password;
     }
 
-    public ArrayList<Task> getTasks() {
-        return tasks;
+    /**
+     * Gets the user's tasks as they are now. The list cannot be modified and does not change afterwards.
+     * @return the tasks (List)
+     */
+    public List<Task> getTasks() {
+        return tasks.get().tasks();
     }
 
-    public void setTasks(ArrayList<Task> tasks) {
-        this.tasks = tasks;
+    /**
+     * Replaces all the user's tasks with a new snapshot
+     * @param tasks, the tasks (List)
+     */
+    public void setTasks(List<Task> tasks) {
+        this.tasks.updateAndGet(snapshot -> new TaskSnapshot(snapshot.version() + 1, tasks));
     }
 }
\ No newline at end of file
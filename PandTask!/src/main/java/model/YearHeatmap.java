@@ -0,0 +1,38 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * The YearHeatmap record represents how busy a user is on every day of a year: the minutes of tasks on each day,
+ * repetitions included. A heatmap is shared by the views that show it, so the array is never changed.
+ * @param year, the year (int)
+ * @param busyMinutes, the minutes of tasks of each day, index 0 is January 1st (int[])
+ * @param maxMinutes, the minutes of the busiest day (int)
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public record YearHeatmap(int year, int[] busyMinutes, int maxMinutes) {
+
+    /**
+     * Gets the minutes of tasks on a date of the year
+     * @param date, the date (LocalDate)
+     * @return the minutes, 0 if the date is in another year (int)
+     */
+    public int getBusyMinutes(LocalDate date) {
+        return date.getYear() == year ? busyMinutes[date.getDayOfYear() - 1] : 0;
+    }
+
+    /**
+     * Gets the minutes of tasks in the whole year
+     * @return the minutes (long)
+     */
+    public long getTotalMinutes() {
+        long total = 0;
+        for (int minutes : busyMinutes) {
+            total += minutes;
+        }
+        return total;
+    }
+}
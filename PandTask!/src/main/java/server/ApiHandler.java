@@ -0,0 +1,566 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import controller.AuthController;
+import controller.FreeBusyService;
+import controller.LabelController;
+import controller.QuickTaskController;
+import controller.TaskController;
+import model.Label;
+import model.Occurrence;
+import model.QuickTask;
+import model.Task;
+import model.TimeSlot;
+import model.User;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serial;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ApiHandler class answers the JSON requests of the PandTaskServer by calling the same controllers
+ * used by the desktop application.
+ * Login and sign up answer the user with a token. Every other route needs the header
+ * "Authorization: Bearer {token}", and the /api/users/{userId} routes only answer for the user of the token.
+ * Free/busy answers only the busy and free times of the users, so any user who logged in can ask for it.
+ * <pre>
+ * POST   /api/login                                  {email, password}
+ * POST   /api/signup                                 {username, email, password}
+ * GET    /api/users/{userId}/tasks
+ * POST   /api/users/{userId}/tasks                   {title, startHour, endHour, repeat, description, eventDate, priority, labels}
+ * PUT    /api/users/{userId}/tasks/{taskId}          {title, startHour, endHour, repeat, description, eventDate, priority, labels}
+ * DELETE /api/users/{userId}/tasks/{taskId}
+ * POST   /api/users/{userId}/tasks/{taskId}/skip     {date}
+ * POST   /api/users/{userId}/tasks/{taskId}/override {date, newDate, title, startHour, endHour}
+ * GET    /api/users/{userId}/week?start=yyyy-MM-dd
+ * GET    /api/users/{userId}/labels
+ * POST   /api/users/{userId}/labels                  {name, color}
+ * GET    /api/users/{userId}/quicktasks
+ * POST   /api/users/{userId}/quicktasks              {title}
+ * POST   /api/users/{userId}/quicktasks/{id}/complete
+ * GET    /api/freebusy?users=1,2,3&from=yyyy-MM-dd&to=yyyy-MM-dd[&duration=60&limit=10&match=any|all]
+ * </pre>
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class ApiHandler implements HttpHandler {
+
+    private static final String PREFIX = "/api/";
+    private static final String BEARER = "Bearer ";
+    /// A token stops working this long after the login
+    private static final Duration SESSION_LENGTH = Duration.ofHours(12);
+
+    private final AuthController authController;
+    private final TaskController taskController;
+    private final LabelController labelController;
+    private final QuickTaskController quickTaskController;
+
+    /**
+     * A response: the HTTP status and the value written as JSON
+     */
+    private record Response(int status, Object body) {}
+
+    /**
+     * The user a token was given to, and when the token stops working
+     */
+    private record Session(int userId, Instant expiresAt) {}
+
+    /// Sessions by token, kept in memory so a restart logs every client out
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Thrown by the routes to answer with an error status
+     */
+    private static class ApiException extends RuntimeException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * ApiHandler constructor
+     * @param authController, the authController (AuthController)
+     * @param taskController, the taskController (TaskController)
+     * @param labelController, the labelController (LabelController)
+     * @param quickTaskController, the quickTaskController (QuickTaskController)
+     */
+    public ApiHandler(AuthController authController, TaskController taskController,
+                      LabelController labelController, QuickTaskController quickTaskController) {
+        this.authController = authController;
+        this.taskController = taskController;
+        this.labelController = labelController;
+        this.quickTaskController = quickTaskController;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        Response response;
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String[] parts = path.length() > PREFIX.length() ? path.substring(PREFIX.length()).split("/") : new String[0];
+            response = route(exchange.getRequestMethod(), parts, exchange);
+        } catch (ApiException e) {
+            response = new Response(e.status, Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            response = new Response(400, Map.of("error", String.valueOf(e.getMessage())));
+        } catch (Exception e) {
+            System.err.println("Error handling " + exchange.getRequestURI() + ": " + e.getMessage());
+            response = new Response(500, Map.of("error", "Internal server error"));
+        }
+        send(exchange, response);
+    }
+
+    /**
+     * Helper method to find the route of a request
+     * @param method, the HTTP method (String)
+     * @param parts, the path after /api/ split by '/' (String[])
+     * @param exchange, the request (HttpExchange)
+     * @return the response (Response)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private Response route(String method, String[] parts, HttpExchange exchange) throws IOException {
+        if (parts.length == 1 && parts[0].equals("login") && method.equals("POST")) {
+            return login(readBody(exchange));
+        }
+        if (parts.length == 1 && parts[0].equals("signup") && method.equals("POST")) {
+            return signUp(readBody(exchange));
+        }
+        int sessionUserId = authenticate(exchange);
+        if (parts.length == 1 && parts[0].equals("freebusy") && method.equals("GET")) {
+            return getFreeBusy(getQueryParameters(exchange));
+        }
+        if (parts.length >= 3 && parts[0].equals("users")) {
+            User user = getUser(parts[1], sessionUserId);
+            String resource = parts[2];
+
+            if (resource.equals("tasks") && parts.length == 3 && method.equals("GET")) {
+                return new Response(200, toJsonList(user.getTasks()));
+            }
+            if (resource.equals("tasks") && parts.length == 3 && method.equals("POST")) {
+                return createTask(user, readBody(exchange));
+            }
+            if (resource.equals("tasks") && parts.length == 4 && method.equals("PUT")) {
+                return updateTask(user, parseId(parts[3]), readBody(exchange));
+            }
+            if (resource.equals("tasks") && parts.length == 4 && method.equals("DELETE")) {
+                return deleteTask(user, parseId(parts[3]));
+            }
+            if (resource.equals("tasks") && parts.length == 5 && parts[4].equals("skip") && method.equals("POST")) {
+                return skipOccurrence(user, parseId(parts[3]), readBody(exchange));
+            }
+            if (resource.equals("tasks") && parts.length == 5 && parts[4].equals("override") && method.equals("POST")) {
+                return overrideOccurrence(user, parseId(parts[3]), readBody(exchange));
+            }
+            if (resource.equals("week") && parts.length == 3 && method.equals("GET")) {
+                return getWeek(user, getQueryParameters(exchange).get("start"));
+            }
+            if (resource.equals("labels") && parts.length == 3 && method.equals("GET")) {
+                return getLabels(user);
+            }
+            if (resource.equals("labels") && parts.length == 3 && method.equals("POST")) {
+                return addLabel(user, readBody(exchange));
+            }
+            if (resource.equals("quicktasks") && parts.length == 3 && method.equals("GET")) {
+                return getQuickTasks(user);
+            }
+            if (resource.equals("quicktasks") && parts.length == 3 && method.equals("POST")) {
+                return addQuickTask(user, readBody(exchange));
+            }
+            if (resource.equals("quicktasks") && parts.length == 5 && parts[4].equals("complete") && method.equals("POST")) {
+                return completeQuickTask(user, parseId(parts[3]));
+            }
+        }
+        throw new ApiException(404, "Not found: " + method + " " + exchange.getRequestURI().getPath());
+    }
+
+    private Response login(Map<String, Object> body) {
+        User user = authController.login(getString(body, "email"), getString(body, "password"));
+        if (user == null) throw new ApiException(401, "Invalid email or password");
+        return new Response(200, toJsonWithToken(user));
+    }
+
+    private Response signUp(Map<String, Object> body) throws IOException {
+        User user = authController.singUp(getString(body, "username"), getString(body, "email"), getString(body, "password"));
+        if (user == null) throw new ApiException(409, "Email already registered");
+        return new Response(201, toJsonWithToken(user));
+    }
+
+    /**
+     * Helper method to start a session for a user who logged in or signed up
+     * @param user, the user (User)
+     * @return the user with the token of the session (Map)
+     */
+    private Map<String, Object> toJsonWithToken(User user) {
+        Instant now = Instant.now();
+        sessions.values().removeIf(session -> session.expiresAt().isBefore(now));
+
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(user.getId(), now.plus(SESSION_LENGTH)));
+
+        Map<String, Object> json = toJson(user);
+        json.put("token", token);
+        return json;
+    }
+
+    /**
+     * Helper method to find the user of the token in the Authorization header
+     * @param exchange, the request (HttpExchange)
+     * @return the id of the user who logged in (int)
+     */
+    private int authenticate(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith(BEARER)) {
+            throw new ApiException(401, "Missing token, log in and send \"Authorization: Bearer {token}\"");
+        }
+        String token = header.substring(BEARER.length()).trim();
+        Session session = sessions.get(token);
+        if (session == null || session.expiresAt().isBefore(Instant.now())) {
+            if (session != null) sessions.remove(token);
+            throw new ApiException(401, "Invalid or expired token");
+        }
+        return session.userId();
+    }
+
+    private Response createTask(User user, Map<String, Object> body) {
+        String startHour = getString(body, "startHour");
+        String endHour = getString(body, "endHour");
+        String repeat = getOptionalString(body, "repeat", "None");
+        String eventDate = getString(body, "eventDate");
+
+        // Overlapping tasks are only created when the client confirms with "force": true
+        if (!Boolean.TRUE.equals(body.get("force"))) {
+            List<Occurrence> conflicts = taskController.findConflicts(user, startHour, endHour, repeat, eventDate);
+            if (!conflicts.isEmpty()) {
+                List<Object> json = new ArrayList<>();
+                for (Occurrence conflict : conflicts) {
+                    Map<String, Object> task = toJson(conflict.task());
+                    task.put("date", conflict.date().toString());
+                    json.add(task);
+                }
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("error", "The task overlaps " + conflicts.size() + " task(s), send \"force\": true to create it anyway");
+                error.put("conflicts", json);
+                return new Response(409, error);
+            }
+        }
+
+        Task task = taskController.createTask(user, getString(body, "title"), startHour, endHour, repeat,
+                getOptionalString(body, "description", ""), eventDate,
+                getOptionalString(body, "priority", "Medium"), getLabels(user, body, List.of()));
+        return new Response(201, toJson(task));
+    }
+
+    private Response updateTask(User user, int taskId, Map<String, Object> body) {
+        Task task = taskController.findTask(user, taskId);
+        if (task == null) throw new ApiException(404, "Task " + taskId + " not found");
+        // The fields that are not sent keep their value
+        Task updated = taskController.updateTask(user, task,
+                getOptionalString(body, "title", task.getTitle()),
+                getOptionalString(body, "startHour", task.getStartHour()),
+                getOptionalString(body, "endHour", task.getEndHour()),
+                getOptionalString(body, "repeat", task.getRepeat()),
+                getOptionalString(body, "description", task.getDescription()),
+                getOptionalString(body, "eventDate", task.getEventDate()),
+                getOptionalString(body, "priority", task.getPriority()),
+                getLabels(user, body, task.getLabels()));
+        return new Response(200, toJson(updated));
+    }
+
+    private Response deleteTask(User user, int taskId) {
+        Task task = taskController.findTask(user, taskId);
+        if (task == null) throw new ApiException(404, "Task " + taskId + " not found");
+        taskController.deleteTask(user, task);
+        return new Response(204, null);
+    }
+
+    private Response skipOccurrence(User user, int taskId, Map<String, Object> body) {
+        Task task = taskController.findTask(user, taskId);
+        if (task == null) throw new ApiException(404, "Task " + taskId + " not found");
+        taskController.skipOccurrence(user, task, LocalDate.parse(getString(body, "date")));
+        return new Response(204, null);
+    }
+
+    private Response overrideOccurrence(User user, int taskId, Map<String, Object> body) {
+        Task task = taskController.findTask(user, taskId);
+        if (task == null) throw new ApiException(404, "Task " + taskId + " not found");
+        LocalDate date = LocalDate.parse(getString(body, "date"));
+        String newDate = getOptionalString(body, "newDate", null);
+        taskController.overrideOccurrence(user, task, date, newDate == null ? date : LocalDate.parse(newDate),
+                getOptionalString(body, "title", task.getTitle()),
+                getOptionalString(body, "startHour", task.getStartHour()),
+                getOptionalString(body, "endHour", task.getEndHour()));
+        return new Response(204, null);
+    }
+
+    private Response getWeek(User user, String start) {
+        LocalDate startDate = start == null ? LocalDate.now() : LocalDate.parse(start);
+        LocalDate startOfWeek = startDate.minusDays(startDate.getDayOfWeek().getValue() % 7);
+
+        List<Object> days = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            LocalDate date = startOfWeek.plusDays(i);
+            List<Object> tasks = new ArrayList<>();
+            for (Occurrence occurrence : taskController.getOccurrencesOn(user, date)) {
+                tasks.add(toJson(occurrence.task()));
+            }
+            Map<String, Object> day = new LinkedHashMap<>();
+            day.put("date", date.toString());
+            day.put("tasks", tasks);
+            days.add(day);
+        }
+        return new Response(200, days);
+    }
+
+    private Response getFreeBusy(Map<String, String> parameters) {
+        String ids = parameters.get("users");
+        if (ids == null || ids.isBlank()) throw new ApiException(400, "Missing parameter: users");
+        List<User> users = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            users.add(findUser(id.trim()));
+        }
+
+        LocalDate from = parameters.containsKey("from") ? LocalDate.parse(parameters.get("from")) : LocalDate.now();
+        LocalDate to = parameters.containsKey("to") ? LocalDate.parse(parameters.get("to")) : from.plusDays(6);
+        int duration = parameters.containsKey("duration") ? Integer.parseInt(parameters.get("duration")) : 60;
+        int limit = parameters.containsKey("limit") ? Integer.parseInt(parameters.get("limit")) : 10;
+        FreeBusyService.Match match = FreeBusyService.Match.valueOf(parameters.getOrDefault("match", "any").toUpperCase());
+
+        FreeBusyService freeBusy = taskController.getFreeBusyService();
+        List<Object> busy = new ArrayList<>();
+        for (TimeSlot slot : FreeBusyService.toTimeSlots(freeBusy.getBusy(users, from, to, match), from)) {
+            busy.add(toJson(slot));
+        }
+        List<Object> free = new ArrayList<>();
+        for (TimeSlot slot : freeBusy.findCommonFreeSlots(users, from, to, duration, limit)) {
+            free.add(toJson(slot));
+        }
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("from", from.toString());
+        json.put("to", to.toString());
+        json.put("busy", busy);
+        json.put("free", free);
+        return new Response(200, json);
+    }
+
+    private Response getLabels(User user) {
+        List<Object> labels = new ArrayList<>();
+        for (Label label : labelController.getLabels(user)) {
+            labels.add(toJson(label));
+        }
+        return new Response(200, labels);
+    }
+
+    private Response addLabel(User user, Map<String, Object> body) throws IOException {
+        String name = getString(body, "name");
+        String color = getString(body, "color");
+        labelController.addLabel(user, name, color);
+        return new Response(201, toJson(new Label(user.getId(), name, color)));
+    }
+
+    private Response getQuickTasks(User user) {
+        List<Object> quickTasks = new ArrayList<>();
+        for (QuickTask quickTask : quickTaskController.loadQuickTasks(user)) {
+            quickTasks.add(toJson(quickTask));
+        }
+        return new Response(200, quickTasks);
+    }
+
+    private Response addQuickTask(User user, Map<String, Object> body) {
+        QuickTask quickTask = quickTaskController.addQuickTask(user, getString(body, "title"));
+        return new Response(201, toJson(quickTask));
+    }
+
+    private Response completeQuickTask(User user, int quickTaskId) {
+        if (!quickTaskController.markTaskAsCompleted(user, quickTaskId)) {
+            throw new ApiException(404, "Quick task " + quickTaskId + " not found");
+        }
+        return new Response(204, null);
+    }
+
+    /**
+     * Helper method to find the user of the path, who must be the user of the token
+     * @param userId, the user's id from the path (String)
+     * @param sessionUserId, the id of the user of the token (int)
+     * @return the user (User)
+     */
+    private User getUser(String userId, int sessionUserId) {
+        if (parseId(userId) != sessionUserId) throw new ApiException(403, "Not allowed for user " + userId);
+        return findUser(userId);
+    }
+
+    /**
+     * Helper method to find a user by id, e.g. a user of a free/busy request
+     * @param userId, the user's id (String)
+     * @return the user (User)
+     */
+    private User findUser(String userId) {
+        int id = parseId(userId);
+        User user = authController.findUserById(id);
+        if (user == null) throw new ApiException(404, "User " + id + " not found");
+        return user;
+    }
+
+    /**
+     * Helper method to find the user's labels named in the "labels" array of a body
+     * @param user, the current user (User)
+     * @param body, the request body (Map)
+     * @param defaultLabels, the labels when the body has no "labels" (List)
+     * @return the labels (List)
+     */
+    private List<Label> getLabels(User user, Map<String, Object> body, List<Label> defaultLabels) {
+        Object value = body.get("labels");
+        if (value == null) return defaultLabels;
+        if (!(value instanceof List<?> names)) throw new ApiException(400, "labels must be an array of label names");
+        List<Label> userLabels = labelController.getLabels(user);
+        List<Label> labels = new ArrayList<>();
+        for (Object name : names) {
+            Label label = userLabels.stream()
+                    .filter(userLabel -> userLabel.getName().equals(String.valueOf(name)))
+                    .findFirst()
+                    .orElseThrow(() -> new ApiException(400, "Label " + name + " not found"));
+            labels.add(label);
+        }
+        return labels;
+    }
+
+    private static int parseId(String id) {
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Invalid id: " + id);
+        }
+    }
+
+    private static String getString(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        if (value == null || value.toString().isBlank()) {
+            throw new ApiException(400, "Missing field: " + field);
+        }
+        return value.toString().trim();
+    }
+
+    private static String getOptionalString(Map<String, Object> body, String field, String defaultValue) {
+        Object value = body.get(field);
+        return value == null || value.toString().isBlank() ? defaultValue : value.toString().trim();
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        return Json.parseObject(body);
+    }
+
+    private static Map<String, String> getQueryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) return parameters;
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals <= 0) continue;
+            parameters.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        try (exchange) {
+            if (response.body() == null) {
+                exchange.sendResponseHeaders(response.status(), -1);
+                return;
+            }
+            byte[] bytes = Json.write(response.body()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(response.status(), bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static Map<String, Object> toJson(User user) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", user.getId());
+        json.put("username", user.getUsername());
+        json.put("email", user.getEmail());
+        return json;
+    }
+
+    private static Map<String, Object> toJson(Task task) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", task.getId());
+        json.put("userId", task.getUserId());
+        json.put("title", task.getTitle());
+        json.put("startHour", task.getStartHour());
+        json.put("endHour", task.getEndHour());
+        json.put("repeat", task.getRepeat());
+        json.put("description", task.getDescription());
+        json.put("eventDate", task.getEventDate());
+        json.put("priority", task.getPriority());
+        List<Object> labels = new ArrayList<>();
+        for (Label label : task.getLabels()) {
+            labels.add(label.getName());
+        }
+        json.put("labels", labels);
+        return json;
+    }
+
+    private static List<Object> toJsonList(List<Task> tasks) {
+        List<Object> json = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            json.add(toJson(task));
+        }
+        return json;
+    }
+
+    private static Map<String, Object> toJson(TimeSlot slot) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("date", slot.date().toString());
+        json.put("startHour", slot.getStartHour());
+        json.put("endHour", slot.getEndHour());
+        return json;
+    }
+
+    private static Map<String, Object> toJson(Label label) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("userId", label.getUserId());
+        json.put("name", label.getName());
+        json.put("color", label.getColor());
+        return json;
+    }
+
+    private static Map<String, Object> toJson(QuickTask quickTask) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", quickTask.getId());
+        json.put("userId", quickTask.getUserId());
+        json.put("title", quickTask.getTitle());
+        json.put("status", quickTask.isStatus());
+        return json;
+    }
+}
@@ -0,0 +1,54 @@
+package server;
+
+import com.sun.net.httpserver.HttpServer;
+import controller.AuthController;
+import controller.LabelController;
+import controller.QuickTaskController;
+import controller.TaskController;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The PandTaskServer class runs PandTask without the desktop interface, serving many users from one JVM
+ * through a JSON API (see ApiHandler). Every request runs on its own virtual thread.
+ * <p>
+ * Usage: java server.PandTaskServer [port], the port can also be set with -Dpandtask.port (default 8080).
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class PandTaskServer {
+
+    private static final int DEFAULT_PORT = 8080;
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : Integer.getInteger("pandtask.port", DEFAULT_PORT);
+
+        // Initialize controllers and load data, like the desktop application
+        AuthController authController = new AuthController();
+        TaskController taskController = new TaskController();
+        LabelController labelController = new LabelController();
+        QuickTaskController quickTaskController = new QuickTaskController();
+
+        authController.loadUsersFromCSV("data/users.csv");
+        labelController.setUsers(authController.getUsers());
+        taskController.loadTasksFromCSV("data/tasks.csv", authController.getUsers(), labelController.getLabels());
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/api/", new ApiHandler(authController, taskController, labelController, quickTaskController));
+        server.setExecutor(executor);
+        server.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println("Stopping PandTask server...");
+            server.stop(1);
+            executor.close();
+        }));
+        System.out.println("PandTask server listening on http://localhost:" + port + "/api/");
+    }
+}
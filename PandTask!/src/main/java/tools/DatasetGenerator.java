@@ -0,0 +1,227 @@
+package tools;
+
+import util.TimeParser;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * The DatasetGenerator class writes a synthetic users.csv, tasks.csv, labels.csv and quicktasks.csv, so the
+ * controllers can be tested with as many users and tasks as a real deployment instead of the sample files.
+ * The tasks are spread over the users with a Zipf distribution: with a skew of 0 every user has the same number
+ * of tasks, with a skew of 1 the busiest users have many times more tasks than the rest, like real users do.
+ * <p>
+ * Usage: java tools.DatasetGenerator [directory] [users] [tasksPerUser] [skew] [seed]
+ * (defaults: data 1000 50 1.0 42). The files in the directory are replaced.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class DatasetGenerator {
+
+    /// The first ids, like the sample files
+    public static final int FIRST_USER_ID = 1001;
+    public static final int FIRST_TASK_ID = 2001;
+    public static final int FIRST_QUICK_TASK_ID = 1;
+
+    /// Tasks are dated up to this many days before and after today
+    private static final int DATE_RANGE_DAYS = 365;
+
+    private static final String[] REPEATS = {"None", "Daily", "Weekly", "Monthly", "Yearly"};
+    /// Out of 100: most tasks happen once, weekly classes are common, daily and yearly tasks are rare
+    private static final int[] REPEAT_WEIGHTS = {62, 6, 22, 6, 4};
+
+    private static final String[] PRIORITIES = {"Low", "Medium", "High"};
+    private static final int[] PRIORITY_WEIGHTS = {30, 50, 20};
+
+    private static final String[] TITLES = {"Finish project", "Study for exam", "Submit homework", "Gym", "Lab report",
+            "Read chapter", "Team meeting", "Office hours", "Buy groceries", "Call family", "Write essay",
+            "Review notes", "Practice piano", "Club meeting", "Doctor appointment", "Pay rent"};
+    private static final String[] DESCRIPTIONS = {"Upload to portal before midnight", "Bring the laptop",
+            "Check the syllabus first", "Meet in the library", "Get milk and eggs", "Ask about the grade", ""};
+    private static final String[] LABELS = {"Homework", "Exams", "Work", "Gym", "Personal", "Club", "Videogames"};
+    private static final String[] COLORS = {"#FF0000", "#4169E1", "#FFD700", "#32CD32", "#FF8C00", "#8A2BE2"};
+    private static final String[] QUICK_TASKS = {"buy milk", "email professor", "print notes", "charge laptop",
+            "return book", "water plants"};
+
+    private final int userCount;
+    private final int tasksPerUser;
+    private final double skew;
+    private final Random random;
+    private final LocalDate today = LocalDate.now();
+
+    /**
+     * DatasetGenerator constructor
+     * @param userCount, the number of users (int)
+     * @param tasksPerUser, the average number of tasks of a user (int)
+     * @param skew, the Zipf exponent of the tasks per user, 0 for the same number for everyone (double)
+     * @param seed, the seed of the random values, the same seed writes the same files (long)
+     */
+    public DatasetGenerator(int userCount, int tasksPerUser, double skew, long seed) {
+        if (userCount < 1) throw new IllegalArgumentException("There must be at least one user: " + userCount);
+        if (tasksPerUser < 0) throw new IllegalArgumentException("Tasks per user cannot be negative: " + tasksPerUser);
+        if (skew < 0) throw new IllegalArgumentException("Skew cannot be negative: " + skew);
+        this.userCount = userCount;
+        this.tasksPerUser = tasksPerUser;
+        this.skew = skew;
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "data");
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int tasksPerUser = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        double skew = args.length > 3 ? Double.parseDouble(args[3]) : 1.0;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+
+        long start = System.nanoTime();
+        int tasks = new DatasetGenerator(users, tasksPerUser, skew, seed).write(directory);
+        System.out.printf("Wrote %d users and %d tasks to %s in %d ms%n",
+                users, tasks, directory.toAbsolutePath(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Writes the four csv files in a directory, and removes the files derived from the old ones
+     * @param directory, the directory, created if needed (Path)
+     * @return the number of tasks written (int)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    public int write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        writeUsers(directory.resolve("users.csv"));
+        int tasks = writeTasks(directory.resolve("tasks.csv"));
+        writeLabels(directory.resolve("labels.csv"));
+        writeQuickTasks(directory.resolve("quicktasks.csv"));
+
+        // The statistics, the changed dates, the record files and the archive belong to the tasks that were replaced
+        Files.deleteIfExists(directory.resolve("stats.csv"));
+        for (String recordFile : new String[] {"tasks.dat", "tasks.heap", "quicktasks.dat", "quicktasks.heap"}) {
+            Files.deleteIfExists(directory.resolve(recordFile));
+        }
+        Files.deleteIfExists(directory.resolve("overrides.csv"));
+        Path archive = directory.resolve("archive");
+        if (Files.isDirectory(archive)) {
+            try (Stream<Path> files = Files.list(archive)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Helper method to write the users file
+     * @param file, the users file (Path)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private void writeUsers(Path file) throws IOException {
+        try (BufferedWriter bw = Files.newBufferedWriter(file)) {
+            bw.write("id,username,email,password\n");
+            for (int i = 0; i < userCount; i++) {
+                bw.write((FIRST_USER_ID + i) + ",user" + i + ",user" + i + "@email.com,password" + i + "\n");
+            }
+        }
+    }
+
+    /**
+     * Helper method to write the tasks file. User i gets a share of the tasks proportional to 1 / (i + 1)^skew.
+     * @param file, the tasks file (Path)
+     * @return the number of tasks written (int)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private int writeTasks(Path file) throws IOException {
+        double[] weights = new double[userCount];
+        double totalWeight = 0;
+        for (int i = 0; i < userCount; i++) {
+            weights[i] = 1 / Math.pow(i + 1, skew);
+            totalWeight += weights[i];
+        }
+        long totalTasks = (long) userCount * tasksPerUser;
+
+        int id = FIRST_TASK_ID;
+        try (BufferedWriter bw = Files.newBufferedWriter(file)) {
+            bw.write("id,userId,title,startHour,endHour,repeat,description,eventDate,priority\n");
+            for (int i = 0; i < userCount; i++) {
+                long tasks = Math.round(totalTasks * weights[i] / totalWeight);
+                for (long t = 0; t < tasks; t++) {
+                    // Starts on the quarter hour between 7AM and 9PM and lasts 15 minutes to 3 hours
+                    int startMinute = (7 * 4 + random.nextInt(14 * 4)) * 15;
+                    int endMinute = Math.min(TimeParser.MINUTES_PER_DAY, startMinute + (1 + random.nextInt(12)) * 15);
+                    LocalDate date = today.plusDays(random.nextInt(2 * DATE_RANGE_DAYS + 1) - DATE_RANGE_DAYS);
+
+                    bw.write(id++ + "," + (FIRST_USER_ID + i) + ","
+                            + pick(TITLES) + ","
+                            + TimeParser.format(startMinute) + ","
+                            + TimeParser.format(endMinute) + ","
+                            + pick(REPEATS, REPEAT_WEIGHTS) + ","
+                            + pick(DESCRIPTIONS) + ","
+                            + date + ","
+                            + pick(PRIORITIES, PRIORITY_WEIGHTS) + "\n");
+                }
+            }
+        }
+        return id - FIRST_TASK_ID;
+    }
+
+    /**
+     * Helper method to write the labels file, every user has up to 4 labels with different names
+     * @param file, the labels file (Path)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private void writeLabels(Path file) throws IOException {
+        try (BufferedWriter bw = Files.newBufferedWriter(file)) {
+            bw.write("userId,name,color\n");
+            for (int i = 0; i < userCount; i++) {
+                int labels = random.nextInt(5);
+                int first = random.nextInt(LABELS.length);
+                for (int l = 0; l < labels; l++) {
+                    bw.write((FIRST_USER_ID + i) + "," + LABELS[(first + l) % LABELS.length] + "," + pick(COLORS) + "\n");
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method to write the quick tasks file, every user has up to 5 quick tasks and about 1 in 5 is completed
+     * @param file, the quick tasks file (Path)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    private void writeQuickTasks(Path file) throws IOException {
+        int id = FIRST_QUICK_TASK_ID;
+        try (BufferedWriter bw = Files.newBufferedWriter(file)) {
+            bw.write("id,userId,title,status\n");
+            for (int i = 0; i < userCount; i++) {
+                int quickTasks = random.nextInt(6);
+                for (int q = 0; q < quickTasks; q++) {
+                    bw.write(id++ + "," + (FIRST_USER_ID + i) + "," + pick(QUICK_TASKS) + "," + (random.nextInt(5) == 0) + "\n");
+                }
+            }
+        }
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Helper method to pick a value with weights
+     * @param values, the values (String[])
+     * @param weights, the weight of each value, adding up to 100 (int[])
+     * @return the value (String)
+     */
+    private String pick(String[] values, int[] weights) {
+        int roll = random.nextInt(100);
+        for (int i = 0; i < values.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) return values[i];
+        }
+        return values[values.length - 1];
+    }
+}
@@ -0,0 +1,235 @@
+package tools;
+
+import controller.AuthController;
+import controller.LabelController;
+import controller.QuickTaskController;
+import controller.TaskController;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+import model.QuickTask;
+import model.Task;
+import model.User;
+import util.TimeParser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The LoadDriver class replays the sessions of many users at the same time against the controllers, without the
+ * desktop interface, and reports the throughput and the latency percentiles of every step.
+ * Every simulated user runs on its own virtual thread and does what a user does on the home page: logs in, loads
+ * the labels, quick tasks and current week, then goes to the next weeks, creates and deletes tasks and completes
+ * quick tasks. The files in data/ are changed, so run it on a copy made with DatasetGenerator.
+ * <p>
+ * Usage: java tools.LoadDriver [sessions] [iterations] [seed] (defaults: 200 10 42), from the folder that holds data/.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class LoadDriver {
+
+    /// The steps of a session, in the order they are reported
+    private static final String LOGIN = "load.login";
+    private static final String HOME = "load.home";
+    private static final String WEEK = "load.week";
+    private static final String TASK_CREATE = "load.task.create";
+    private static final String TASK_DELETE = "load.task.delete";
+    private static final String QUICK_TASK_ADD = "load.quicktask.add";
+    private static final String QUICK_TASK_COMPLETE = "load.quicktask.complete";
+    private static final String SESSION = "load.session";
+    private static final String[] STEPS = {LOGIN, HOME, WEEK, TASK_CREATE, TASK_DELETE, QUICK_TASK_ADD,
+            QUICK_TASK_COMPLETE};
+
+    private final AuthController authController;
+    private final TaskController taskController;
+    private final LabelController labelController;
+    private final QuickTaskController quickTaskController;
+
+    /**
+     * LoadDriver constructor
+     * @param authController, the controller that logs in the users (AuthController)
+     * @param taskController, the controller of the tasks (TaskController)
+     * @param labelController, the controller of the labels (LabelController)
+     * @param quickTaskController, the controller of the quick tasks (QuickTaskController)
+     */
+    public LoadDriver(AuthController authController, TaskController taskController,
+                      LabelController labelController, QuickTaskController quickTaskController) {
+        this.authController = authController;
+        this.taskController = taskController;
+        this.labelController = labelController;
+        this.quickTaskController = quickTaskController;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+
+        // Initialize controllers and load data, like the server
+        AuthController authController = new AuthController();
+        TaskController taskController = new TaskController();
+        LabelController labelController = new LabelController();
+        QuickTaskController quickTaskController = new QuickTaskController();
+
+        authController.loadUsersFromCSV("data/users.csv");
+        labelController.setUsers(authController.getUsers());
+        taskController.loadTasksFromCSV("data/tasks.csv", authController.getUsers(), labelController.getLabels());
+        System.out.printf("Loaded %d users and %d tasks%n",
+                authController.getUsers().size(), taskController.getTasks().size());
+
+        LoadDriver driver = new LoadDriver(authController, taskController, labelController, quickTaskController);
+        long elapsed = driver.run(sessions, iterations, seed);
+
+        System.out.println(driver.report(sessions, elapsed));
+        System.out.println(Metrics.report());
+        Metrics.dump(Metrics.METRICS_FILE_PATH);
+    }
+
+    /**
+     * Runs the sessions at the same time, one virtual thread each, and waits for them to finish.
+     * The controllers print a line for every change, so the console is muted while the sessions run.
+     * @param sessions, the number of simulated users (int)
+     * @param iterations, the number of times each user goes through the weeks and tasks (int)
+     * @param seed, the seed of the random choices, session i uses seed + i (long)
+     * @return the time the sessions took in nanoseconds (long)
+     */
+    public long run(int sessions, int iterations, long seed) {
+        List<User> users = authController.getUsers();
+        if (users.isEmpty()) throw new IllegalStateException("There are no users in data/users.csv");
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < sessions; i++) {
+                Random random = new Random(seed + i);
+                User user = users.get(random.nextInt(users.size()));
+                executor.submit(() -> runSession(user, iterations, random));
+            }
+        } finally {
+            System.setOut(console);
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Helper method to replay the session of one user
+     * @param user, the user to log in as (User)
+     * @param iterations, the number of times the user goes through the weeks and tasks (int)
+     * @param random, the random choices of this session (Random)
+     */
+    private void runSession(User user, int iterations, Random random) {
+        long sessionStart = System.nanoTime();
+        try {
+            long start = System.nanoTime();
+            User loggedIn = authController.login(user.getEmail(), user.getPassword());
+            Metrics.record(LOGIN, start);
+            if (loggedIn == null) {
+                Metrics.counter("load.errors").increment();
+                return;
+            }
+
+            // What the home page loads after logging in
+            LocalDate today = LocalDate.now();
+            LocalDate weekStart = today.minusDays(today.getDayOfWeek().getValue() % 7);
+            start = System.nanoTime();
+            labelController.getLabels(loggedIn);
+            quickTaskController.loadQuickTasks(loggedIn);
+            renderWeek(loggedIn, weekStart);
+            Metrics.record(HOME, start);
+
+            List<Task> created = new ArrayList<>();
+            for (int i = 0; i < iterations; i++) {
+                weekStart = weekStart.plusWeeks(1);
+                start = System.nanoTime();
+                renderWeek(loggedIn, weekStart);
+                Metrics.record(WEEK, start);
+
+                int startMinute = (8 + random.nextInt(12)) * 60;
+                start = System.nanoTime();
+                created.add(taskController.createTask(loggedIn, "Load test " + i,
+                        TimeParser.format(startMinute), TimeParser.format(startMinute + 60),
+                        random.nextInt(4) == 0 ? "Weekly" : "None", "Created by the load driver",
+                        weekStart.plusDays(random.nextInt(7)).toString(), "Medium"));
+                Metrics.record(TASK_CREATE, start);
+
+                // Deletes every other task it created, so the data grows like it does for real users
+                if (i % 2 == 1) {
+                    Task task = created.remove(random.nextInt(created.size()));
+                    start = System.nanoTime();
+                    taskController.deleteTask(loggedIn, task);
+                    Metrics.record(TASK_DELETE, start);
+                }
+
+                start = System.nanoTime();
+                QuickTask quickTask = quickTaskController.addQuickTask(loggedIn, "load test " + i);
+                Metrics.record(QUICK_TASK_ADD, start);
+
+                start = System.nanoTime();
+                quickTaskController.markTaskAsCompleted(quickTask.getId());
+                Metrics.record(QUICK_TASK_COMPLETE, start);
+            }
+        } catch (RuntimeException e) {
+            Metrics.counter("load.errors").increment();
+            System.err.println("Session of " + user.getEmail() + " failed: " + e);
+        } finally {
+            Metrics.record(SESSION, sessionStart);
+        }
+    }
+
+    /**
+     * Helper method to get the occurrences of the 7 days of a week, like the calendar does when it draws a week
+     * @param user, the user (User)
+     * @param weekStart, the Sunday of the week (LocalDate)
+     */
+    private void renderWeek(User user, LocalDate weekStart) {
+        for (int day = 0; day < 7; day++) {
+            taskController.getOccurrencesOn(user, weekStart.plusDays(day));
+        }
+    }
+
+    /**
+     * Creates the report of the sessions: the operations per second and the latency percentiles of every step
+     * @param sessions, the number of sessions that ran (int)
+     * @param elapsedNanos, the time the sessions took (long)
+     * @return the report (String)
+     */
+    public String report(int sessions, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("=== PandTask load test: %d sessions in %.2f s ===%n", sessions, seconds));
+        sb.append(String.format("%-26s %8s %10s %10s %10s %10s %10s%n",
+                "step", "count", "ops/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+
+        long operations = 0;
+        for (String step : STEPS) {
+            LatencyHistogram histogram = Metrics.histogram(step);
+            operations += histogram.getCount();
+            appendStep(sb, step, histogram, seconds);
+        }
+        appendStep(sb, SESSION, Metrics.histogram(SESSION), seconds);
+
+        sb.append(String.format("%nthroughput %.1f operations/s, %d errors%n",
+                operations / seconds, Metrics.counter("load.errors").get()));
+        return sb.toString();
+    }
+
+    private static void appendStep(StringBuilder sb, String step, LatencyHistogram histogram, double seconds) {
+        sb.append(String.format("%-26s %8d %10.1f %10.3f %10.3f %10.3f %10.3f%n",
+                step,
+                histogram.getCount(),
+                histogram.getCount() / seconds,
+                histogram.getPercentile(50) / 1_000_000.0,
+                histogram.getPercentile(90) / 1_000_000.0,
+                histogram.getPercentile(99) / 1_000_000.0,
+                histogram.getMax() / 1_000_000.0));
+    }
+}
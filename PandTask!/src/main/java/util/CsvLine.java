@@ -0,0 +1,142 @@
+package util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The CsvLine class writes and reads the lines of the csv files whose fields are texts typed by the users, e.g. the
+ * titles and descriptions of the tasks. A field with a comma, a quote or a line break is written between quotes, with
+ * its quotes doubled, so the text never moves the fields after it. Fields without those characters are written as
+ * they are, so the lines written before are read the same way.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public final class CsvLine {
+
+    private CsvLine() {
+    }
+
+    /**
+     * Writes fields as one line, without the line break
+     * @param fields, the fields, a null field is written as an empty one (Object...)
+     * @return the line (String)
+     */
+    public static String join(Object... fields) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) line.append(',');
+            String field = fields[i] == null ? "" : fields[i].toString();
+            if (needsQuotes(field)) {
+                line.append('"').append(field.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(field);
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * Reads the fields of a line written by join. Empty fields at the end are kept.
+     * @param line, the line, which may have line breaks inside quoted fields (String)
+     * @return the fields (String[])
+     */
+    public static String[] split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+                continue;
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+            } else {
+                field.append(c);
+            }
+            fieldStart = false;
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Reads the next line of a file, with the next lines joined to it while a quoted field is not closed
+     * @param reader, the file (BufferedReader)
+     * @return the line, or null at the end of the file (String)
+     * @throws IOException, throws exceptions related to file I/O
+     */
+    public static String readLine(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) return null;
+        StringBuilder record = null;
+        while (hasOpenQuote(record == null ? line : record)) {
+            String next = reader.readLine();
+            // A quote left open by a cut-off file is closed at the end of the file
+            if (next == null) break;
+            if (record == null) record = new StringBuilder(line);
+            record.append('\n').append(next);
+        }
+        return record == null ? line : record.toString();
+    }
+
+    /**
+     * Helper method to check if a field has to be written between quotes
+     * @param field, the field (String)
+     * @return true if the field has a comma, a quote or a line break (boolean)
+     */
+    private static boolean needsQuotes(String field) {
+        if (field.isEmpty()) return false;
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+
+    /**
+     * Helper method to check if a line ends inside a quoted field, read the same way as split. A quote inside a
+     * field that does not start with one, e.g. in a line written before the fields were quoted, opens nothing.
+     * @param line, the line (CharSequence)
+     * @return true if a quoted field is still open (boolean)
+     */
+    private static boolean hasOpenQuote(CharSequence line) {
+        boolean quoted = false;
+        boolean fieldStart = true;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                }
+            } else if (c == ',') {
+                fieldStart = true;
+                continue;
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+            }
+            fieldStart = false;
+        }
+        return quoted;
+    }
+}
@@ -0,0 +1,106 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToIntFunction;
+
+/**
+ * The LaneLayout class places the tasks of one day side by side when their times overlap.
+ * It sorts the tasks by start and sweeps them once: a task reuses the first lane that is free at its start,
+ * and every group of overlapping tasks is split into as many lanes as it needed. The whole pass is O(n log n).
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public final class LaneLayout {
+
+    /**
+     * Where an item goes inside its day column
+     * @param item, the placed item
+     * @param start, the item's start (int)
+     * @param end, the item's end, always after start (int)
+     * @param lane, the lane of the item, 0 is the left one (int)
+     * @param laneCount, the lanes the column is split into around this item (int)
+     */
+    public record Placement<T>(T item, int start, int end, int lane, int laneCount) {
+    }
+
+    private LaneLayout() {
+    }
+
+    /**
+     * Computes the lanes of the items of one day
+     * @param items, the items of the day (List)
+     * @param startOf, gives the start of an item (ToIntFunction)
+     * @param endOf, gives the end of an item (ToIntFunction)
+     * @return the placements, ordered by start (List)
+     */
+    public static <T> List<Placement<T>> layout(List<T> items, ToIntFunction<T> startOf, ToIntFunction<T> endOf) {
+        int n = items.size();
+        int[] starts = new int[n];
+        int[] ends = new int[n];
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = startOf.applyAsInt(items.get(i));
+            // Items without duration still take one unit so they are visible
+            ends[i] = Math.max(endOf.applyAsInt(items.get(i)), starts[i] + 1);
+            // Sorting (start << 32 | index) orders by start without boxing, ties keep the input order
+            keys[i] = ((long) starts[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[n];
+        for (int k = 0; k < n; k++) {
+            order[k] = (int) keys[k];
+        }
+
+        int[] lanes = new int[n];
+        int[] laneCounts = new int[n];
+
+        // Items that are still running, ordered by end; each entry is (end << 32 | lane)
+        PriorityQueue<Long> running = new PriorityQueue<>();
+        BitSet busyLanes = new BitSet();
+        int groupStart = 0;
+        int groupLanes = 0;
+
+        for (int k = 0; k < n; k++) {
+            int i = order[k];
+            while (!running.isEmpty() && (int) (running.peek() >>> 32) <= starts[i]) {
+                busyLanes.clear((int) (running.poll() & 0xFFFFFFFFL));
+            }
+
+            // Nothing overlaps anymore: the previous group is complete
+            if (running.isEmpty()) {
+                closeGroup(order, laneCounts, groupStart, k, groupLanes);
+                groupStart = k;
+                groupLanes = 0;
+            }
+
+            int lane = busyLanes.nextClearBit(0);
+            busyLanes.set(lane);
+            running.add(((long) ends[i] << 32) | lane);
+            lanes[i] = lane;
+            groupLanes = Math.max(groupLanes, lane + 1);
+        }
+        closeGroup(order, laneCounts, groupStart, n, groupLanes);
+
+        List<Placement<T>> placements = new ArrayList<>(n);
+        for (int k = 0; k < n; k++) {
+            int i = order[k];
+            placements.add(new Placement<>(items.get(i), starts[i], ends[i], lanes[i], laneCounts[i]));
+        }
+        return placements;
+    }
+
+    /**
+     * Helper method to give every item of a group of overlapping items the number of lanes of the group
+     */
+    private static void closeGroup(int[] order, int[] laneCounts, int from, int to, int groupLanes) {
+        for (int k = from; k < to; k++) {
+            laneCounts[order[k]] = groupLanes;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package util;
+
+/**
+ * The OccupancyBitmap class keeps which quarter hours of a range of days are busy, one bit per 15 minutes.
+ * A day has 96 quarter hours and uses two longs, so a week fits in 14 longs. Free time is found a whole word at a
+ * time: shifting the free bits and ANDing them with themselves leaves a bit only where enough free quarter hours
+ * follow each other, and the first of those bits is read with Long.numberOfTrailingZeros.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class OccupancyBitmap {
+
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = TimeParser.MINUTES_PER_DAY / SLOT_MINUTES;
+    private static final int WORDS_PER_DAY = 2;
+
+    /// Bits of the second word of a day that are quarter hours (64 to 95)
+    private static final long HIGH_WORD_MASK = (1L << (SLOTS_PER_DAY - 64)) - 1;
+
+    private final int days;
+    private final long[] words;
+
+    /**
+     * OccupancyBitmap constructor, every quarter hour starts free
+     * @param days, the number of days (int)
+     */
+    public OccupancyBitmap(int days) {
+        if (days < 0) throw new IllegalArgumentException("Days cannot be negative: " + days);
+        this.days = days;
+        this.words = new long[days * WORDS_PER_DAY];
+    }
+
+    /**
+     * Marks a time of a day as busy. A quarter hour is busy if any minute of it is.
+     * @param day, the day, from 0 (int)
+     * @param startMinute, the minute of the day when the busy time starts (int)
+     * @param endMinute, the minute of the day when it ends, up to 1440 (int)
+     */
+    public void markBusy(int day, int startMinute, int endMinute) {
+        int from = Math.max(0, startMinute) / SLOT_MINUTES;
+        int to = Math.min(SLOTS_PER_DAY, (Math.min(endMinute, TimeParser.MINUTES_PER_DAY) + SLOT_MINUTES - 1) / SLOT_MINUTES);
+        if (from >= to) return;
+
+        int base = day * WORDS_PER_DAY;
+        words[base] |= range(from, Math.min(to, 64));
+        if (to > 64) words[base + 1] |= range(Math.max(from, 64) - 64, to - 64);
+    }
+
+    /**
+     * Finds the first free time of a day that is long enough, between two quarter hours
+     * @param day, the day, from 0 (int)
+     * @param slots, the number of free quarter hours needed (int)
+     * @param fromSlot, the first quarter hour it may start at (int)
+     * @param toSlot, the quarter hour it must end by (int)
+     * @return the first quarter hour of the free time, or -1 if there is none (int)
+     */
+    public int findFree(int day, int slots, int fromSlot, int toSlot) {
+        int from = Math.max(0, fromSlot);
+        int to = Math.min(SLOTS_PER_DAY, toSlot);
+        if (slots <= 0 || to - from < slots) return -1;
+
+        // Free quarter hours between from and to
+        int base = day * WORDS_PER_DAY;
+        long low = ~words[base] & range(Math.min(from, 64), Math.min(to, 64));
+        long high = ~words[base + 1] & HIGH_WORD_MASK & range(Math.max(from, 64) - 64, Math.max(to, 64) - 64);
+
+        // After each step a bit stays set if the next 'length' quarter hours are free, as a 128 bit number
+        int length = 1;
+        while (length < slots && (low | high) != 0) {
+            int shift = Math.min(length, slots - length);
+            low &= shift < 64 ? (low >>> shift) | (high << (64 - shift)) : high >>> (shift - 64);
+            high &= shift < 64 ? high >>> shift : 0;
+            length += shift;
+        }
+
+        if (low != 0) return Long.numberOfTrailingZeros(low);
+        if (high != 0) return 64 + Long.numberOfTrailingZeros(high);
+        return -1;
+    }
+
+    /**
+     * Checks if a quarter hour of a day is busy
+     * @param day, the day, from 0 (int)
+     * @param slot, the quarter hour, from 0 (int)
+     * @return true if it is busy (boolean)
+     */
+    public boolean isBusy(int day, int slot) {
+        return (words[day * WORDS_PER_DAY + (slot >>> 6)] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Finds the first quarter hour of a day, from a given one, that is busy or free
+     * @param day, the day, from 0 (int)
+     * @param fromSlot, the first quarter hour to look at (int)
+     * @param busy, true to find a busy quarter hour, false to find a free one (boolean)
+     * @return the quarter hour, or SLOTS_PER_DAY if there is none (int)
+     */
+    public int next(int day, int fromSlot, boolean busy) {
+        int from = Math.max(0, fromSlot);
+        int base = day * WORDS_PER_DAY;
+        for (int word = from >>> 6; word < WORDS_PER_DAY; word++) {
+            long bits = busy ? words[base + word] : ~words[base + word];
+            if (word == WORDS_PER_DAY - 1) bits &= HIGH_WORD_MASK;
+            if (word == from >>> 6) bits &= -1L << from;
+            if (bits != 0) return word * 64 + Long.numberOfTrailingZeros(bits);
+        }
+        return SLOTS_PER_DAY;
+    }
+
+    /**
+     * Combines two bitmaps of the same days into a new one that is busy when either of them is, e.g. to find the
+     * times when a whole group is free. Neither bitmap is changed.
+     * @param other, the other bitmap (OccupancyBitmap)
+     * @return the new bitmap (OccupancyBitmap)
+     * @throws IllegalArgumentException if the bitmaps do not have the same number of days
+     */
+    public OccupancyBitmap or(OccupancyBitmap other) {
+        OccupancyBitmap result = new OccupancyBitmap(sameDays(other));
+        for (int i = 0; i < words.length; i++) {
+            result.words[i] = words[i] | other.words[i];
+        }
+        return result;
+    }
+
+    /**
+     * Combines two bitmaps of the same days into a new one that is busy only when both of them are, e.g. to find
+     * the times when everyone of a group is busy. Neither bitmap is changed.
+     * @param other, the other bitmap (OccupancyBitmap)
+     * @return the new bitmap (OccupancyBitmap)
+     * @throws IllegalArgumentException if the bitmaps do not have the same number of days
+     */
+    public OccupancyBitmap and(OccupancyBitmap other) {
+        OccupancyBitmap result = new OccupancyBitmap(sameDays(other));
+        for (int i = 0; i < words.length; i++) {
+            result.words[i] = words[i] & other.words[i];
+        }
+        return result;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    private int sameDays(OccupancyBitmap other) {
+        if (other.days != days) {
+            throw new IllegalArgumentException("Cannot combine " + days + " days with " + other.days + " days");
+        }
+        return days;
+    }
+
+    /**
+     * Helper method to get a word with the bits from one position to another set
+     * @param from, the first bit (int)
+     * @param to, the bit after the last one, up to 64 (int)
+     * @return the word (long)
+     */
+    private static long range(int from, int to) {
+        if (from >= to) return 0;
+        long upTo = to >= 64 ? -1L : (1L << to) - 1;
+        return upTo & (-1L << from);
+    }
+}
@@ -0,0 +1,73 @@
+package util;
+
+import model.Occurrence;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * The OccurrenceMerger class merges several calendars, each one already ordered by date and start time, into one
+ * ordered calendar, e.g. to overlay the calendars of a study group. It keeps only the next occurrence of every
+ * calendar in a heap, so each occurrence costs O(log k) for k calendars and the calendars are read as they are
+ * merged instead of being collected first.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public final class OccurrenceMerger {
+
+    /// Order of the occurrences: by date, then by start time
+    public static final Comparator<Occurrence> ORDER = Comparator.comparing(Occurrence::date)
+            .thenComparingInt(occurrence -> TimeParser.parseMinuteOfDay(occurrence.task().getStartHour()));
+
+    /**
+     * An occurrence of the merged calendar with the calendar it comes from
+     * @param source, the index of the calendar in the merged list (int)
+     * @param occurrence, the occurrence (Occurrence)
+     */
+    public record Merged(int source, Occurrence occurrence) {
+    }
+
+    /**
+     * The next occurrence of a calendar, with the rest of that calendar
+     */
+    private record Head(int source, Occurrence occurrence, Iterator<Occurrence> rest) {
+    }
+
+    private OccurrenceMerger() {
+    }
+
+    /**
+     * Merges calendars ordered by ORDER into one calendar ordered the same way. Occurrences at the same time keep
+     * the order of their calendars in the list.
+     * @param sources, the calendars, read only as the merged calendar is read (List)
+     * @return the merged calendar (Iterator)
+     */
+    public static Iterator<Merged> merge(List<? extends Iterator<Occurrence>> sources) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, sources.size()),
+                Comparator.comparing(Head::occurrence, ORDER).thenComparingInt(Head::source));
+        for (int source = 0; source < sources.size(); source++) {
+            Iterator<Occurrence> calendar = sources.get(source);
+            if (calendar.hasNext()) heads.add(new Head(source, calendar.next(), calendar));
+        }
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Merged next() {
+                Head head = heads.poll();
+                if (head == null) throw new NoSuchElementException();
+                if (head.rest().hasNext()) heads.add(new Head(head.source(), head.rest().next(), head.rest()));
+                return new Merged(head.source(), head.occurrence());
+            }
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package util;
+
+import model.Task;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * The Recurrence class holds the repetition rules of the tasks (None, Daily, Weekly, Monthly, Yearly).
+ * Every view that needs to know on which dates a task happens uses these methods, so they all agree with the calendar.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public final class Recurrence {
+
+    /// Format of the eventDate column in tasks.csv, accepts single digit months and days
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-M-d");
+
+    private Recurrence() {
+    }
+
+    /**
+     * Parses the date of a task
+     * @param eventDate, the task's date (String)
+     * @return the date, or null if it is empty or not valid (LocalDate)
+     */
+    public static LocalDate parseDate(String eventDate) {
+        if (eventDate == null || eventDate.isBlank()) return null;
+        try {
+            return LocalDate.parse(eventDate.trim(), DATE_FORMATTER);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks if a task happens on a date
+     * @param task, the task (Task)
+     * @param date, the date to check (LocalDate)
+     * @return true if the task or one of its repetitions is on that date (boolean)
+     */
+    public static boolean occursOn(Task task, LocalDate date) {
+        LocalDate startDate = parseDate(task.getEventDate());
+        return startDate != null && occursOn(task.getRepeat(), startDate, date);
+    }
+
+    /**
+     * Checks if a repetition rule starting on startDate happens on a date
+     * @param repeat, the repetition type (String)
+     * @param startDate, the first date of the task (LocalDate)
+     * @param date, the date to check (LocalDate)
+     * @return true if the rule happens on that date (boolean)
+     */
+    public static boolean occursOn(String repeat, LocalDate startDate, LocalDate date) {
+        if (date.isBefore(startDate)) return false;
+
+        String repeatType = repeat != null ? repeat : "None";
+        return switch (repeatType.toLowerCase()) {
+            case "daily" -> true;
+            case "weekly" -> date.getDayOfWeek() == startDate.getDayOfWeek();
+            case "monthly" -> date.getDayOfMonth() == startDate.getDayOfMonth();
+            case "yearly" -> date.getDayOfYear() == startDate.getDayOfYear();
+            default -> date.isEqual(startDate);
+        };
+    }
+
+    /**
+     * Gets the first date on or after a date when a repetition rule happens, without checking every day in between.
+     * It agrees with occursOn: monthly rules skip the months without their day and yearly rules use the day of
+     * the year.
+     * @param repeat, the repetition type (String)
+     * @param startDate, the first date of the task (LocalDate)
+     * @param from, the first date to consider (LocalDate)
+     * @return the date, or null if the rule does not happen anymore (LocalDate)
+     */
+    public static LocalDate nextOccurrence(String repeat, LocalDate startDate, LocalDate from) {
+        LocalDate date = from.isBefore(startDate) ? startDate : from;
+
+        String repeatType = repeat != null ? repeat : "None";
+        switch (repeatType.toLowerCase()) {
+            case "daily" -> {
+                return date;
+            }
+            case "weekly" -> {
+                return date.plusDays(Math.floorMod(
+                        startDate.getDayOfWeek().getValue() - date.getDayOfWeek().getValue(), 7));
+            }
+            case "monthly" -> {
+                // Every day of the month is found at least once in 12 months
+                int day = startDate.getDayOfMonth();
+                LocalDate month = date.withDayOfMonth(1);
+                for (int i = 0; i <= 12; i++, month = month.plusMonths(1)) {
+                    if (month.lengthOfMonth() < day) continue;
+                    LocalDate candidate = month.withDayOfMonth(day);
+                    if (!candidate.isBefore(date)) return candidate;
+                }
+                return null;
+            }
+            case "yearly" -> {
+                // The 366th day only exists in leap years, at most 8 years apart
+                int dayOfYear = startDate.getDayOfYear();
+                for (int year = date.getYear(); year <= date.getYear() + 8; year++) {
+                    if (Year.of(year).length() < dayOfYear) continue;
+                    LocalDate candidate = LocalDate.ofYearDay(year, dayOfYear);
+                    if (!candidate.isBefore(date)) return candidate;
+                }
+                return null;
+            }
+            default -> {
+                return date.isEqual(startDate) ? startDate : null;
+            }
+        }
+    }
+}
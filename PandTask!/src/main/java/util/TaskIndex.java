@@ -0,0 +1,203 @@
+package util;
+
+import model.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The TaskIndex class finds the tasks of a user that overlap a time on a date without going through all of them.
+ * Every task is kept in the bucket of the days it can happen on: one bucket per date for the tasks that do not repeat,
+ * one for the daily tasks, one per day of the week, of the month and of the year for the other repetitions.
+ * A date only looks at its 5 buckets, and each bucket is sorted by start minute, so only the tasks that start
+ * before the end of the time are checked. Being in the bucket of a date already means the task repeats on it, so
+ * the only other check is that the task started by then.
+ * The class is not thread safe, the caller locks around it.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class TaskIndex {
+
+    /**
+     * A task with its first day and its start and end minute, parsed once when it is added
+     */
+    private record Entry(long firstDay, int start, int end, Task task) {}
+
+    private final Map<Long, List<Entry>> once = new HashMap<>();
+    private final List<Entry> daily = new ArrayList<>();
+    private final List<List<Entry>> weekly = buckets(7);
+    private final List<List<Entry>> monthly = buckets(31);
+    private final List<List<Entry>> yearly = buckets(366);
+    private int size;
+    private long version;
+
+    private static List<List<Entry>> buckets(int count) {
+        List<List<Entry>> buckets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        return buckets;
+    }
+
+    /**
+     * Adds a task. Tasks without a valid date or time are not indexed.
+     * @param task, the task (Task)
+     * @param startMinute, the minute of the day when it starts (int)
+     * @param endMinute, the minute of the day when it ends, after the start (int)
+     */
+    public void add(Task task, int startMinute, int endMinute) {
+        LocalDate date = Recurrence.parseDate(task.getEventDate());
+        if (date == null || startMinute == TimeParser.INVALID || endMinute == TimeParser.INVALID) return;
+
+        List<Entry> bucket = bucketOf(task, date, true);
+        Entry entry = new Entry(date.toEpochDay(), startMinute, endMinute, task);
+        bucket.add(firstStartingAtOrAfter(bucket, startMinute + 1), entry);
+        size++;
+        version++;
+    }
+
+    /**
+     * Removes a task
+     * @param task, the task, with the same date and repetition it was added with (Task)
+     * @return true if the task was indexed (boolean)
+     */
+    public boolean remove(Task task) {
+        LocalDate date = Recurrence.parseDate(task.getEventDate());
+        List<Entry> bucket = date == null ? null : bucketOf(task, date, false);
+        if (bucket == null) return false;
+        for (int i = 0; i < bucket.size(); i++) {
+            if (bucket.get(i).task() == task) {
+                bucket.remove(i);
+                size--;
+                version++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the tasks that happen on a date and overlap a time of that date
+     * @param date, the date (LocalDate)
+     * @param startMinute, the minute of the day when the time starts (int)
+     * @param endMinute, the minute of the day when the time ends (int)
+     * @return the tasks, in no particular order (List)
+     */
+    public List<Task> overlapping(LocalDate date, int startMinute, int endMinute) {
+        List<Task> found = new ArrayList<>();
+        long day = date.toEpochDay();
+        addOverlapping(once.get(day), day, startMinute, endMinute, found);
+        addOverlapping(daily, day, startMinute, endMinute, found);
+        addOverlapping(weekly.get(date.getDayOfWeek().getValue() - 1), day, startMinute, endMinute, found);
+        addOverlapping(monthly.get(date.getDayOfMonth() - 1), day, startMinute, endMinute, found);
+        addOverlapping(yearly.get(date.getDayOfYear() - 1), day, startMinute, endMinute, found);
+        return found;
+    }
+
+    /**
+     * Marks the times of the tasks that happen on a date as busy on a day of a bitmap
+     * @param date, the date (LocalDate)
+     * @param bitmap, the bitmap (OccupancyBitmap)
+     * @param day, the day of the bitmap that is the date (int)
+     */
+    public void markBusy(LocalDate date, OccupancyBitmap bitmap, int day) {
+        long epochDay = date.toEpochDay();
+        markBusy(once.get(epochDay), epochDay, bitmap, day);
+        markBusy(daily, epochDay, bitmap, day);
+        markBusy(weekly.get(date.getDayOfWeek().getValue() - 1), epochDay, bitmap, day);
+        markBusy(monthly.get(date.getDayOfMonth() - 1), epochDay, bitmap, day);
+        markBusy(yearly.get(date.getDayOfYear() - 1), epochDay, bitmap, day);
+    }
+
+    /**
+     * Gets the number of indexed tasks
+     * @return the number of tasks (int)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the version of the index, which changes every time a task is added or removed
+     * @return the version (long)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Helper method to add the tasks of a bucket that overlap a time. Only the tasks that start before the end of
+     * the time are checked; a repeating task must also have started by the date.
+     * @param bucket, the bucket of the date, may be null (List)
+     * @param day, the date as a day since the epoch (long)
+     * @param startMinute, the start of the time (int)
+     * @param endMinute, the end of the time (int)
+     * @param found, the list to add the tasks to (List)
+     */
+    private static void addOverlapping(List<Entry> bucket, long day, int startMinute, int endMinute, List<Task> found) {
+        if (bucket == null) return;
+        int end = firstStartingAtOrAfter(bucket, endMinute);
+        for (int i = 0; i < end; i++) {
+            Entry entry = bucket.get(i);
+            if (entry.end() > startMinute && entry.firstDay() <= day) {
+                found.add(entry.task());
+            }
+        }
+    }
+
+    /**
+     * Helper method to mark the times of the tasks of a bucket that started by a date as busy
+     * @param bucket, the bucket of the date, may be null (List)
+     * @param epochDay, the date as a day since the epoch (long)
+     * @param bitmap, the bitmap (OccupancyBitmap)
+     * @param day, the day of the bitmap that is the date (int)
+     */
+    private static void markBusy(List<Entry> bucket, long epochDay, OccupancyBitmap bitmap, int day) {
+        if (bucket == null) return;
+        for (Entry entry : bucket) {
+            if (entry.firstDay() <= epochDay) bitmap.markBusy(day, entry.start(), entry.end());
+        }
+    }
+
+    /**
+     * Helper method to find the first entry of a bucket that starts at or after a minute
+     * @param bucket, the bucket sorted by start (List)
+     * @param minute, the minute (int)
+     * @return the position, the size of the bucket if every entry starts before (int)
+     */
+    private static int firstStartingAtOrAfter(List<Entry> bucket, int minute) {
+        int low = 0;
+        int high = bucket.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (bucket.get(middle).start() < minute) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Helper method to get the bucket of a task
+     * @param task, the task (Task)
+     * @param date, the task's first date (LocalDate)
+     * @param create, true to create the bucket of a date that has none yet (boolean)
+     * @return the bucket, or null if there is no bucket for that date yet (List)
+     */
+    private List<Entry> bucketOf(Task task, LocalDate date, boolean create) {
+        String repeatType = task.getRepeat() != null ? task.getRepeat() : "None";
+        return switch (repeatType.toLowerCase()) {
+            case "daily" -> daily;
+            case "weekly" -> weekly.get(date.getDayOfWeek().getValue() - 1);
+            case "monthly" -> monthly.get(date.getDayOfMonth() - 1);
+            case "yearly" -> yearly.get(date.getDayOfYear() - 1);
+            default -> create
+                    ? once.computeIfAbsent(date.toEpochDay(), key -> new ArrayList<>())
+                    : once.get(date.toEpochDay());
+        };
+    }
+}
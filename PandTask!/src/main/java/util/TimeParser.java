@@ -0,0 +1,102 @@
+package util;
+
+/**
+ * The TimeParser class reads and writes the hours of the tasks as a minute of the day (0 to 1439).
+ * It accepts the 12 hour format used by the app ("9AM", "9:30 pm", "12 a.m.") and the 24 hour format ("21:15").
+ * The parser walks the characters once, so it does not allocate objects nor throw exceptions for invalid input.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public final class TimeParser {
+
+    /// Returned by parseMinuteOfDay when the text is not a valid time
+    public static final int INVALID = -1;
+
+    /// Minutes in a day, also used as the end of a task that ends at midnight
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private TimeParser() {
+    }
+
+    /**
+     * Parses a time
+     * @param text, the time, e.g. "9AM", "9:30PM" or "21:15" (CharSequence)
+     * @return the minute of the day, or INVALID if the text is not a valid time (int)
+     */
+    public static int parseMinuteOfDay(CharSequence text) {
+        if (text == null) return INVALID;
+        int length = text.length();
+        int i = skipSpaces(text, 0);
+
+        // Hour: one or two digits
+        int hour = 0;
+        int digits = 0;
+        while (i < length && digits < 2 && isDigit(text.charAt(i))) {
+            hour = hour * 10 + (text.charAt(i) - '0');
+            digits++;
+            i++;
+        }
+        if (digits == 0) return INVALID;
+
+        // Optional minutes: ":mm" or ".mm"
+        int minute = 0;
+        boolean hasMinutes = false;
+        if (i < length && (text.charAt(i) == ':' || text.charAt(i) == '.')) {
+            if (i + 2 >= length || !isDigit(text.charAt(i + 1)) || !isDigit(text.charAt(i + 2))) return INVALID;
+            minute = (text.charAt(i + 1) - '0') * 10 + (text.charAt(i + 2) - '0');
+            if (minute > 59) return INVALID;
+            hasMinutes = true;
+            i += 3;
+        }
+        i = skipSpaces(text, i);
+
+        // 24 hour format: the minutes are required, like in "H:mm"
+        if (i == length) {
+            if (!hasMinutes || hour > 23) return INVALID;
+            return hour * 60 + minute;
+        }
+
+        // 12 hour format: "AM", "PM", "A.M.", "p" ...
+        char marker = Character.toLowerCase(text.charAt(i));
+        if (marker != 'a' && marker != 'p') return INVALID;
+        i++;
+        if (i < length && text.charAt(i) == '.') i++;
+        if (i < length && Character.toLowerCase(text.charAt(i)) == 'm') {
+            i++;
+            if (i < length && text.charAt(i) == '.') i++;
+        }
+        if (skipSpaces(text, i) != length || hour < 1 || hour > 12) return INVALID;
+
+        return ((hour % 12) + (marker == 'p' ? 12 : 0)) * 60 + minute;
+    }
+
+    /**
+     * Formats a minute of the day the way the app shows hours
+     * @param minuteOfDay, the minute of the day (int)
+     * @return the time, e.g. "9AM" or "9:30PM" (String)
+     */
+    public static String format(int minuteOfDay) {
+        int minutes = Math.floorMod(minuteOfDay, MINUTES_PER_DAY);
+        int hour = minutes / 60;
+        int minute = minutes % 60;
+        String suffix = hour < 12 ? "AM" : "PM";
+        int hour12 = hour % 12 == 0 ? 12 : hour % 12;
+        if (minute == 0) return hour12 + suffix;
+        return hour12 + (minute < 10 ? ":0" : ":") + minute + suffix;
+    }
+
+    /**
+     * Helper method to skip the spaces of the text
+     * @return the index of the first character that is not a space (int)
+     */
+    private static int skipSpaces(CharSequence text, int i) {
+        while (i < text.length() && text.charAt(i) == ' ') i++;
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,214 @@
+package util;
+
+import java.util.function.Consumer;
+
+/**
+ * The TimingWheel class keeps timers that expire at a tick, like the timer wheel of an operating system kernel.
+ * There are 4 levels of 64 slots: the first level has one slot per tick, the next ones one slot per 64, 4096 and
+ * 262144 ticks. A timer goes to the slot of its deadline on the lowest level that reaches it, and moves down one level
+ * each time the wheel passes its slot, so scheduling and cancelling a timer take constant time and advancing the
+ * wheel only touches the timers that expire or move down, never every timer.
+ * The class is not thread safe, the caller locks around it.
+ * @author Paula Com Morales wkz778
+ * @author Shahad K Ali
+ * @author Raymond Huelitl
+ * @author Francisco Espinoza
+ */
+public class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /// Timers must expire less than this many ticks after the current tick (about 32 years of minutes)
+    public static final long RANGE = 1L << (SLOT_BITS * LEVELS);
+
+    /**
+     * A scheduled timer, kept in a doubly linked list of its slot so it can be cancelled in constant time
+     */
+    public static final class Timer<T> {
+        private final long deadline;
+        private final T value;
+        private Timer<T> previous;
+        private Timer<T> next;
+        private int level = -1;
+        private int slot;
+
+        private Timer(long deadline, T value) {
+            this.deadline = deadline;
+            this.value = value;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * Checks if the timer is still waiting in the wheel
+         * @return false if it expired or was cancelled (boolean)
+         */
+        public boolean isScheduled() {
+            return level >= 0;
+        }
+    }
+
+    /// First timer of every slot of every level
+    private final Timer<T>[][] slots;
+    private long currentTick;
+    private int size;
+
+    /**
+     * TimingWheel constructor
+     * @param startTick, the current tick, e.g. the current minute (long)
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long startTick) {
+        this.slots = (Timer<T>[][]) new Timer<?>[LEVELS][SLOTS];
+        this.currentTick = startTick;
+    }
+
+    /**
+     * Schedules a value to expire at a tick. A deadline that already passed expires on the next advance.
+     * @param deadline, the tick when it expires (long)
+     * @param value, the value given back when it expires (T)
+     * @return the timer, to cancel it (Timer)
+     * @throws IllegalArgumentException if the deadline is RANGE ticks or more after the current tick
+     */
+    public Timer<T> schedule(long deadline, T value) {
+        if (deadline - currentTick >= RANGE) {
+            throw new IllegalArgumentException("Deadline " + deadline + " is too far after tick " + currentTick);
+        }
+        Timer<T> timer = new Timer<>(deadline, value);
+        insert(timer, false);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Cancels a timer that has not expired yet
+     * @param timer, the timer (Timer)
+     * @return true if the timer was waiting and is now removed (boolean)
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (timer == null || !timer.isScheduled()) return false;
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to a tick and gives every value that expired on the way to the consumer, in the order
+     * of their deadlines. The consumer may schedule new timers.
+     * @param tick, the new current tick, ignored if it is not after the current one (long)
+     * @param expired, receives the values that expired (Consumer)
+     */
+    public void advance(long tick, Consumer<T> expired) {
+        while (currentTick < tick) {
+            if (size == 0) {
+                // Nothing to move or expire on the way
+                currentTick = tick;
+                return;
+            }
+            currentTick++;
+
+            // Every 64 ticks the next slot of the level above moves down, and so on up the levels
+            for (int level = 1; level < LEVELS; level++) {
+                int slot = (int) (currentTick >>> (SLOT_BITS * (level - 1))) & SLOT_MASK;
+                if (slot != 0) break;
+                cascade(level, (int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            }
+
+            int slot = (int) currentTick & SLOT_MASK;
+            Timer<T> timer = slots[0][slot];
+            slots[0][slot] = null;
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                timer.previous = null;
+                timer.next = null;
+                timer.level = -1;
+                if (timer.deadline <= currentTick) {
+                    size--;
+                    expired.accept(timer.value);
+                } else {
+                    insert(timer, false);
+                }
+                timer = next;
+            }
+        }
+    }
+
+    /**
+     * Getters
+     */
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Helper method to move the timers of a slot to the lower levels
+     * @param level, the level of the slot (int)
+     * @param slot, the slot (int)
+     */
+    private void cascade(int level, int slot) {
+        Timer<T> timer = slots[level][slot];
+        slots[level][slot] = null;
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            timer.previous = null;
+            timer.next = null;
+            insert(timer, true);
+            timer = next;
+        }
+    }
+
+    /**
+     * Helper method to add a timer to the slot of its deadline on the lowest level that reaches it
+     * @param timer, the timer (Timer)
+     * @param cascading, true while moving timers down, before the slot of the current tick expires (boolean)
+     */
+    private void insert(Timer<T> timer, boolean cascading) {
+        long delta = timer.deadline - currentTick;
+        int level = 0;
+        int slot;
+        if (delta <= 0) {
+            // Already due: the current slot still expires after a cascade, otherwise the next slot is the first one
+            slot = (int) (cascading ? currentTick : currentTick + 1) & SLOT_MASK;
+        } else {
+            while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) level++;
+            slot = (int) (timer.deadline >>> (SLOT_BITS * level)) & SLOT_MASK;
+        }
+
+        Timer<T> head = slots[level][slot];
+        timer.next = head;
+        if (head != null) head.previous = timer;
+        slots[level][slot] = timer;
+        timer.level = level;
+        timer.slot = slot;
+    }
+
+    /**
+     * Helper method to remove a timer from its slot
+     * @param timer, the timer (Timer)
+     */
+    private void unlink(Timer<T> timer) {
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else {
+            slots[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) timer.next.previous = timer.previous;
+        timer.previous = null;
+        timer.next = null;
+        timer.level = -1;
+    }
+}